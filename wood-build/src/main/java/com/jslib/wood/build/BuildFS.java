@@ -9,8 +9,22 @@ import org.slf4j.LoggerFactory;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.ArrayList;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import static com.jslib.wood.util.StringsUtil.format;
 
@@ -22,11 +36,23 @@ import static com.jslib.wood.util.StringsUtil.format;
  * are solved by subclasses, concrete implementations. All write methods take care to avoid multiple processing of the same
  * file. Also append build number to target file name, if {@link #buildNumber} is non-zero.
  * <p>
+ * Alternatively, if {@link #contentHash} is enabled, styles, scripts, media and generic files have a suffix derived from their
+ * content hash instead of build number. This way unchanged files keep their URLs across releases and remain valid into browser
+ * and CDN caches. Content hash is computed while file is written: content is streamed into a temporary file that is renamed
+ * after hash is known. Pages keep build number since they are site entry points and their URLs should be stable.
+ * <p>
+ * If {@link #precompress} is enabled, text based files - pages, styles, scripts, PWA manifest and SVG images - get a sibling
+ * file with <code>.gz</code> extension, compressed while the original file is written. Web servers can send precompressed
+ * files instead of compressing responses on the fly.
+ * <p>
  * If project is multi-language, BuildFS is language sensitive. There is optional {@link #setLanguage(String)} that is used, for
  * multi-language build, to store current processing language; when compute paths insert the language too. Language is BCP
  * encoded: language is always lower case and country, if present, upper case separated by hyphen.
  * <p>
- * Build file system implementations are not thread safe. Do not use BuildFS instances into a concurrent context.
+ * BuildFS is thread safe so that pages can be built in parallel, see {@link Builder}. Every target file is claimed on a
+ * concurrent map before being written: the first thread claiming a file writes it while other threads requesting the same file
+ * wait for the write to complete and reuse its result. Anyway, current language is not guarded and
+ * {@link #setLanguage(String)} should not be invoked while pages are building.
  *
  * @author Iulian Rotaru
  * @since 1.0
@@ -34,6 +60,21 @@ import static com.jslib.wood.util.StringsUtil.format;
 public abstract class BuildFS {
     private static final Logger log = LoggerFactory.getLogger(BuildFS.class);
 
+    private static final String CONTENT_HASH_ALGORITHM = "SHA-256";
+    private static final int CONTENT_HASH_LENGTH = 8;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final String TEMP_FILE_EXT = ".tmp";
+    private static final String BUNDLE_NAME = "bundle";
+    private static final String COMMON_SCRIPTS_NAME = "common";
+    private static final int BUNDLE_BUFFER_SIZE = 8192;
+    private static final String GZIP_EXT = ".gz";
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    /**
+     * Extensions of the files compressed when {@link #precompress} is enabled.
+     */
+    private static final Set<String> PRECOMPRESS_EXTS = new HashSet<>(Arrays.asList(CT.LAYOUT_EXT, "html", CT.STYLE_EXT, CT.SCRIPT_EXT, "json", "webmanifest", "svg"));
+
     /**
      * Project reference.
      */
@@ -45,9 +86,60 @@ public abstract class BuildFS {
     private final int buildNumber;
 
     /**
-     * Processed files cache to avoid multiple processing of the same file.
+     * If true, replace build number with content hash on styles, scripts, media and generic files name.
+     */
+    private final boolean contentHash;
+
+    /**
+     * If true, page styles are concatenated into a single style bundle, see {@link #setBundleStyles(boolean)}.
+     */
+    private boolean bundleStyles;
+
+    /**
+     * If true, styles are minified while written, see {@link StyleMinifier}.
+     */
+    private boolean minifyStyles;
+
+    /**
+     * If true, scripts are minified while written, see {@link ScriptMinifier}.
+     */
+    private boolean minifyScripts;
+
+    /**
+     * If true, page scripts are concatenated into script bundles, see {@link #setBundleScripts(boolean)}.
+     */
+    private boolean bundleScripts;
+
+    /**
+     * If true, serialize pages minified, see {@link #setMinify(boolean, boolean)}.
      */
-    private final List<File> processedFiles;
+    private boolean minify;
+
+    /**
+     * If true, omit attribute value quotes on minified pages, where HTML syntax allows it.
+     */
+    private boolean omitOptionalQuotes;
+
+    /**
+     * If true, write compressed sibling for text based files, see {@link #setPrecompress(boolean)}.
+     */
+    private boolean precompress;
+
+    /**
+     * Processed files cache to avoid multiple processing of the same file. Map key is the target file before build number or
+     * content hash insertion whereas value is the pending or completed write task returning the actual target file.
+     */
+    private final Map<File, FutureTask<File>> processedFiles;
+
+    /**
+     * Directories created by {@link #createDirectory(String)}, mapped to language and directory name.
+     */
+    private final Map<String, File> directories;
+
+    /**
+     * Cache for URL paths returned by write methods, mapped to base directory and target file.
+     */
+    private final Map<File, Map<File, String>> relativePaths;
 
     /**
      * Current processing language for multi-language build. Language is inserted into directory paths and URL absolute paths.
@@ -63,13 +155,110 @@ public abstract class BuildFS {
      * @throws IllegalArgumentException if project parameter is null or build number is negative.
      */
     protected BuildFS(File buildDir, int buildNumber) {
-        log.trace("BuildFS(File buildDir, int buildNumber)");
+        this(buildDir, buildNumber, false);
+    }
+
+    /**
+     * Protected constructor with content hash file naming option.
+     *
+     * @param buildDir    builder project directory,
+     * @param buildNumber optional build number, 0 if not used,
+     * @param contentHash if true, use content hash instead of build number on styles, scripts, media and generic files.
+     * @throws IllegalArgumentException if project parameter is null or build number is negative.
+     */
+    protected BuildFS(File buildDir, int buildNumber, boolean contentHash) {
+        log.trace("BuildFS(File buildDir, int buildNumber, boolean contentHash)");
         assert buildDir != null : "Build directory argument is null";
         assert buildNumber >= 0 : "Build number argument is negative";
 
         this.buildDir = buildDir;
         this.buildNumber = buildNumber;
-        this.processedFiles = new ArrayList<>();
+        this.contentHash = contentHash;
+        this.processedFiles = new ConcurrentHashMap<>();
+        this.directories = new ConcurrentHashMap<>();
+        this.relativePaths = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Enable minified pages serialization, with no indentation and insignificant white space removed. This setter should be
+     * invoked before pages building starts.
+     *
+     * @param minify             true to serialize pages minified,
+     * @param omitOptionalQuotes true to omit attribute value quotes on minified pages, where allowed.
+     */
+    public void setMinify(boolean minify, boolean omitOptionalQuotes) {
+        this.minify = minify;
+        this.omitOptionalQuotes = omitOptionalQuotes;
+    }
+
+    /**
+     * Enable styles minification. If enabled, styles are streamed through {@link StyleMinifier} while written. This setter
+     * should be invoked before pages building starts.
+     *
+     * @param minifyStyles true to minify styles.
+     */
+    public void setMinifyStyles(boolean minifyStyles) {
+        this.minifyStyles = minifyStyles;
+    }
+
+    /**
+     * Enable scripts minification. If enabled, scripts are streamed through {@link ScriptMinifier} while written. Builder also
+     * uses this flag for embedded scripts. This setter should be invoked before pages building starts.
+     *
+     * @param minifyScripts true to minify scripts.
+     */
+    public void setMinifyScripts(boolean minifyScripts) {
+        this.minifyScripts = minifyScripts;
+    }
+
+    public boolean isMinifyScripts() {
+        return minifyScripts;
+    }
+
+    /**
+     * Enable precompressed files. If enabled, pages, styles, scripts, PWA manifest and SVG images are compressed with best
+     * compression level, in the same pass as original file is written, into a sibling file with <code>.gz</code> extension.
+     * Compressed file is not kept if it is not smaller than original file. This setter should be invoked before pages building
+     * starts.
+     *
+     * @param precompress true to write compressed siblings.
+     */
+    public void setPrecompress(boolean precompress) {
+        this.precompress = precompress;
+    }
+
+    public boolean isPrecompress() {
+        return precompress;
+    }
+
+    /**
+     * Enable page styles bundling. If enabled, builder writes all local styles of a page into a single style bundle, see
+     * {@link #writeStyleBundle(Component, List, IReferenceHandler)}. This setter should be invoked before pages building starts.
+     *
+     * @param bundleStyles true to bundle page styles.
+     */
+    public void setBundleStyles(boolean bundleStyles) {
+        this.bundleStyles = bundleStyles;
+    }
+
+    public boolean isBundleStyles() {
+        return bundleStyles;
+    }
+
+    /**
+     * Enable page scripts bundling. If enabled, builder writes local scripts of a page into script bundles, see
+     * {@link #writeScriptBundle(Component, List, IReferenceHandler)} and
+     * {@link #writeCommonScripts(Component, List, IReferenceHandler)}. This setter should be invoked before pages building
+     * starts.
+     *
+     * @param bundleScripts true to bundle page scripts.
+     */
+    public void setBundleScripts(boolean bundleScripts) {
+        this.bundleScripts = bundleScripts;
+    }
+
+    public boolean isBundleScripts() {
+        return bundleScripts;
     }
 
     /**
@@ -86,23 +275,25 @@ public abstract class BuildFS {
     /**
      * Serialize page document to pages directory. Target file name is derived from page component name argument; uses
      * {@link #formatPageName(String)} to format it. Stores target file into {@link #processedFiles} in order to avoid multiple
-     * processing. Also takes care to append {@link #buildNumber}, if set.
+     * processing. Also takes care to append {@link #buildNumber}, if set; pages never use content hash. Page is minified if
+     * {@link #minify} is enabled.
      *
      * @param page     page component,
      * @param document page document.
+     * @return page target file.
      * @throws IOException if write fails.
      */
-    public void writePage(Component page, Document document) throws IOException {
+    public File writePage(Component page, Document document) throws IOException {
         File targetFile = new File(getPageDir(page), insertBuildNumber(formatPageName(page.getLayoutFileName())));
-        if (!processedFiles.contains(targetFile)) {
-            document.serialize(new OutputStreamWriter(Files.newOutputStream(targetFile.toPath()), StandardCharsets.UTF_8), true);
-            processedFiles.add(targetFile);
-        }
+        return process(targetFile, () -> {
+            document.serialize(newOutputStream(targetFile, targetFile.getName()), true, true, minify, omitOptionalQuotes);
+            return targetFile;
+        });
     }
 
     public String getPageLayout(FilePath layoutFile) {
         File targetFile = new File(getPageDir(null), insertBuildNumber(formatPageName(layoutFile.getName() + CT.DOT_LAYOUT_EXT)));
-        return FilesUtil.getRelativePath(getPageDir(null), targetFile, true);
+        return getRelativePath(getPageDir(null), targetFile);
     }
 
     /**
@@ -117,33 +308,33 @@ public abstract class BuildFS {
      */
     public String writeFavicon(Component page, FilePath favicon) throws IOException {
         File targetFile = new File(getMediaDir(), favicon.getName());
-        if (!processedFiles.contains(targetFile)) {
-            favicon.copyTo(Files.newOutputStream(targetFile.toPath()));
-            processedFiles.add(targetFile);
-        }
-        return FilesUtil.getRelativePath(getPageDir(page), targetFile, true);
+        process(targetFile, () -> {
+            favicon.copyTo(newOutputStream(targetFile, targetFile.getName()));
+            return targetFile;
+        });
+        return getRelativePath(getPageDir(page), targetFile);
     }
 
     public String writePwaManifest(SourceReader manifestReader) throws IOException {
         File targetFile = new File(pwaDir(), manifestReader.getSourceFile().getName());
-        if (!processedFiles.contains(targetFile)) {
+        process(targetFile, () -> {
             copy(manifestReader, targetFile);
-            processedFiles.add(targetFile);
-        }
-        return FilesUtil.getRelativePath(pwaDir(), targetFile, true);
+            return targetFile;
+        });
+        return getRelativePath(pwaDir(), targetFile);
     }
 
     public void writePwaWorker(SourceReader workerReader) throws IOException {
         File targetFile = new File(pwaDir(), workerReader.getSourceFile().getName());
-        if (!processedFiles.contains(targetFile)) {
+        process(targetFile, () -> {
             copy(workerReader, targetFile);
-            processedFiles.add(targetFile);
-        }
+            return targetFile;
+        });
     }
 
-    private static void copy(SourceReader sourceReader, File targetFile) throws IOException {
+    private void copy(SourceReader sourceReader, File targetFile) throws IOException {
         char[] buffer = new char[1024];
-        try (Writer writer = new BufferedWriter(new FileWriter(targetFile))) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(newOutputStream(targetFile, targetFile.getName())))) {
             int length;
             while ((length = sourceReader.read(buffer, 0, 1024)) != -1) {
                 writer.write(buffer, 0, length);
@@ -154,7 +345,7 @@ public abstract class BuildFS {
     /**
      * Write media file referenced from site page. Target file name is the media file name formated by
      * {@link #formatMediaName(FilePath)}. Stores target file into {@link #processedFiles} in order to avoid multiple
-     * processing. Also takes care to append {@link #buildNumber}, if set.
+     * processing. Also takes care to append {@link #buildNumber}, if set, or content hash.
      * <p>
      * Returns media file URL path, relative to site page location. Returned URL path is ready to be inserted into page
      * document.
@@ -170,7 +361,7 @@ public abstract class BuildFS {
     /**
      * Write media file referenced from style. Target file name is the media file name formated by
      * {@link #formatMediaName(FilePath)}. Stores target file into {@link #processedFiles} in order to avoid multiple
-     * processing. Also takes care to append {@link #buildNumber}, if set.
+     * processing. Also takes care to append {@link #buildNumber}, if set, or content hash.
      * <p>
      * Returns media file URL path, relative to style file location. Returned URL path is ready to be inserted into page
      * document.
@@ -204,12 +395,9 @@ public abstract class BuildFS {
     }
 
     private String writeFile(File sourceDir, File targetDir, FilePath file) throws IOException {
-        File targetFile = new File(targetDir, insertBuildNumber(formatMediaName(file)));
-        if (!processedFiles.contains(targetFile)) {
-            file.copyTo(Files.newOutputStream(targetFile.toPath()));
-            processedFiles.add(targetFile);
-        }
-        return FilesUtil.getRelativePath(sourceDir, targetFile, true);
+        File processedFile = new File(targetDir, formatMediaName(file));
+        File targetFile = process(processedFile, () -> writeContent(processedFile, file::copyTo));
+        return getRelativePath(sourceDir, targetFile);
     }
 
     /**
@@ -217,7 +405,7 @@ public abstract class BuildFS {
      * of the written style file, relative to page location, ready to be inserted into page document.
      * <p>
      * Stores target file into {@link #processedFiles} in order to avoid multiple processing. Also takes care to append
-     * {@link #buildNumber}, if set.
+     * {@link #buildNumber}, if set, or content hash if {@link #contentHash} is enabled.
      *
      * @param styleFile        style file,
      * @param referenceHandler resource references handler.
@@ -225,13 +413,33 @@ public abstract class BuildFS {
      * @throws IOException if write operation fails.
      */
     public String writeStyle(Component page, FilePath styleFile, IReferenceHandler referenceHandler) throws IOException {
-        String fileName = insertBuildNumber(formatStyleName(styleFile));
-        File targetFile = new File(getStyleDir(), fileName);
-        if (!processedFiles.contains(targetFile)) {
-            FilesUtil.copy(new SourceReader(new StyleReader(styleFile), styleFile, referenceHandler), new OutputStreamWriter(Files.newOutputStream(targetFile.toPath()), StandardCharsets.UTF_8));
-            processedFiles.add(targetFile);
-        }
-        return FilesUtil.getRelativePath(getPageDir(page), targetFile, true);
+        File processedFile = new File(getStyleDir(), formatStyleName(styleFile));
+        File targetFile = process(processedFile, () -> writeContent(processedFile, stream -> FilesUtil.copy(styleReader(styleFile, referenceHandler), new OutputStreamWriter(stream, StandardCharsets.UTF_8))));
+        return getRelativePath(getPageDir(page), targetFile);
+    }
+
+    /**
+     * Write style files, in given order, into a single style bundle, using external references' handler. Every style file is
+     * processed exactly as by {@link #writeStyle(Component, FilePath, IReferenceHandler)} but streamed into the same target
+     * file. Returns URL path of the style bundle, relative to page location, ready to be inserted into page document.
+     * <p>
+     * Bundle is stored on styles directory so that relative resource references from style files remain valid. Bundle file name
+     * is derived from page resources group, if any, and from the hash of the ordered style files list; this way pages using
+     * the same styles share the same bundle, written only once, see {@link #processedFiles}. Also takes care to append
+     * {@link #buildNumber}, if set, or content hash.
+     *
+     * @param page             page component,
+     * @param styleFiles       style files in page order, not empty,
+     * @param referenceHandler resource references handler.
+     * @return URL path relative to page location.
+     * @throws IOException if write operation fails.
+     */
+    public String writeStyleBundle(Component page, List<FilePath> styleFiles, IReferenceHandler referenceHandler) throws IOException {
+        assert styleFiles != null && !styleFiles.isEmpty() : "Style files argument is null or empty";
+        File processedFile = new File(getStyleDir(), formatBundleName(bundleName(page), styleFiles, CT.STYLE_EXT));
+        // style reader takes care to end every style file with line break
+        File targetFile = process(processedFile, () -> writeBundle(processedFile, styleFiles, styleFile -> styleReader(styleFile, referenceHandler), ""));
+        return getRelativePath(getPageDir(page), targetFile);
     }
 
     public String writeShadowStyle(Component page, FilePath styleFile) throws IOException {
@@ -242,7 +450,7 @@ public abstract class BuildFS {
      * Write script file using external references' handler. References handler is used for resources processing. Returns URL
      * path of the written script file, relative to page location, ready to be inserted into page document. Stores target file
      * into {@link #processedFiles} in order to avoid multiple processing. Also takes care to append {@link #buildNumber}, if
-     * set.
+     * set, or content hash if {@link #contentHash} is enabled.
      *
      * @param scriptFile       script file,
      * @param referenceHandler resource references handler.
@@ -250,26 +458,61 @@ public abstract class BuildFS {
      * @throws IOException if write operation fails.
      */
     public String writeScript(Component page, FilePath scriptFile, IReferenceHandler referenceHandler) throws IOException {
-        File targetFile = getScriptFile(insertBuildNumber(formatScriptName(scriptFile)));
-        if (!processedFiles.contains(targetFile)) {
-            FilesUtil.copy(new SourceReader(scriptFile, referenceHandler), new OutputStreamWriter(Files.newOutputStream(targetFile.toPath()), StandardCharsets.UTF_8));
-            processedFiles.add(targetFile);
-        }
-        return FilesUtil.getRelativePath(getPageDir(page), targetFile, true);
+        File processedFile = getScriptFile(formatScriptName(scriptFile));
+        File targetFile = process(processedFile, () -> writeContent(processedFile, stream -> FilesUtil.copy(scriptReader(new SourceReader(scriptFile, referenceHandler)), new OutputStreamWriter(stream, StandardCharsets.UTF_8))));
+        return getRelativePath(getPageDir(page), targetFile);
     }
 
     public String writeScript(Component page, SourceReader sourceReader) throws IOException {
-        File targetFile = getScriptFile(insertBuildNumber(formatScriptName(sourceReader.getSourceFile())));
-        if (!processedFiles.contains(targetFile)) {
-            FilesUtil.copy(sourceReader, new OutputStreamWriter(Files.newOutputStream(targetFile.toPath()), StandardCharsets.UTF_8));
-            processedFiles.add(targetFile);
-        }
-        return FilesUtil.getRelativePath(getPageDir(page), targetFile, true);
+        File processedFile = getScriptFile(formatScriptName(sourceReader.getSourceFile()));
+        File targetFile = process(processedFile, () -> writeContent(processedFile, stream -> FilesUtil.copy(scriptReader(sourceReader), new OutputStreamWriter(stream, StandardCharsets.UTF_8))));
+        return getRelativePath(getPageDir(page), targetFile);
+    }
+
+    /**
+     * Write script files, in given order, into a single script bundle, using external references' handler. Returns URL path
+     * of the script bundle, relative to page location, ready to be inserted into page document.
+     * <p>
+     * Bundle file name is derived from page resources group, if any, and from the hash of the ordered script files list so that
+     * pages with the same scripts share the same bundle, written only once. Also takes care to append {@link #buildNumber}, if
+     * set, or content hash.
+     *
+     * @param page             page component,
+     * @param scriptFiles      script files in dependency order, not empty,
+     * @param referenceHandler resource references handler.
+     * @return URL path relative to page location.
+     * @throws IOException if write operation fails.
+     */
+    public String writeScriptBundle(Component page, List<FilePath> scriptFiles, IReferenceHandler referenceHandler) throws IOException {
+        return writeScriptBundle(page, bundleName(page), scriptFiles, referenceHandler);
+    }
+
+    /**
+     * Write scripts shared by many pages into common script bundle. This method is similar to
+     * {@link #writeScriptBundle(Component, List, IReferenceHandler)} but bundle name is not related to page resources group.
+     *
+     * @param page             page component,
+     * @param scriptFiles      common script files in dependency order, not empty,
+     * @param referenceHandler resource references handler.
+     * @return URL path relative to page location.
+     * @throws IOException if write operation fails.
+     */
+    public String writeCommonScripts(Component page, List<FilePath> scriptFiles, IReferenceHandler referenceHandler) throws IOException {
+        return writeScriptBundle(page, COMMON_SCRIPTS_NAME, scriptFiles, referenceHandler);
+    }
+
+    private String writeScriptBundle(Component page, String bundleName, List<FilePath> scriptFiles, IReferenceHandler referenceHandler) throws IOException {
+        assert scriptFiles != null && !scriptFiles.isEmpty() : "Script files argument is null or empty";
+        File processedFile = getScriptFile(formatBundleName(bundleName, scriptFiles, CT.SCRIPT_EXT));
+        // new line guards against script ending with line comment and semicolon against missing statement terminator
+        File targetFile = process(processedFile, () -> writeBundle(processedFile, scriptFiles, scriptFile -> scriptReader(new SourceReader(scriptFile, referenceHandler)), "\n;\n"));
+        return getRelativePath(getPageDir(page), targetFile);
     }
 
     private File getScriptFile(String scriptFileName) throws IOException {
         File file = new File(getScriptDir(), scriptFileName);
-        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+        // parent directory can be concurrently created by another thread so check again after mkdirs failure
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs() && !file.getParentFile().isDirectory()) {
             throw new IOException(format("Fail to create script directory %s", file.getParentFile()));
         }
         return file;
@@ -278,6 +521,240 @@ public abstract class BuildFS {
     // ------------------------------------------------------
     // Private helper methods
 
+    /**
+     * Claim processed file and execute write task, if not already claimed. If processed file was already claimed by another
+     * thread, wait for its write task to complete and return its result. A failed write task releases its claim so that a
+     * subsequent request can retry the write; current waiting threads get the same exception.
+     *
+     * @param processedFile target file before build number or content hash insertion,
+     * @param writer        write task returning actual target file.
+     * @return actual target file.
+     * @throws IOException if write task fails.
+     */
+    private File process(File processedFile, Callable<File> writer) throws IOException {
+        FutureTask<File> task = processedFiles.get(processedFile);
+        if (task == null) {
+            FutureTask<File> newTask = new FutureTask<>(writer);
+            task = processedFiles.putIfAbsent(processedFile, newTask);
+            if (task == null) {
+                task = newTask;
+                task.run();
+            }
+        }
+
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(format("Interrupted while waiting for file %s", processedFile));
+        } catch (ExecutionException e) {
+            processedFiles.remove(processedFile, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new WoodException(cause);
+        }
+    }
+
+    /**
+     * Get URL path of target file, relative to base directory. Since the same files are referenced from many pages, computed
+     * paths are cached.
+     *
+     * @param baseDir    base directory,
+     * @param targetFile target file.
+     * @return target file URL path relative to base directory.
+     * @see FilesUtil#getRelativePath(File, File, boolean...)
+     */
+    private String getRelativePath(File baseDir, File targetFile) {
+        Map<File, String> paths = relativePaths.computeIfAbsent(baseDir, dir -> new ConcurrentHashMap<>());
+        return paths.computeIfAbsent(targetFile, file -> FilesUtil.getRelativePath(baseDir, file, true));
+    }
+
+    /**
+     * Write content to target file, inserting build number or content hash into file name. If {@link #contentHash} is not
+     * enabled, content is written directly to target file with build number inserted, see {@link #insertBuildNumber(String)}.
+     * Otherwise, content is streamed to a temporary file while computing its hash; temporary file is renamed after hash is
+     * known, see {@link #insertContentHash(String, byte[])}. Compressed sibling, if any, is renamed too.
+     *
+     * @param processedFile target file before build number or content hash insertion,
+     * @param contentWriter writer for file content, in charge with closing given output stream.
+     * @return actual target file.
+     * @throws IOException if write operation fails.
+     */
+    private File writeContent(File processedFile, ContentWriter contentWriter) throws IOException {
+        File targetDir = processedFile.getParentFile();
+        if (!contentHash) {
+            File targetFile = new File(targetDir, insertBuildNumber(processedFile.getName()));
+            contentWriter.write(newOutputStream(targetFile, processedFile.getName()));
+            return targetFile;
+        }
+
+        File tempFile = new File(targetDir, processedFile.getName() + TEMP_FILE_EXT);
+        MessageDigest messageDigest = createMessageDigest();
+        try {
+            contentWriter.write(new DigestOutputStream(newOutputStream(tempFile, processedFile.getName()), messageDigest));
+            File targetFile = new File(targetDir, insertContentHash(processedFile.getName(), messageDigest.digest()));
+            Files.move(tempFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            if (gzipFile(tempFile).exists()) {
+                Files.move(gzipFile(tempFile).toPath(), gzipFile(targetFile).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(gzipFile(targetFile).toPath());
+            }
+            return targetFile;
+        } finally {
+            Files.deleteIfExists(tempFile.toPath());
+            Files.deleteIfExists(gzipFile(tempFile).toPath());
+        }
+    }
+
+    /**
+     * Open output stream for target file. If {@link #precompress} is enabled and file name has one of the
+     * {@link #PRECOMPRESS_EXTS}, returned stream also writes compressed content into target file sibling, see
+     * {@link GzipSiblingOutputStream}. File name is passed separately since target file can be a temporary one.
+     * <p>
+     * If file is not compressed, gzip sibling left by a previous build, if any, is deleted; otherwise web server may send stale
+     * precompressed content.
+     *
+     * @param targetFile target file,
+     * @param fileName   file name used to decide if file is compressed.
+     * @return target file output stream.
+     * @throws IOException if output stream creation fails.
+     */
+    private OutputStream newOutputStream(File targetFile, String fileName) throws IOException {
+        if (!precompress || !PRECOMPRESS_EXTS.contains(FilesUtil.getExtension(fileName).toLowerCase())) {
+            Files.deleteIfExists(gzipFile(targetFile).toPath());
+            return Files.newOutputStream(targetFile.toPath());
+        }
+        OutputStream stream = Files.newOutputStream(targetFile.toPath());
+        try {
+            return new GzipSiblingOutputStream(stream, gzipFile(targetFile));
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    private static File gzipFile(File file) {
+        return new File(file.getParentFile(), file.getName() + GZIP_EXT);
+    }
+
+    /**
+     * Create reader for style file content, with resource references resolved and style variants included. Returned reader is
+     * decorated with {@link StyleMinifier} if {@link #minifyStyles} is enabled.
+     *
+     * @param styleFile        style file,
+     * @param referenceHandler resource references handler.
+     * @return style file reader.
+     */
+    private Reader styleReader(FilePath styleFile, IReferenceHandler referenceHandler) {
+        Reader reader = new SourceReader(new StyleReader(styleFile), styleFile, referenceHandler);
+        return minifyStyles ? new StyleMinifier(reader) : reader;
+    }
+
+    /**
+     * Decorate script reader with {@link ScriptMinifier} if {@link #minifyScripts} is enabled.
+     *
+     * @param reader script reader.
+     * @return script reader, possible decorated.
+     */
+    private Reader scriptReader(Reader reader) {
+        return minifyScripts ? new ScriptMinifier(reader) : reader;
+    }
+
+    /**
+     * Write source files content, in given order, into bundle file. Every source file is read by its own source reader, so
+     * that resource references are resolved relative to source file, but all readers are streamed into the same writer.
+     *
+     * @param processedFile bundle file before build number or content hash insertion,
+     * @param sourceFiles   source files in bundle order,
+     * @param readerFactory factory for source file reader,
+     * @param separator     text written after every source file, possible empty.
+     * @return actual bundle file.
+     * @throws IOException if write operation fails.
+     */
+    private File writeBundle(File processedFile, List<FilePath> sourceFiles, Function<FilePath, Reader> readerFactory, String separator) throws IOException {
+        return writeContent(processedFile, stream -> {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+                char[] buffer = new char[BUNDLE_BUFFER_SIZE];
+                for (FilePath sourceFile : sourceFiles) {
+                    try (Reader reader = readerFactory.apply(sourceFile)) {
+                        int length;
+                        while ((length = reader.read(buffer, 0, BUNDLE_BUFFER_SIZE)) != -1) {
+                            writer.write(buffer, 0, length);
+                        }
+                    }
+                    writer.write(separator);
+                }
+            }
+        });
+    }
+
+    /**
+     * Get bundle base name for page. Returns page resources group with path separators replaced by dash or
+     * <code>bundle</code> if page has no resources group.
+     *
+     * @param page page component, possible null.
+     * @return bundle base name.
+     */
+    private static String bundleName(Component page) {
+        String group = page != null ? page.getResourcesGroup() : null;
+        if (group != null) {
+            group = group.replaceAll("^/+|/+$", "").replace('/', '-');
+        }
+        return group != null && !group.isEmpty() ? group : BUNDLE_NAME;
+    }
+
+    /**
+     * Format bundle file name from bundle base name and ordered source files list. Bundle base name is followed by the first
+     * {@link #CONTENT_HASH_LENGTH} hexadecimal digits of source files list hash.
+     *
+     * @param bundleName  bundle base name,
+     * @param sourceFiles source files in bundle order,
+     * @param extension   bundle file extension.
+     * @return bundle file name.
+     */
+    private static String formatBundleName(String bundleName, List<FilePath> sourceFiles, String extension) {
+        MessageDigest messageDigest = createMessageDigest();
+        for (FilePath sourceFile : sourceFiles) {
+            messageDigest.update(sourceFile.value().getBytes(StandardCharsets.UTF_8));
+            messageDigest.update((byte) 0);
+        }
+        return insertContentHash(bundleName + '.' + extension, messageDigest.digest());
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance(CONTENT_HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new WoodException(e);
+        }
+    }
+
+    /**
+     * Insert content hash into file name. Content hash is added to file base name separated by dash. Only the first
+     * {@link #CONTENT_HASH_LENGTH} hexadecimal digits of the hash are used. Extension is preserved.
+     *
+     * @param fileName file name,
+     * @param hash     file content hash.
+     * @return file name with content hash.
+     * @throws WoodException if file does not have extension.
+     */
+    private static String insertContentHash(String fileName, byte[] hash) {
+        StringBuilder hashBuilder = new StringBuilder();
+        for (int i = 0; hashBuilder.length() < CONTENT_HASH_LENGTH; ++i) {
+            hashBuilder.append(HEX_DIGITS[(hash[i] >> 4) & 0x0F]);
+            hashBuilder.append(HEX_DIGITS[hash[i] & 0x0F]);
+        }
+        return insertSuffix(fileName, hashBuilder.toString());
+    }
+
     /**
      * Insert build number into file name. {@link #buildNumber Build number} should be already set before invoking this method.
      * If {@link #buildNumber} is not set, that is, its value is 0 this method returns original file name.
@@ -293,13 +770,94 @@ public abstract class BuildFS {
         if (buildNumber == 0) {
             return fileName;
         }
+        return insertSuffix(fileName, String.format("%03d", buildNumber));
+    }
+
+    private static String insertSuffix(String fileName, String suffix) {
         int extensionSeparatorIndex = fileName.lastIndexOf('.');
         if (extensionSeparatorIndex == -1) {
             throw new WoodException("Invalid file name %s; missing extension", fileName);
         }
         String baseName = fileName.substring(0, extensionSeparatorIndex);
         String extension = fileName.substring(extensionSeparatorIndex + 1);
-        return String.format("%s-%03d.%s", baseName, buildNumber, extension);
+        return String.format("%s-%s.%s", baseName, suffix, extension);
+    }
+
+    /**
+     * Content writer used by {@link #writeContent(File, ContentWriter)} to actually write file content.
+     */
+    @FunctionalInterface
+    private interface ContentWriter {
+        /**
+         * Write content to given output stream then close it.
+         *
+         * @param stream output stream.
+         * @throws IOException if write operation fails.
+         */
+        void write(OutputStream stream) throws IOException;
+    }
+
+    /**
+     * Output stream that writes content to target file and, in the same pass, compressed content to gzip sibling file, using
+     * best compression level. On close, gzip file is deleted if it is not smaller than target file; this way a stale sibling
+     * from a previous build is not left behind either.
+     */
+    private static class GzipSiblingOutputStream extends FilterOutputStream {
+        private final File gzipFile;
+        private final GZIPOutputStream gzipStream;
+        private long length;
+        private boolean closed;
+
+        public GzipSiblingOutputStream(OutputStream stream, File gzipFile) throws IOException {
+            super(stream);
+            this.gzipFile = gzipFile;
+            this.gzipStream = new GZIPOutputStream(Files.newOutputStream(gzipFile.toPath()), GZIP_BUFFER_SIZE) {
+                {
+                    def.setLevel(Deflater.BEST_COMPRESSION);
+                }
+            };
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            gzipStream.write(b);
+            ++length;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            gzipStream.write(b, off, len);
+            length += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+            gzipStream.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                try {
+                    out.close();
+                } finally {
+                    gzipStream.close();
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(gzipFile.toPath());
+                throw e;
+            }
+            if (gzipFile.length() >= length) {
+                Files.delete(gzipFile.toPath());
+            }
+        }
     }
 
     // ------------------------------------------------------
@@ -404,12 +962,18 @@ public abstract class BuildFS {
      * Both language directory name and <code>lang</code> attribute has the same format; hence language encoded into request
      * path has also the same format.
      * <p>
-     * Create directory, if it does not already exist.
+     * Create directory, if it does not already exist. Created directories are cached so that file system is accessed only once
+     * per directory.
      *
      * @param dirName name of directory to create.
      * @return created directory.
      */
     protected File createDirectory(String dirName) {
+        String key = language != null ? language + '/' + dirName : dirName;
+        return directories.computeIfAbsent(key, k -> mkdirs(dirName));
+    }
+
+    private File mkdirs(String dirName) {
         // clone build directory since need to keep it unchanged
         File dir = new File(buildDir.getPath());
 
@@ -0,0 +1,433 @@
+package com.jslib.wood.build;
+
+import com.jslib.wood.CompoPath;
+import com.jslib.wood.FilePath;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Dependency graph used for incremental build. For every page and language, build graph keeps the set of input files touched
+ * while page was built - layouts, descriptors, styles, scripts, variables and media files, together with their content hash.
+ * Graph is persisted on build directory and loaded on next build; a page is rebuilt only if at least one of its inputs has
+ * changed, that is, content hash differs. A missing input file is recorded too, with a special hash value, so that file
+ * creation is detected as a change.
+ * <p>
+ * Input can also be a directory, in which case its hash is computed on directory listing. Builder records the directories
+ * searched for resolved files so that a file added into them is detected as a change, e.g. a new variables file, media file
+ * variant or theme style.
+ * <p>
+ * Graph file is a simple line oriented text file. First line stores the build options, including build number; if build
+ * options are changed all pages are rebuilt since build output and file names from build directory depend on them. Next
+ * lines store common scripts for every language, see {@link #setCommonScripts(String, Collection)}; if common scripts of a
+ * language are changed all pages of that language are rebuilt. After that every page has a header line with page key
+ * followed by its inputs, outputs and bundled scripts, one per line, tab indented. Input and script paths are relative to
+ * project root and output paths are relative to build directory. A page is rebuilt if any of its output files is missing,
+ * e.g. build directory was partially cleaned. Page bundled scripts are used to compute common scripts without scanning pages
+ * with unchanged inputs, see {@link #getScripts(String, CompoPath)}.
+ *
+ * <pre>
+ * build-options build-number=4 content-hash=false minify=true ...
+ * common-scripts en lib/js-lib.js script/widget.js
+ * en:res/page/index
+ * 	1a2b3c4d project.xml
+ * 	5e6f7a8b res/page/index/index.htm
+ * 	9c0d1e2f res/page/index/
+ * 	- res/page/index/index.css
+ * 	output index.htm
+ * 	output style/index.css
+ * 	script lib/js-lib.js
+ * </pre>
+ * <p>
+ * This class is thread safe and can be used by pages built in parallel.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+class BuildGraph {
+    private static final Logger log = LoggerFactory.getLogger(BuildGraph.class);
+
+    /**
+     * Build graph file name, stored on build directory root.
+     */
+    static final String FILE_NAME = ".build-graph";
+
+    /**
+     * Hash value used for missing input file.
+     */
+    private static final String MISSING_FILE = "-";
+
+    private static final String BUILD_OPTIONS = "build-options ";
+
+    private static final String COMMON_SCRIPTS = "common-scripts ";
+
+    /**
+     * Marker used instead of content hash for page output lines.
+     */
+    private static final String OUTPUT = "output";
+
+    /**
+     * Marker used instead of content hash for page bundled script lines.
+     */
+    private static final String SCRIPT = "script";
+
+    /**
+     * Project root directory used to resolve input file paths.
+     */
+    private final File projectDir;
+
+    /**
+     * Build directory used to resolve output file paths.
+     */
+    private final File buildDir;
+
+    /**
+     * Graph storage file, from build directory.
+     */
+    private final File graphFile;
+
+    /**
+     * Build options that affect build output, including build number, formatted as a single line.
+     */
+    private final String buildOptions;
+
+    /**
+     * Pages inputs and outputs loaded from graph file, mapped to page key.
+     */
+    private final Map<String, Page> previousPages;
+
+    /**
+     * Pages inputs and outputs recorded by current build. On save, pages from previous build are preserved if not rebuilt.
+     */
+    private final Map<String, Page> currentPages;
+
+    /**
+     * Common scripts loaded from graph file, mapped to language. Common scripts are stored as space separated paths, sorted.
+     */
+    private final Map<String, String> previousCommonScripts;
+
+    /**
+     * Common scripts set by current build, mapped to language.
+     */
+    private final Map<String, String> currentCommonScripts;
+
+    /**
+     * Languages with common scripts changed since previous build. All pages of these languages are rebuilt.
+     */
+    private final Set<String> changedLanguages;
+
+    /**
+     * Input files content hash cache. It is common for multiple pages to share input files, e.g. templates and variables, and
+     * this cache ensures file hash is computed only once per build.
+     */
+    private final Map<String, String> hashes;
+
+    /**
+     * Create build graph instance and load pages inputs from graph file, if exists and build options are not changed.
+     *
+     * @param projectDir   project root directory,
+     * @param buildDir     build directory,
+     * @param buildOptions current build options, including build number.
+     */
+    public BuildGraph(File projectDir, File buildDir, String buildOptions) {
+        log.trace("BuildGraph(File projectDir, File buildDir, String buildOptions)");
+        this.projectDir = projectDir;
+        this.buildDir = buildDir;
+        this.graphFile = new File(buildDir, FILE_NAME);
+        this.buildOptions = buildOptions;
+        this.previousPages = new HashMap<>();
+        this.currentPages = new ConcurrentHashMap<>();
+        this.previousCommonScripts = new HashMap<>();
+        this.currentCommonScripts = new ConcurrentHashMap<>();
+        this.changedLanguages = ConcurrentHashMap.newKeySet();
+        this.hashes = new ConcurrentHashMap<>();
+
+        if (graphFile.exists()) {
+            try {
+                load();
+            } catch (IOException e) {
+                log.warn("Fail to load build graph {}. Full build is forced: {}", graphFile, e.getMessage());
+                previousPages.clear();
+                previousCommonScripts.clear();
+            }
+        }
+    }
+
+    /**
+     * Set common scripts for a language, see {@link Builder}. Common scripts are bundled into a script bundle shared by most
+     * pages and depend on all pages of the language; a change on common scripts set affects pages whose own inputs are not
+     * changed. If common scripts are changed since previous build all pages of the language are considered changed. This
+     * method should be called before testing language pages with {@link #isUpToDate(String, CompoPath)}.
+     *
+     * @param language      current processing language,
+     * @param commonScripts common scripts for language, possible empty.
+     */
+    public void setCommonScripts(String language, Collection<FilePath> commonScripts) {
+        Set<String> paths = new TreeSet<>();
+        for (FilePath commonScript : commonScripts) {
+            paths.add(commonScript.value());
+        }
+        String value = String.join(" ", paths);
+        currentCommonScripts.put(language, value);
+        if (!value.equals(previousCommonScripts.getOrDefault(language, ""))) {
+            log.debug("Changed common scripts for language {}.", language);
+            changedLanguages.add(language);
+        }
+    }
+
+    /**
+     * Test if page inputs are not changed since previous build and page outputs still exist. Returns false if page is not
+     * recorded on previous build.
+     *
+     * @param language page language,
+     * @param page     page component path.
+     * @return true if page does not need to be rebuilt.
+     */
+    public boolean isUpToDate(String language, CompoPath page) {
+        if (changedLanguages.contains(language)) {
+            return false;
+        }
+        String pageKey = key(language, page);
+        Page previousPage = previousPages.get(pageKey);
+        if (previousPage == null || previousPage.outputs.isEmpty() || isChanged(pageKey, previousPage)) {
+            return false;
+        }
+        for (String output : previousPage.outputs) {
+            if (!new File(buildDir, output).isFile()) {
+                log.debug("Missing output {} for page {}.", output, pageKey);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get sources of page scripts that can be bundled, as recorded by previous build, provided page inputs are not changed
+     * since. Returns null if page is not recorded on previous build or its inputs are changed; caller should scan the page.
+     *
+     * @param language page language,
+     * @param page     page component path.
+     * @return page bundled scripts, possible empty, or null.
+     */
+    public List<String> getScripts(String language, CompoPath page) {
+        String pageKey = key(language, page);
+        Page previousPage = previousPages.get(pageKey);
+        if (previousPage == null || isChanged(pageKey, previousPage)) {
+            return null;
+        }
+        return Collections.unmodifiableList(previousPage.scripts);
+    }
+
+    private boolean isChanged(String pageKey, Page previousPage) {
+        for (Map.Entry<String, String> input : previousPage.inputs.entrySet()) {
+            if (!input.getValue().equals(hash(input.getKey()))) {
+                log.debug("Changed input {} for page {}.", input.getKey(), pageKey);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record input and output files for a page just built. Input files content hash is computed at recording time.
+     *
+     * @param language page language,
+     * @param page     page component path,
+     * @param inputs   input files touched while page was built,
+     * @param outputs  files written for page, including page file,
+     * @param scripts  sources of page scripts that can be bundled, in page order.
+     */
+    public void record(String language, CompoPath page, Collection<FilePath> inputs, Collection<File> outputs, List<String> scripts) {
+        Page currentPage = new Page();
+        for (FilePath input : inputs) {
+            currentPage.inputs.put(input.value(), hash(input.value()));
+        }
+        Path buildPath = buildDir.getAbsoluteFile().toPath().normalize();
+        for (File output : outputs) {
+            Path outputPath = buildPath.relativize(output.getAbsoluteFile().toPath().normalize());
+            currentPage.outputs.add(outputPath.toString().replace(File.separatorChar, '/'));
+        }
+        currentPage.scripts.addAll(scripts);
+        currentPages.put(key(language, page), currentPage);
+    }
+
+    /**
+     * Save build graph to build directory. Pages from previous build that were not rebuilt keep their recorded inputs, but only
+     * if still present in project; pages removed from project are discarded so that a page added back later is not trusted on
+     * stale records.
+     *
+     * @param languages    project languages,
+     * @param projectPages project pages.
+     * @throws IOException if graph file write fails.
+     */
+    public void save(Collection<String> languages, Collection<CompoPath> projectPages) throws IOException {
+        Map<String, Page> pages = new TreeMap<>();
+        Map<String, String> commonScripts = new TreeMap<>();
+        for (String language : languages) {
+            for (CompoPath page : projectPages) {
+                String pageKey = key(language, page);
+                Page previousPage = previousPages.get(pageKey);
+                if (previousPage != null) {
+                    pages.put(pageKey, previousPage);
+                }
+            }
+            String languageCommonScripts = previousCommonScripts.get(language);
+            if (languageCommonScripts != null) {
+                commonScripts.put(language, languageCommonScripts);
+            }
+        }
+        pages.putAll(currentPages);
+        commonScripts.putAll(currentCommonScripts);
+
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(graphFile), StandardCharsets.UTF_8))) {
+            writer.write(BUILD_OPTIONS);
+            writer.write(buildOptions);
+            writer.newLine();
+            for (Map.Entry<String, String> entry : commonScripts.entrySet()) {
+                writer.write(COMMON_SCRIPTS);
+                writer.write(entry.getKey());
+                writer.write(' ');
+                writer.write(entry.getValue());
+                writer.newLine();
+            }
+            for (Map.Entry<String, Page> page : pages.entrySet()) {
+                writer.write(page.getKey());
+                writer.newLine();
+                for (Map.Entry<String, String> input : page.getValue().inputs.entrySet()) {
+                    writeLine(writer, input.getValue(), input.getKey());
+                }
+                for (String output : page.getValue().outputs) {
+                    writeLine(writer, OUTPUT, output);
+                }
+                for (String script : page.getValue().scripts) {
+                    writeLine(writer, SCRIPT, script);
+                }
+            }
+        }
+    }
+
+    private static void writeLine(BufferedWriter writer, String hash, String path) throws IOException {
+        writer.write('\t');
+        writer.write(hash);
+        writer.write(' ');
+        writer.write(path);
+        writer.newLine();
+    }
+
+    private void load() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(graphFile), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            if (line == null || !line.equals(BUILD_OPTIONS + buildOptions)) {
+                log.debug("Build options changed. Full build is forced.");
+                return;
+            }
+
+            Page page = null;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (line.startsWith(COMMON_SCRIPTS)) {
+                    String commonScripts = line.substring(COMMON_SCRIPTS.length());
+                    int separatorIndex = commonScripts.indexOf(' ');
+                    if (separatorIndex == -1) {
+                        throw new IOException("Invalid build graph line: " + line);
+                    }
+                    previousCommonScripts.put(commonScripts.substring(0, separatorIndex), commonScripts.substring(separatorIndex + 1));
+                    continue;
+                }
+                if (line.charAt(0) != '\t') {
+                    page = new Page();
+                    previousPages.put(line, page);
+                    continue;
+                }
+                int separatorIndex = line.indexOf(' ');
+                if (page == null || separatorIndex == -1) {
+                    throw new IOException("Invalid build graph line: " + line);
+                }
+                String hash = line.substring(1, separatorIndex);
+                String path = line.substring(separatorIndex + 1);
+                if (hash.equals(OUTPUT)) {
+                    page.outputs.add(path);
+                } else if (hash.equals(SCRIPT)) {
+                    page.scripts.add(path);
+                } else {
+                    page.inputs.put(path, hash);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get content hash for input file identified by project relative path. Returns {@link #MISSING_FILE} if input file does
+     * not exist or is not a regular file. If path denotes a directory, that is, ends with path separator, hash is computed
+     * on directory listing, see {@link #listingHash(File)}.
+     *
+     * @param path input file path, relative to project root.
+     * @return input file content hash.
+     */
+    private String hash(String path) {
+        return hashes.computeIfAbsent(path, key -> {
+            File file = new File(projectDir, key);
+            if (key.endsWith(FilePath.SEPARATOR)) {
+                return listingHash(file);
+            }
+            if (!file.isFile()) {
+                return MISSING_FILE;
+            }
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[8192];
+            try (InputStream stream = new FileInputStream(file)) {
+                int length;
+                while ((length = stream.read(buffer)) != -1) {
+                    crc.update(buffer, 0, length);
+                }
+            } catch (IOException e) {
+                log.warn("Fail to read input file {}: {}", file, e.getMessage());
+                return MISSING_FILE;
+            }
+            return Long.toHexString(crc.getValue());
+        });
+    }
+
+    /**
+     * Get hash of directory listing, that is, the sorted names of directory children. Returns {@link #MISSING_FILE} if
+     * directory does not exist.
+     *
+     * @param dir directory.
+     * @return directory listing hash.
+     */
+    private static String listingHash(File dir) {
+        String[] names = dir.list();
+        if (names == null) {
+            return MISSING_FILE;
+        }
+        Arrays.sort(names);
+        CRC32 crc = new CRC32();
+        for (String name : names) {
+            crc.update(name.getBytes(StandardCharsets.UTF_8));
+            crc.update('/');
+        }
+        return Long.toHexString(crc.getValue());
+    }
+
+    private static String key(String language, CompoPath page) {
+        return language + ':' + page.value();
+    }
+
+    /**
+     * Page inputs, outputs and bundled scripts. Inputs are mapped to their content hash; outputs are paths relative to build
+     * directory. Bundled scripts are in page order.
+     */
+    private static class Page {
+        final Map<String, String> inputs = new TreeMap<>();
+        final Set<String> outputs = new TreeSet<>();
+        final List<String> scripts = new ArrayList<>();
+    }
+}
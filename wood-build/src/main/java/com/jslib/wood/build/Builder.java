@@ -8,6 +8,23 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
 /**
@@ -32,6 +49,18 @@ import java.util.function.Function;
  * <p>
  * Builder interface is designed for integration with external tools. There are extensions for Ant tasks and Eclipse plug-in
  * using this Builder class, but not part of this library distribution.
+ * <p>
+ * Pages can be built in parallel, see {@link BuilderConfig#setThreadsCount(int)}. Every page is built by its own page builder
+ * instance, created by this master builder, so that per page state - {@link #currentComponent} and {@link #language}, is never
+ * shared between worker threads. Languages are still processed in sequence since build file system is language sensitive.
+ * <p>
+ * If incremental build is enabled, see {@link BuilderConfig#setIncremental(boolean)}, builder uses a {@link BuildGraph}
+ * persisted on build directory and rebuilds only pages with changed input files. Page inputs are the component source files
+ * and all files touched while page is built: styles, scripts, variables and referenced resources.
+ * <p>
+ * If scripts bundling is enabled, see {@link BuilderConfig#setBundleScripts(boolean)}, master builder scans all pages of a
+ * language before building them in order to find local scripts included by most pages. These common scripts are written into a
+ * common script bundle shared by pages whereas remaining local scripts are written into page bundle.
  *
  * @author Iulian Rotaru
  * @version draft
@@ -39,6 +68,11 @@ import java.util.function.Function;
 public class Builder implements IReferenceHandler {
     private static final Logger log = LoggerFactory.getLogger(Builder.class);
 
+    /**
+     * A local script is common if it is included by more than this ratio of project pages.
+     */
+    private static final double COMMON_SCRIPTS_RATIO = 0.5;
+
     /**
      * Builder project instance.
      */
@@ -49,6 +83,72 @@ public class Builder implements IReferenceHandler {
      */
     private final BuildFS buildFS;
 
+    /**
+     * The number of worker threads used to build pages in parallel. A value less than or equal to 1 selects the sequential
+     * build, that is, pages are built one by one on caller thread.
+     */
+    private final int threadsCount;
+
+    /**
+     * Dependency graph for incremental build or null if incremental build is not enabled.
+     */
+    private final BuildGraph graph;
+
+    /**
+     * Input files touched while building current page, recorded into {@link #graph} after page build completes. Used only
+     * by page builders and only if incremental build is enabled.
+     */
+    private final Set<FilePath> inputs = new LinkedHashSet<>();
+
+    /**
+     * Input files discovered while processing a source file, mapped to that source file: variables, media and font files
+     * resolved from source file references. Build file system writes a shared style or script only once, for the first page
+     * using it, so references are resolved only once; pages using the same source file later get its inputs from here. Shared
+     * by master builder and all its page builders and used only if incremental build is enabled.
+     */
+    private final Map<FilePath, Set<FilePath>> referencedInputs;
+
+    /**
+     * URL paths, relative to page location, of the files written for current page: styles, scripts and favicon. Recorded into
+     * {@link #graph}, together with {@link #pageFile}, after page build completes so that deleted output forces page rebuild.
+     * Used only by page builders and only if incremental build is enabled.
+     */
+    private final List<String> outputs = new ArrayList<>();
+
+    /**
+     * Page file written by current page builder, null if page not yet written.
+     */
+    private File pageFile;
+
+    /**
+     * Sources of current page scripts that can be bundled, in page order, see {@link #getBundledScripts(List)}. Recorded into
+     * {@link #graph} so that next incremental build does not need to scan unchanged pages for common scripts.
+     */
+    private final List<String> bundledScripts = new ArrayList<>();
+
+    /**
+     * Cache for parsed layout documents shared by all page builders of the current processing language. Master builder
+     * creates a new cache for every language; it is null on master builder.
+     */
+    private final LayoutsCache layoutsCache;
+
+    /**
+     * Cache for templates and widgets descriptors, with the same scope as {@link #layoutsCache}.
+     */
+    private final DescriptorsCache descriptorsCache;
+
+    /**
+     * Resolved resource file references, shared by master builder and all its page builders, for all languages.
+     */
+    private final ResourcesCache resourcesCache;
+
+    /**
+     * Local scripts shared by most pages of the current processing language, bundled into common script bundle. Master builder
+     * computes common scripts for every language, before pages building, see {@link #scanCommonScripts(String, LayoutsCache, DescriptorsCache)};
+     * it is always empty on master builder and if scripts bundling is not enabled.
+     */
+    private final Set<FilePath> commonScripts;
+
     /**
      * Current processing component.
      */
@@ -76,7 +176,21 @@ public class Builder implements IReferenceHandler {
         if (!buildDir.exists() && !buildDir.mkdirs()) {
             throw new IOException("Fail to create build directory " + buildDir);
         }
-        this.buildFS = new DefaultBuildFS(buildDir, config.getBuildNumber());
+        int buildNumber = config.getBuildNumber();
+        this.buildFS = new DefaultBuildFS(buildDir, buildNumber, config.isContentHash());
+        this.buildFS.setMinify(config.isMinify(), config.isOmitOptionalQuotes());
+        this.buildFS.setMinifyStyles(config.isMinifyStyles());
+        this.buildFS.setMinifyScripts(config.isMinifyScripts());
+        this.buildFS.setBundleStyles(config.isBundleStyles());
+        this.buildFS.setBundleScripts(config.isBundleScripts());
+        this.buildFS.setPrecompress(config.isPrecompress());
+        this.threadsCount = config.getThreadsCount();
+        this.graph = config.isIncremental() ? new BuildGraph(project.getProjectRoot(), buildDir, buildOptions(config)) : null;
+        this.layoutsCache = null;
+        this.descriptorsCache = null;
+        this.resourcesCache = new ResourcesCache();
+        this.referencedInputs = new ConcurrentHashMap<>();
+        this.commonScripts = Collections.emptySet();
     }
 
     /**
@@ -86,9 +200,75 @@ public class Builder implements IReferenceHandler {
      * @param buildFS build file system.
      */
     Builder(BuilderProject project, BuildFS buildFS) {
-        log.trace("Builder(BuilderProject project, BuildFS buildFS)");
+        this(project, buildFS, 1);
+    }
+
+    /**
+     * Test constructor for parallel build.
+     *
+     * @param project      builder project,
+     * @param buildFS      build file system,
+     * @param threadsCount the number of worker threads.
+     */
+    Builder(BuilderProject project, BuildFS buildFS, int threadsCount) {
+        this(project, buildFS, threadsCount, null);
+    }
+
+    /**
+     * Test constructor for incremental build.
+     *
+     * @param project      builder project,
+     * @param buildFS      build file system,
+     * @param threadsCount the number of worker threads,
+     * @param graph        dependency graph, null for full build.
+     */
+    Builder(BuilderProject project, BuildFS buildFS, int threadsCount, BuildGraph graph) {
+        log.trace("Builder(BuilderProject project, BuildFS buildFS, int threadsCount, BuildGraph graph)");
         this.project = project;
         this.buildFS = buildFS;
+        this.threadsCount = threadsCount;
+        this.graph = graph;
+        this.layoutsCache = null;
+        this.descriptorsCache = null;
+        this.resourcesCache = new ResourcesCache();
+        this.referencedInputs = new ConcurrentHashMap<>();
+        this.commonScripts = Collections.emptySet();
+    }
+
+    /**
+     * Create page builder for given language. Page builder shares project, build file system and caches with master builder
+     * but has its own per page state. Page builder is always sequential.
+     *
+     * @param master           master builder,
+     * @param language         current processing language,
+     * @param layoutsCache     layouts cache for current processing language,
+     * @param descriptorsCache descriptors cache for current processing language,
+     * @param commonScripts    local scripts shared by most pages of current processing language.
+     */
+    private Builder(Builder master, String language, LayoutsCache layoutsCache, DescriptorsCache descriptorsCache, Set<FilePath> commonScripts) {
+        this.project = master.project;
+        this.buildFS = master.buildFS;
+        this.threadsCount = 1;
+        this.graph = master.graph;
+        this.layoutsCache = layoutsCache;
+        this.descriptorsCache = descriptorsCache;
+        this.resourcesCache = master.resourcesCache;
+        this.referencedInputs = master.referencedInputs;
+        this.commonScripts = commonScripts;
+        this.language = language;
+    }
+
+    /**
+     * Format build options that affect build output, including build number, as stored on incremental build graph. If build
+     * options are changed all pages are rebuilt, see {@link BuildGraph}.
+     *
+     * @param config builder configuration.
+     * @return build options formatted as a single line.
+     */
+    private static String buildOptions(BuilderConfig config) {
+        return String.format("build-number=%d content-hash=%b minify=%b omit-optional-quotes=%b minify-styles=%b minify-scripts=%b bundle-styles=%b bundle-scripts=%b precompress=%b", //
+                config.getBuildNumber(), config.isContentHash(), config.isMinify(), config.isOmitOptionalQuotes(), config.isMinifyStyles(), //
+                config.isMinifyScripts(), config.isBundleStyles(), config.isBundleScripts(), config.isPrecompress());
     }
 
     /**
@@ -101,34 +281,162 @@ public class Builder implements IReferenceHandler {
     }
 
     /**
-     * Run project building process. Uses project detected languages to initialize current processing {@link #language} then
-     * delegates {@link #buildPage(Component)} for every discovered page.
+     * Run project building process. For every project detected language creates page builders - see
+     * {@link #Builder(Builder, String, LayoutsCache, DescriptorsCache, Set)}, and delegates {@link #buildPage(CompoPath)} for every discovered page. If
+     * {@link #threadsCount} is greater than 1, pages of the same language are built in parallel.
      *
      * @throws IOException for error related to underlying file system operations.
      */
     public void build() throws IOException {
         log.trace("build()");
         for (String language : project.getLanguages()) {
-            this.language = language;
             if (project.isMultiLanguage()) {
                 buildFS.setLanguage(language);
             }
+            // layout documents and descriptors are language sensitive; create caches for every language
+            LayoutsCache layoutsCache = new LayoutsCache(project);
+            DescriptorsCache descriptorsCache = new DescriptorsCache();
+            Set<FilePath> commonScripts = buildFS.isBundleScripts() ? scanCommonScripts(language, layoutsCache, descriptorsCache) : Collections.emptySet();
+            if (graph != null) {
+                graph.setCommonScripts(language, commonScripts);
+            }
 
             if (project.getPwaWorker().exists()) {
-                try (SourceReader reader = new SourceReader(project.getPwaWorker(), this)) {
+                try (SourceReader reader = new SourceReader(project.getPwaWorker(), new Builder(this, language, layoutsCache, descriptorsCache, commonScripts))) {
                     buildFS.writePwaWorker(reader);
                 }
             }
 
+            if (threadsCount > 1) {
+                buildPages(language, layoutsCache, descriptorsCache, commonScripts);
+                continue;
+            }
             for (CompoPath page : project.getPages()) {
-                Component pageComponent = new Component(page, this);
-                currentComponent = pageComponent;
-                pageComponent.scan();
-                buildPage(pageComponent);
+                new Builder(this, language, layoutsCache, descriptorsCache, commonScripts).buildPage(page);
+            }
+        }
+
+        if (graph != null) {
+            graph.save(project.getLanguages(), project.getPages());
+        }
+    }
+
+    /**
+     * Build all project pages for given language on a fork-join pool with {@link #threadsCount} workers. This method waits
+     * for all pages to complete; if any page fails, rethrow the first failure, in pages order.
+     *
+     * @param language         current processing language,
+     * @param layoutsCache     layouts cache for current processing language,
+     * @param descriptorsCache descriptors cache for current processing language,
+     * @param commonScripts    local scripts shared by most pages of current processing language.
+     * @throws IOException if page building fails on file system operations.
+     */
+    private void buildPages(String language, LayoutsCache layoutsCache, DescriptorsCache descriptorsCache, Set<FilePath> commonScripts) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threadsCount);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (CompoPath page : project.getPages()) {
+                futures.add(pool.submit(() -> {
+                    new Builder(this, language, layoutsCache, descriptorsCache, commonScripts).buildPage(page);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WoodException("Pages build interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
             }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new WoodException(cause);
+        } finally {
+            pool.shutdownNow();
         }
     }
 
+    /**
+     * Scan all project pages for given language and collect local scripts shared by most pages, that is, included by more than
+     * {@link #COMMON_SCRIPTS_RATIO} of pages but at least two. Only scripts that can be bundled are considered, see
+     * {@link #isBundled(IScriptDescriptor)}. Since scripts are in dependency order and a script dependency is included on every
+     * page that includes the script, common scripts set contains its own dependencies.
+     * <p>
+     * Pages are scanned in sequence and scanned components are discarded; layouts cache is reused by pages building. If
+     * incremental build is enabled, pages with inputs not changed since previous build are not scanned; their bundled scripts
+     * are loaded from build graph, see {@link BuildGraph#getScripts(String, CompoPath)}.
+     *
+     * @param language         current processing language,
+     * @param layoutsCache     layouts cache for current processing language,
+     * @param descriptorsCache descriptors cache for current processing language.
+     * @return common scripts, possible empty.
+     */
+    private Set<FilePath> scanCommonScripts(String language, LayoutsCache layoutsCache, DescriptorsCache descriptorsCache) {
+        Map<FilePath, Integer> scriptPagesCount = new HashMap<>();
+        int pagesCount = 0;
+        for (CompoPath page : project.getPages()) {
+            List<String> scripts = graph != null ? graph.getScripts(language, page) : null;
+            if (scripts == null) {
+                Builder pageBuilder = new Builder(this, language, layoutsCache, descriptorsCache, Collections.emptySet());
+                scripts = getBundledScripts(pageBuilder.getPageScripts(pageBuilder.scanPage(page)));
+            }
+            for (String script : scripts) {
+                scriptPagesCount.merge(project.createFilePath(script), 1, Integer::sum);
+            }
+            ++pagesCount;
+        }
+
+        Set<FilePath> commonScripts = new HashSet<>();
+        for (Map.Entry<FilePath, Integer> entry : scriptPagesCount.entrySet()) {
+            if (entry.getValue() > 1 && entry.getValue() > pagesCount * COMMON_SCRIPTS_RATIO) {
+                commonScripts.add(entry.getKey());
+            }
+        }
+        log.debug("Found {} common scripts for language {}.", commonScripts.size(), language);
+        return commonScripts;
+    }
+
+    /**
+     * Scan page component and build the page. This method is executed on a page builder, see {@link #Builder(Builder, String, LayoutsCache, DescriptorsCache, Set)}.
+     * If incremental build is enabled and page inputs are not changed since previous build, page is skipped.
+     *
+     * @param page page component path.
+     * @throws IOException if files operation fails.
+     */
+    private void buildPage(CompoPath page) throws IOException {
+        if (graph != null && graph.isUpToDate(language, page)) {
+            log.debug("Skip up to date page {}.", page);
+            return;
+        }
+
+        Component pageComponent = scanPage(page);
+        buildPage(pageComponent);
+
+        if (graph != null) {
+            inputs.add(project.createFilePath(CT.PROJECT_CONFIG));
+            inputs.addAll(pageComponent.getSourceFiles());
+            graph.record(language, page, addReferencedInputs(inputs), getOutputs(), bundledScripts);
+        }
+    }
+
+    /**
+     * Create page component and scan it. Created page component becomes {@link #currentComponent}.
+     *
+     * @param page page component path.
+     * @return scanned page component.
+     */
+    private Component scanPage(CompoPath page) {
+        Component pageComponent = new Component(page, this, layoutsCache, descriptorsCache);
+        currentComponent = pageComponent;
+        pageComponent.scan();
+        return pageComponent;
+    }
+
     /**
      * Build page identified by given component path and copy to build directory. Component should be designed for page
      * generation so that it should have body root or to use a template that has body.
@@ -168,12 +476,12 @@ public class Builder implements IReferenceHandler {
         }
 
         if (project.getPwaManifest().exists()) {
-            try (SourceReader reader = new SourceReader(project.getPwaManifest(), this)) {
+            try (SourceReader reader = new SourceReader(input(project.getPwaManifest()), this)) {
                 pageDocument.addPwaManifest(buildFS.writePwaManifest(reader));
             }
         }
         if (project.getFavicon().exists()) {
-            pageDocument.addFavicon(buildFS.writeFavicon(pageComponent, project.getFavicon()));
+            pageDocument.addFavicon(output(buildFS.writeFavicon(pageComponent, input(project.getFavicon()))));
         }
 
         // links order:
@@ -186,48 +494,60 @@ public class Builder implements IReferenceHandler {
         // 7. component styles - first use template and child component styles then parent component
 
         for (ILinkDescriptor link : project.getLinkDescriptors()) {
-            pageDocument.addLink(link, exlambda(file -> buildFS.writeStyle(pageComponent, file, this)));
+            pageDocument.addLink(link, exlambda(file -> output(buildFS.writeStyle(pageComponent, input(file), this))));
         }
         for (ILinkDescriptor link : pageComponent.getLinkDescriptors()) {
-            pageDocument.addLink(link, exlambda(file -> buildFS.writeStyle(pageComponent, file, this)));
+            pageDocument.addLink(link, exlambda(file -> output(buildFS.writeStyle(pageComponent, input(file), this))));
         }
 
+        List<FilePath> styleFiles = new ArrayList<>();
         ThemeStyles themeStyles = project.getThemeStyles();
+        // theme styles are all style files from theme directory; a new theme style changes page styles
+        input(project.getThemeDir());
         if (themeStyles.getVariables() != null) {
-            pageDocument.addStyle(buildFS.writeStyle(pageComponent, themeStyles.getVariables(), this));
+            styleFiles.add(themeStyles.getVariables());
         }
         if (themeStyles.getDefaultStyles() != null) {
-            pageDocument.addStyle(buildFS.writeStyle(pageComponent, themeStyles.getDefaultStyles(), this));
+            styleFiles.add(themeStyles.getDefaultStyles());
         }
         if (themeStyles.getAnimations() != null) {
-            pageDocument.addStyle(buildFS.writeStyle(pageComponent, themeStyles.getAnimations(), this));
-        }
-        for (FilePath styleFile : themeStyles.getStyles()) {
-            pageDocument.addStyle(buildFS.writeStyle(pageComponent, styleFile, this));
+            styleFiles.add(themeStyles.getAnimations());
         }
-
-        for (FilePath styleFile : pageComponent.getStyleFiles()) {
-            pageDocument.addStyle(buildFS.writeStyle(pageComponent, styleFile, this));
+        styleFiles.addAll(themeStyles.getStyles());
+        styleFiles.addAll(pageComponent.getStyleFiles());
+
+        // if styles bundling is enabled write all local styles, in page order, into a single bundle
+        if (buildFS.isBundleStyles()) {
+            if (!styleFiles.isEmpty()) {
+                input(styleFiles);
+                pageDocument.addStyle(output(buildFS.writeStyleBundle(pageComponent, styleFiles, this)));
+            }
+        } else {
+            for (FilePath styleFile : styleFiles) {
+                pageDocument.addStyle(output(buildFS.writeStyle(pageComponent, input(styleFile), this)));
+            }
         }
 
-        FilePath pwaLoader = project.getPwaLoader();
-        if (pwaLoader.exists()) {
-            addScript(pageComponent, pageDocument, project.createScriptDescriptor(pwaLoader, true));
-        }
-        for (IScriptDescriptor script : project.getScriptDescriptors()) {
-            addScript(pageComponent, pageDocument, script);
+        List<IScriptDescriptor> scripts = getPageScripts(pageComponent);
+        if (graph != null) {
+            bundledScripts.addAll(getBundledScripts(scripts));
         }
-        for (IScriptDescriptor script : pageComponent.getScriptDescriptors()) {
-            addScript(pageComponent, pageDocument, script);
+        if (buildFS.isBundleScripts()) {
+            addScriptBundles(pageComponent, pageDocument, scripts);
+        } else {
+            for (IScriptDescriptor script : scripts) {
+                addScript(pageComponent, pageDocument, script);
+            }
         }
 
-        buildFS.writePage(pageComponent, pageDocument.getDocument());
+        pageFile = buildFS.writePage(pageComponent, pageDocument.getDocument());
     }
 
     /**
      * Helper for adding scripts to the page document. In addition to creating the script element in the page document,
      * this method ensures that the script is written to the build file system. If the script is embedded, its source
-     * code is also included directly in the page document.
+     * code is also included directly in the page document. Script dependencies are not processed here; page scripts are
+     * already in dependency order, see {@link #getPageScripts(Component)}.
      *
      * @param pageComponent page component from which page document is created,
      * @param pageDocument  page document under construction, that is, updated in current building step,
@@ -237,23 +557,18 @@ public class Builder implements IReferenceHandler {
     private void addScript(Component pageComponent, PageDocument pageDocument, IScriptDescriptor script) throws IOException {
         log.trace("addScript(Component pageComponent, PageDocument pageDocument, IScriptDescriptor script)");
 
-        for (IScriptDescriptor dependency : project.getScriptDependencies(script.getSource())) {
-            addScript(pageComponent, pageDocument, dependency);
-            return;
-        }
-
         String relativeSource = script.getSource();
         String sourceCode = null;
         if (FilePath.accept(relativeSource)) {
             // only local script
             FilePath scriptFile = project.createFilePath(script.getSource());
             assert scriptFile.exists() : "Missing script file " + scriptFile;
-            try (SourceReader reader = new SourceReader(scriptFile, this)) {
+            try (SourceReader reader = new SourceReader(input(scriptFile), this)) {
                 if (script.isEmbedded()) {
                     // relative source does not matter if script is embedded
-                    sourceCode = StringsUtil.load(reader);
+                    sourceCode = StringsUtil.load(buildFS.isMinifyScripts() ? new ScriptMinifier(reader) : reader);
                 } else {
-                    relativeSource = buildFS.writeScript(pageComponent, reader);
+                    relativeSource = output(buildFS.writeScript(pageComponent, reader));
                     // source code remains null for linked script
                 }
             }
@@ -263,6 +578,270 @@ public class Builder implements IReferenceHandler {
         pageDocument.addScript(script, relativeSource, sourceCode);
     }
 
+    /**
+     * Get page scripts in the order they are included into page document: PWA loader, if present, project scripts then page
+     * component scripts. Every script is preceded by its dependencies, see {@link Project#getScriptDependencies(String)}.
+     * Scripts with the same source are included only once, on first occurrence.
+     *
+     * @param pageComponent page component.
+     * @return page scripts in dependency order.
+     */
+    private List<IScriptDescriptor> getPageScripts(Component pageComponent) {
+        Map<String, IScriptDescriptor> scripts = new LinkedHashMap<>();
+        Set<String> visitedSources = new HashSet<>();
+
+        FilePath pwaLoader = project.getPwaLoader();
+        if (pwaLoader.exists()) {
+            collectScript(scripts, visitedSources, project.createScriptDescriptor(pwaLoader, true));
+        }
+        for (IScriptDescriptor script : project.getScriptDescriptors()) {
+            collectScript(scripts, visitedSources, script);
+        }
+        for (IScriptDescriptor script : pageComponent.getScriptDescriptors()) {
+            collectScript(scripts, visitedSources, script);
+        }
+        return new ArrayList<>(scripts.values());
+    }
+
+    private void collectScript(Map<String, IScriptDescriptor> scripts, Set<String> visitedSources, IScriptDescriptor script) {
+        // visited sources guard against circular dependencies
+        if (!visitedSources.add(script.getSource())) {
+            return;
+        }
+        for (IScriptDescriptor dependency : project.getScriptDependencies(script.getSource())) {
+            collectScript(scripts, visitedSources, dependency);
+        }
+        scripts.put(script.getSource(), script);
+    }
+
+    /**
+     * Add page scripts to page document using script bundles. Page scripts are processed in order and consecutive scripts that
+     * can be bundled, see {@link #isBundled(IScriptDescriptor)}, and have the same <code>defer</code> attribute are collected
+     * into a run. A run ends on a script that cannot be bundled or has a different <code>defer</code> value; every run is
+     * written in place, see {@link #addScriptBundle(Component, PageDocument, List)}, so that scripts keep their order relative
+     * to scripts that cannot be bundled. Scripts that cannot be bundled are added as usual, see
+     * {@link #addScript(Component, PageDocument, IScriptDescriptor)}.
+     *
+     * @param pageComponent page component from which page document is created,
+     * @param pageDocument  page document under construction,
+     * @param scripts       page scripts in dependency order.
+     * @throws IOException if write on build filesystem fails.
+     */
+    private void addScriptBundles(Component pageComponent, PageDocument pageDocument, List<IScriptDescriptor> scripts) throws IOException {
+        List<IScriptDescriptor> bundledScripts = new ArrayList<>();
+        for (IScriptDescriptor script : scripts) {
+            if (isBundled(script)) {
+                if (!bundledScripts.isEmpty() && !Objects.equals(bundledScripts.get(0).getDefer(), script.getDefer())) {
+                    addScriptBundle(pageComponent, pageDocument, bundledScripts);
+                    bundledScripts.clear();
+                }
+                bundledScripts.add(script);
+                continue;
+            }
+            // dynamic scripts are not declared on page head so they do not break the run
+            if (!script.isDynamic()) {
+                addScriptBundle(pageComponent, pageDocument, bundledScripts);
+                bundledScripts.clear();
+            }
+            addScript(pageComponent, pageDocument, script);
+        }
+        addScriptBundle(pageComponent, pageDocument, bundledScripts);
+    }
+
+    /**
+     * Add a run of bundled scripts to page document. Scripts are split into common scripts, see {@link #commonScripts}, and page
+     * specific scripts, both in run order. Every group is written into its own script bundle and bundles are included into page
+     * document, common scripts first. Since common scripts dependencies are common too, common scripts do not depend on page
+     * specific scripts. Bundle elements have the <code>defer</code> attribute of the bundled scripts. Does nothing if run is
+     * empty.
+     *
+     * @param pageComponent page component from which page document is created,
+     * @param pageDocument  page document under construction,
+     * @param scripts       run of bundled scripts, all with the same <code>defer</code> attribute.
+     * @throws IOException if write on build filesystem fails.
+     */
+    private void addScriptBundle(Component pageComponent, PageDocument pageDocument, List<IScriptDescriptor> scripts) throws IOException {
+        if (scripts.isEmpty()) {
+            return;
+        }
+        List<FilePath> pageCommonScripts = new ArrayList<>();
+        List<FilePath> pageScripts = new ArrayList<>();
+        for (IScriptDescriptor script : scripts) {
+            FilePath scriptFile = input(project.createFilePath(script.getSource()));
+            (commonScripts.contains(scriptFile) ? pageCommonScripts : pageScripts).add(scriptFile);
+        }
+
+        String defer = scripts.get(0).getDefer();
+        if (!pageCommonScripts.isEmpty()) {
+            pageDocument.addScript(output(buildFS.writeCommonScripts(pageComponent, pageCommonScripts, this)), defer);
+        }
+        if (!pageScripts.isEmpty()) {
+            pageDocument.addScript(output(buildFS.writeScriptBundle(pageComponent, pageScripts, this)), defer);
+        }
+    }
+
+    /**
+     * Get sources of page scripts that can be bundled, see {@link #isBundled(IScriptDescriptor)}.
+     *
+     * @param scripts page scripts in dependency order.
+     * @return sources of scripts that can be bundled, in page order.
+     */
+    private static List<String> getBundledScripts(List<IScriptDescriptor> scripts) {
+        List<String> sources = new ArrayList<>();
+        for (IScriptDescriptor script : scripts) {
+            if (isBundled(script)) {
+                sources.add(script.getSource());
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Test if script can be concatenated into a script bundle. Only local scripts that are not embedded, not dynamic and have
+     * no attributes that control script loading or are bound to script content are bundled. The <code>defer</code> attribute
+     * with default value <code>true</code> is accepted since it is preserved on bundle element.
+     *
+     * @param script script descriptor.
+     * @return true if script can be bundled.
+     */
+    private static boolean isBundled(IScriptDescriptor script) {
+        if (!FilePath.accept(script.getSource()) || script.isEmbedded() || script.isDynamic()) {
+            return false;
+        }
+        if (script.getType() != null && !script.getType().equals("text/javascript")) {
+            return false;
+        }
+        if (script.getDefer() != null && !script.getDefer().equals("true")) {
+            return false;
+        }
+        return script.getAsync() == null && script.getNoModule() == null && script.getNonce() == null && script.getIntegrity() == null;
+    }
+
+    /**
+     * Record input file for current page, if incremental build is enabled. Returns given file for call chaining.
+     *
+     * @param file input file.
+     * @return given input file.
+     * @see #inputs
+     */
+    private FilePath input(FilePath file) {
+        if (graph != null) {
+            inputs.add(file);
+        }
+        return file;
+    }
+
+    private void input(List<FilePath> files) {
+        if (graph != null) {
+            inputs.addAll(files);
+        }
+    }
+
+    /**
+     * Record input file resolved from a reference found into source file, if incremental build is enabled. Input file is
+     * recorded for current page and also mapped to source file, see {@link #referencedInputs}.
+     *
+     * @param sourceFile source file where reference is used,
+     * @param files      input files resolved from reference.
+     */
+    private void input(FilePath sourceFile, Collection<FilePath> files) {
+        if (graph != null) {
+            inputs.addAll(files);
+            referencedInputs.computeIfAbsent(sourceFile, file -> ConcurrentHashMap.newKeySet()).addAll(files);
+        }
+    }
+
+    /**
+     * Record directory searched for files resolved from a reference found into source file, if incremental build is enabled. A
+     * file created into searched directory can change resolved file, e.g. a new variables file, media file variant or a source
+     * directory file shadowing an asset file.
+     *
+     * @param sourceFile source file where reference is used,
+     * @param dir        searched directory, null if source file is on project root.
+     */
+    private void inputDir(FilePath sourceFile, FilePath dir) {
+        if (graph != null && dir != null) {
+            input(sourceFile, Collections.singleton(dir));
+        }
+    }
+
+    /**
+     * Record directories searched for resource file resolved from a reference, see
+     * {@link Project#getResourceFile(String, Reference, FilePath)}. Source directory, with reference path if any, is always
+     * searched whereas project assets directory only if resource file was not found on source directory.
+     *
+     * @param reference    resource file reference,
+     * @param sourceFile   source file where reference is used,
+     * @param resourceFile resource file resolved for reference.
+     */
+    private void inputResourceDirs(Reference reference, FilePath sourceFile, FilePath resourceFile) {
+        if (graph == null) {
+            return;
+        }
+        FilePath sourceDir = sourceFile.getParentDir();
+        if (sourceDir != null) {
+            sourceDir = reference.hasPath() ? sourceDir.getSubDirectoryPath(reference.getPath()) : sourceDir;
+            inputDir(sourceFile, sourceDir);
+            if (sourceDir.equals(resourceFile.getParentDir())) {
+                return;
+            }
+        }
+        FilePath assetDir = project.getAssetDir();
+        inputDir(sourceFile, reference.hasPath() ? assetDir.getSubDirectoryPath(reference.getPath()) : assetDir);
+    }
+
+    /**
+     * Record output file written for current page, if incremental build is enabled. Returns given URL path for call chaining.
+     *
+     * @param path output file URL path, relative to page location.
+     * @return given URL path.
+     * @see #outputs
+     */
+    private String output(String path) {
+        if (graph != null) {
+            outputs.add(path);
+        }
+        return path;
+    }
+
+    /**
+     * Get output files written for current page: page file and files from {@link #outputs}, resolved against page location.
+     * It is invoked after page build completes.
+     *
+     * @return page output files.
+     */
+    private List<File> getOutputs() {
+        List<File> files = new ArrayList<>();
+        files.add(pageFile);
+        for (String path : outputs) {
+            files.add(new File(pageFile.getParentFile(), path));
+        }
+        return files;
+    }
+
+    /**
+     * Add to page inputs the input files referenced from page inputs, recursively, see {@link #referencedInputs}. It is
+     * invoked after page build completes when build file system writes for all page inputs are done.
+     *
+     * @param pageInputs input files recorded while page was built.
+     * @return page inputs, for call chaining.
+     */
+    private Set<FilePath> addReferencedInputs(Set<FilePath> pageInputs) {
+        Deque<FilePath> stack = new ArrayDeque<>(pageInputs);
+        while (!stack.isEmpty()) {
+            Set<FilePath> files = referencedInputs.get(stack.pop());
+            if (files == null) {
+                continue;
+            }
+            for (FilePath file : files) {
+                if (pageInputs.add(file)) {
+                    stack.push(file);
+                }
+            }
+        }
+        return pageInputs;
+    }
+
     /**
      * Resource reference handler invoked by {@link SourceReader} when discover a resource reference into source file. Returned
      * value is used by source reader to replace the reference, into source file. If reference points to a variable, returns its
@@ -277,14 +856,19 @@ public class Builder implements IReferenceHandler {
     @Override
     public String onResourceReference(Reference reference, FilePath sourceFile) throws IOException, WoodException {
         if (reference.isVariable()) {
+            inputDir(sourceFile, sourceFile.getParentDir());
             String value = null;
             Variables dirVariables = project.getVariables(sourceFile.getParentDir());
             // source parent directory can be null in which case dirVariables also null
             if (dirVariables != null) {
                 value = dirVariables.get(language, reference, sourceFile, this);
+                input(sourceFile, dirVariables.getFiles());
             }
             if (value == null) {
-                value = project.getAssetVariables().get(language, reference, sourceFile, this);
+                inputDir(sourceFile, project.getAssetDir());
+                Variables assetVariables = project.getAssetVariables();
+                value = assetVariables.get(language, reference, sourceFile, this);
+                input(sourceFile, assetVariables.getFiles());
             }
             if (value == null) {
                 throw new WoodException("Missing variable value for reference %s:%s", sourceFile, reference);
@@ -305,12 +889,41 @@ public class Builder implements IReferenceHandler {
         }
 
         // here reference is a resource file
+        // the same resource is usually referenced many times from the same directory; reuse already resolved URL path
+
+        ResourcesCache.Key key = new ResourcesCache.Key(language, reference, sourceFile, currentComponent != null ? currentComponent.getResourcesGroup() : null);
+        ResourcesCache.Entry entry = resourcesCache.get(key);
+        if (entry != null) {
+            input(sourceFile, Collections.singleton(entry.getResourceFile()));
+            inputResourceDirs(reference, sourceFile, entry.getResourceFile());
+            return entry.getPath();
+        }
 
         FilePath resourceFile = project.getResourceFile(language, reference, sourceFile);
         if (resourceFile == null) {
             throw new WoodException("Missing resource file for reference %s:%s", sourceFile, reference);
         }
+        input(sourceFile, Collections.singleton(resourceFile));
+        inputResourceDirs(reference, sourceFile, resourceFile);
+
+        String path = writeResource(reference, sourceFile, resourceFile);
+        if (path != null) {
+            resourcesCache.put(key, resourceFile, path);
+        }
+        return path;
+    }
 
+    /**
+     * Write resource file to build file system and return its URL path. Build file system write method is selected by
+     * reference and source file types. Returns null if resource reference is not supported by source file type.
+     *
+     * @param reference    resource file reference,
+     * @param sourceFile   source file where <code>reference</code> is used,
+     * @param resourceFile resource file resolved for reference.
+     * @return resource file URL path, possible null.
+     * @throws IOException if resource file write operation fails.
+     */
+    private String writeResource(Reference reference, FilePath sourceFile, FilePath resourceFile) throws IOException {
         if (reference.isMediaFile()) {
             if (sourceFile.isManifest()) {
                 return buildFS.writeManifestMedia(resourceFile);
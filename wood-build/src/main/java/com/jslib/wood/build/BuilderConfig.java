@@ -8,6 +8,16 @@ import java.io.File;
 public class BuilderConfig {
     private File projectDir;
     private int buildNumber;
+    private int threadsCount;
+    private boolean incremental;
+    private boolean contentHash;
+    private boolean minify;
+    private boolean omitOptionalQuotes;
+    private boolean minifyStyles;
+    private boolean minifyScripts;
+    private boolean bundleStyles;
+    private boolean bundleScripts;
+    private boolean precompress;
 
     public File getProjectDir() {
         return projectDir;
@@ -24,4 +34,148 @@ public class BuilderConfig {
     public void setBuildNumber(int buildNumber) {
         this.buildNumber = buildNumber;
     }
+
+    public int getThreadsCount() {
+        return threadsCount;
+    }
+
+    /**
+     * Set the number of worker threads used to build pages in parallel. Value less than or equal to 1 selects sequential build.
+     *
+     * @param threadsCount the number of worker threads.
+     */
+    public void setThreadsCount(int threadsCount) {
+        this.threadsCount = threadsCount;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * Enable incremental build. If enabled, builder rebuilds only pages with input files changed since previous build.
+     *
+     * @param incremental true to enable incremental build.
+     */
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public boolean isContentHash() {
+        return contentHash;
+    }
+
+    /**
+     * Enable content hash file naming. If enabled, styles, scripts, media and generic files name have content hash suffix
+     * instead of build number, so that unchanged files keep their URLs across builds.
+     *
+     * @param contentHash true to enable content hash file naming.
+     */
+    public void setContentHash(boolean contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public boolean isMinify() {
+        return minify;
+    }
+
+    /**
+     * Enable minified pages. If enabled, page documents are serialized without indentation and with insignificant white space
+     * removed. Text from raw and preformatted elements, e.g. <code>script</code> and <code>pre</code>, is not changed.
+     *
+     * @param minify true to enable minified pages.
+     */
+    public void setMinify(boolean minify) {
+        this.minify = minify;
+    }
+
+    public boolean isOmitOptionalQuotes() {
+        return omitOptionalQuotes;
+    }
+
+    /**
+     * Omit attribute value quotes on minified pages, where HTML syntax allows it. This option has effect only if minified pages
+     * are enabled, see {@link #setMinify(boolean)}.
+     *
+     * @param omitOptionalQuotes true to omit optional attribute quotes.
+     */
+    public void setOmitOptionalQuotes(boolean omitOptionalQuotes) {
+        this.omitOptionalQuotes = omitOptionalQuotes;
+    }
+
+    public boolean isMinifyStyles() {
+        return minifyStyles;
+    }
+
+    /**
+     * Enable styles minification. If enabled, styles are written without comments and insignificant white space, with
+     * shortened colors and zero lengths, and with adjacent rules for the same selector merged.
+     *
+     * @param minifyStyles true to enable styles minification.
+     */
+    public void setMinifyStyles(boolean minifyStyles) {
+        this.minifyStyles = minifyStyles;
+    }
+
+    public boolean isMinifyScripts() {
+        return minifyScripts;
+    }
+
+    /**
+     * Enable scripts minification. If enabled, comments and redundant white spaces are removed from scripts, including
+     * embedded ones. Minification works at tokens level and does not rename or rewrite code.
+     *
+     * @param minifyScripts true to enable scripts minification.
+     */
+    public void setMinifyScripts(boolean minifyScripts) {
+        this.minifyScripts = minifyScripts;
+    }
+
+    public boolean isBundleStyles() {
+        return bundleStyles;
+    }
+
+    /**
+     * Enable page styles bundling. If enabled, all local styles of a page, in page order, are written into a single style
+     * bundle, with a single link element on page head. Style links declared by project and page descriptors are not bundled.
+     * Pages using the same styles share the same bundle.
+     *
+     * @param bundleStyles true to enable page styles bundling.
+     */
+    public void setBundleStyles(boolean bundleStyles) {
+        this.bundleStyles = bundleStyles;
+    }
+
+    public boolean isBundleScripts() {
+        return bundleScripts;
+    }
+
+    /**
+     * Enable page scripts bundling. If enabled, local scripts of a page are concatenated in dependency order into script
+     * bundles. Scripts included by most pages are written into a common bundle, shared by pages and cached by browser, whereas
+     * remaining scripts are written into page bundle. Embedded, dynamic and third party scripts are not bundled, nor are
+     * scripts with <code>async</code>, <code>nomodule</code>, <code>nonce</code> or <code>integrity</code> attributes, a
+     * non-default <code>defer</code> value or a type other than JavaScript. Default <code>defer</code> is kept on bundle
+     * element and bundles are split where a script cannot be bundled, so that scripts order is preserved.
+     *
+     * @param bundleScripts true to enable page scripts bundling.
+     */
+    public void setBundleScripts(boolean bundleScripts) {
+        this.bundleScripts = bundleScripts;
+    }
+
+    public boolean isPrecompress() {
+        return precompress;
+    }
+
+    /**
+     * Enable precompressed files. If enabled, pages, styles, scripts, PWA manifest and SVG images get a sibling file with
+     * <code>.gz</code> extension, compressed with best compression level, so that web servers can send it as it is. Compressed
+     * file is not kept if it is not smaller than the original.
+     *
+     * @param precompress true to write compressed files.
+     */
+    public void setPrecompress(boolean precompress) {
+        this.precompress = precompress;
+    }
 }
@@ -4,6 +4,7 @@ import com.jslib.wood.*;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * WOOD {@link Project} extension for build process.
@@ -24,7 +25,7 @@ class BuilderProject extends Project {
     private final Map<FilePath, Variables> variables;
 
     /**
-     * Project page components.
+     * Project page components, sorted by path after project file system scanning.
      */
     private final List<CompoPath> pages;
 
@@ -37,8 +38,9 @@ class BuilderProject extends Project {
         super(projectDir);
 
         this.assetVariables = new Variables(getAssetDir());
-        this.variables = new HashMap<>();
-        this.pages = new ArrayList<>();
+        // project file system is scanned in parallel; visitor collects into thread safe containers
+        this.variables = new ConcurrentHashMap<>();
+        this.pages = Collections.synchronizedList(new ArrayList<>());
 
         registerVisitor(new FilePathVisitor(variables, pages));
     }
@@ -103,12 +105,11 @@ class BuilderProject extends Project {
 
             // variables definition files are XML files with root element one of defined resource type variables
             if (file.isXml(Reference.Type.variables())) {
-                Variables parentDirVariables = variables.get(parentDir);
-                if (parentDirVariables == null) {
-                    parentDirVariables = new Variables();
-                    variables.put(parentDir, parentDirVariables);
+                Variables parentDirVariables = variables.computeIfAbsent(parentDir, dir -> new Variables());
+                // files from the same directory are scanned by the same thread but lock anyway since variables is shared
+                synchronized (parentDirVariables) {
+                    parentDirVariables.load(file);
                 }
-                parentDirVariables.load(file);
                 return;
             }
 
@@ -117,5 +118,15 @@ class BuilderProject extends Project {
                 pages.add(project.createCompoPath(parentDir.value()));
             }
         }
+
+        /**
+         * Sort pages by path since pages are collected in the order directories are concurrently scanned.
+         *
+         * @param project master project.
+         */
+        @Override
+        public void endScan(Project project) {
+            pages.sort(Comparator.comparing(CompoPath::value));
+        }
     }
 }
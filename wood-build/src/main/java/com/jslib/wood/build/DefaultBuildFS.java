@@ -47,6 +47,17 @@ class DefaultBuildFS extends BuildFS {
 		super(buildDir, buildNumber);
 	}
 
+	/**
+	 * Create default build file system instance with content hash file naming option.
+	 * 
+	 * @param buildDir project directory.
+	 * @param buildNumber build number.
+	 * @param contentHash if true, use content hash instead of build number on styles, scripts, media and generic files.
+	 */
+	public DefaultBuildFS(File buildDir, int buildNumber, boolean contentHash) {
+		super(buildDir, buildNumber, contentHash);
+	}
+
 	/**
 	 * Usually page layout files are stored on the root of the build file system. Anyway, if component has
 	 * <code>group</code> uses it to create resources groups specific subdirectory where to store layout files. Takes care to
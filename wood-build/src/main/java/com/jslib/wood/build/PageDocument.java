@@ -293,6 +293,23 @@ class PageDocument {
         head.addText("\r\n");
     }
 
+    /**
+     * Add script bundle element to this page head. Create <code>script</code> element with <code>src</code> attribute set to
+     * script bundle URL path and <code>type</code> attribute set to <code>text/javascript</code>. Optional <code>defer</code>
+     * attribute is copied from bundled scripts, all bundled scripts having the same value.
+     *
+     * @param src   script bundle URL path,
+     * @param defer bundled scripts <code>defer</code> attribute value, null if not set.
+     * @throws IllegalArgumentException if source parameter is null or empty.
+     */
+    public void addScript(String src, String defer) {
+        assert src != null && !src.isEmpty() : "Script source argument is null or empty";
+        Element scriptElement = doc.createElement("script", "src", src, "type", "text/javascript");
+        setAttr(scriptElement, "defer", defer);
+        head.addChild(scriptElement);
+        head.addText("\r\n");
+    }
+
     /**
      * Add named attribute to DOM element with given value. Attribute value can be null in which case optional default value is
      * used. If value parameter is null and default value is not provided this method does nothing.
@@ -0,0 +1,113 @@
+package com.jslib.wood.build;
+
+import com.jslib.wood.FilePath;
+import com.jslib.wood.Reference;
+import com.jslib.wood.impl.FileType;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache for resolved resource file references, see {@link Builder#onResourceReference(Reference, FilePath)}. It is common for
+ * the same resource, e.g. an icon, to be referenced many times from the same source directory; without this cache every
+ * reference lists source and asset directories and goes again through build file system write path.
+ * <p>
+ * Resolved URL path depends on the resource file location, which is searched on source file directory and on assets, and on
+ * the location of the file using the URL path, which is determined by source file type and, for pages, by resources group. This
+ * is why cache key contains language, source directory, reference, source file kind and page resources group.
+ * <p>
+ * Cache entry keeps resolved resource file too so that it can be recorded as page input on incremental build.
+ * <p>
+ * This class is thread safe and is shared by all page builders.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+class ResourcesCache {
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Get cached entry for resource reference or null if reference is not resolved yet.
+     *
+     * @param key resource reference key.
+     * @return cached entry, possible null.
+     */
+    public Entry get(Key key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Store resolved resource reference.
+     *
+     * @param key          resource reference key,
+     * @param resourceFile resolved resource file,
+     * @param path         URL path returned by build file system for resource file.
+     */
+    public void put(Key key, FilePath resourceFile, String path) {
+        entries.putIfAbsent(key, new Entry(resourceFile, path));
+    }
+
+    static class Key {
+        private final String language;
+        private final FilePath sourceDir;
+        private final Reference reference;
+        private final FileType sourceType;
+        private final boolean manifest;
+        private final boolean descriptor;
+        private final String resourcesGroup;
+        private final int hashCode;
+
+        /**
+         * Create resource reference key.
+         *
+         * @param language       current processing language, possible null,
+         * @param reference      resource reference,
+         * @param sourceFile     source file where reference is used,
+         * @param resourcesGroup resources group of the current page, possible null.
+         */
+        public Key(String language, Reference reference, FilePath sourceFile, String resourcesGroup) {
+            this.language = language;
+            this.sourceDir = sourceFile.getParentDir();
+            this.reference = reference;
+            this.sourceType = sourceFile.getType();
+            this.manifest = sourceFile.isManifest();
+            this.descriptor = sourceFile.isComponentDescriptor();
+            this.resourcesGroup = resourcesGroup;
+            this.hashCode = Objects.hash(language, sourceDir, reference, sourceType, manifest, descriptor, resourcesGroup);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            Key other = (Key) obj;
+            return reference.equals(other.reference) && sourceType == other.sourceType && manifest == other.manifest && descriptor == other.descriptor && Objects.equals(language, other.language) && Objects.equals(sourceDir, other.sourceDir) && Objects.equals(resourcesGroup, other.resourcesGroup);
+        }
+    }
+
+    static class Entry {
+        private final FilePath resourceFile;
+        private final String path;
+
+        public Entry(FilePath resourceFile, String path) {
+            this.resourceFile = resourceFile;
+            this.path = path;
+        }
+
+        public FilePath getResourceFile() {
+            return resourceFile;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.jslib.wood.build;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Script reader decorator that removes comments and redundant white spaces on the fly. This class is designed to decorate
+ * {@link com.jslib.wood.SourceReader} created for a script file.
+ *
+ * <pre>
+ * Reader reader = new ScriptMinifier(new SourceReader(scriptFile, referenceHandler));
+ * </pre>
+ * <p>
+ * Minifier is a tokenizer level pass: it recognizes strings, template literals, regular expression literals and comments, and
+ * never changes tokens. String, template and regular expression literals are copied verbatim; template literal expressions are
+ * copied verbatim too. Comments are removed, with the exception of <code>/*!</code> comments, usually used for license notices.
+ * <p>
+ * White spaces between tokens are removed, or reduced to a single space where tokens would otherwise merge, e.g. two identifiers
+ * or <code>a + +b</code>. Since line terminators are significant for automatic semicolon insertion, a line break between tokens
+ * is preserved as a single new line, unless previous token is one of <code>{ ( [ , ;</code> or next token is one of
+ * <code>} ) ] , ;</code>; in these cases there is no automatic semicolon insertion.
+ * <p>
+ * Regular expression literal is recognized by previous token: slash starts a regular expression if there is no previous token
+ * or previous token is a punctuator other than closing parenthesis or square bracket, or a keyword like <code>return</code>.
+ * Closing parenthesis of an <code>if</code>, <code>while</code>, <code>for</code> or <code>with</code> statement head is an
+ * exception: slash after it starts a regular expression, e.g. <code>if (x) /[ ]/.test(s)</code>.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+class ScriptMinifier extends Reader {
+    /**
+     * Keywords after which slash starts a regular expression literal.
+     */
+    private static final Set<String> REGEX_KEYWORDS = new HashSet<>(Arrays.asList("return", "typeof", "instanceof", "in", "of", "new", "delete", "void", "throw", "case", "do", "else", "yield", "await"));
+
+    /**
+     * Keywords followed by parenthesized statement head; slash after closing parenthesis of the head starts a regular
+     * expression literal.
+     */
+    private static final Set<String> HEAD_KEYWORDS = new HashSet<>(Arrays.asList("if", "while", "for", "with"));
+
+    /**
+     * Maximum length of {@link #REGEX_KEYWORDS}.
+     */
+    private static final int KEYWORD_MAX_LENGTH = 10;
+
+    /**
+     * Line break after these characters does not trigger automatic semicolon insertion and can be removed.
+     */
+    private static final String NEWLINE_NOT_AFTER = "{([,;";
+
+    /**
+     * Line break before these characters does not trigger automatic semicolon insertion and can be removed.
+     */
+    private static final String NEWLINE_NOT_BEFORE = "})],;";
+
+    private static final int NO_SPACE = 0;
+    private static final int SPACE = 1;
+    private static final int NEWLINE = 2;
+
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * Decorated reader.
+     */
+    private final Reader reader;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferIndex;
+    private int bufferLength;
+
+    /**
+     * Pushed back character or -1 if none.
+     */
+    private int pushback = -1;
+
+    /**
+     * Minified content ready to be read.
+     */
+    private final StringBuilder output = new StringBuilder();
+
+    /**
+     * Index of the next character from {@link #output} to be read.
+     */
+    private int outputIndex;
+
+    /**
+     * White space found after the last written token: {@link #NO_SPACE}, {@link #SPACE} or {@link #NEWLINE}.
+     */
+    private int whitespace;
+
+    /**
+     * Last character of the last written token, 0 if no token was written.
+     */
+    private char lastChar;
+
+    /**
+     * Last identifier, if last written token is an identifier and it is not longer than {@link #KEYWORD_MAX_LENGTH}.
+     */
+    private final StringBuilder lastWord = new StringBuilder();
+
+    /**
+     * Flag true if last written token is a regular expression literal, without flags.
+     */
+    private boolean lastRegex;
+
+    /**
+     * Open parentheses, innermost on top; an entry is true if parenthesis opens a statement head, see {@link #HEAD_KEYWORDS}.
+     */
+    private final Deque<Boolean> parentheses = new ArrayDeque<>();
+
+    /**
+     * Flag true if last written token is the closing parenthesis of a statement head.
+     */
+    private boolean lastHead;
+
+    /**
+     * Flag true after decorated reader end of file.
+     */
+    private boolean eof;
+
+    public ScriptMinifier(Reader reader) {
+        assert reader != null : "Reader argument is null";
+        this.reader = reader;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        while (outputIndex == output.length()) {
+            if (eof) {
+                return -1;
+            }
+            output.setLength(0);
+            outputIndex = 0;
+            scanToken();
+        }
+
+        int count = Math.min(len, output.length() - outputIndex);
+        output.getChars(outputIndex, outputIndex + count, cbuf, off);
+        outputIndex += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Scan next token or white space from decorated reader. Comments are processed as white spaces.
+     *
+     * @throws IOException if decorated reader fails.
+     */
+    private void scanToken() throws IOException {
+        int c = next();
+        if (c == -1) {
+            eof = true;
+            return;
+        }
+
+        if (isLineTerminator(c)) {
+            whitespace = NEWLINE;
+            return;
+        }
+        if (Character.isWhitespace(c) || c == '\u00A0' || c == '\uFEFF') {
+            whitespace = Math.max(whitespace, SPACE);
+            return;
+        }
+
+        switch (c) {
+            case '/':
+                int n = next();
+                if (n == '/') {
+                    skipLineComment();
+                    return;
+                }
+                if (n == '*') {
+                    n = next();
+                    if (n == '!') {
+                        copyLicenseComment();
+                        return;
+                    }
+                    pushback(n);
+                    whitespace = Math.max(whitespace, skipBlockComment() ? NEWLINE : SPACE);
+                    return;
+                }
+                pushback(n);
+
+                boolean regex = isRegexAllowed();
+                writeToken('/');
+                if (regex) {
+                    copyRegex();
+                }
+                return;
+
+            case '"':
+            case '\'':
+                writeToken((char) c);
+                copyString((char) c);
+                return;
+
+            case '`':
+                writeToken('`');
+                copyTemplate();
+                return;
+
+            default:
+                writeToken((char) c);
+        }
+    }
+
+    /**
+     * Write token character to output, preceded by pending white space, if necessary. Also update last token state.
+     *
+     * @param c token character.
+     */
+    private void writeToken(char c) {
+        boolean head = false;
+        if (c == '(') {
+            parentheses.push(HEAD_KEYWORDS.contains(lastWord.toString()));
+        } else if (c == ')' && !parentheses.isEmpty()) {
+            head = parentheses.pop();
+        }
+
+        if (whitespace != NO_SPACE && lastChar != 0) {
+            if (whitespace == NEWLINE && NEWLINE_NOT_AFTER.indexOf(lastChar) == -1 && NEWLINE_NOT_BEFORE.indexOf(c) == -1) {
+                output.append('\n');
+            } else if (isSpaceRequired(lastChar, c)) {
+                output.append(' ');
+            }
+        }
+
+        if (isWordChar(c)) {
+            if (whitespace != NO_SPACE || !isWordChar(lastChar)) {
+                lastWord.setLength(0);
+            }
+            if (lastWord.length() <= KEYWORD_MAX_LENGTH) {
+                lastWord.append(c);
+            }
+        } else {
+            lastWord.setLength(0);
+        }
+
+        whitespace = NO_SPACE;
+        lastChar = c;
+        lastRegex = false;
+        lastHead = head;
+        output.append(c);
+    }
+
+    private static boolean isSpaceRequired(char previous, char next) {
+        if (isWordChar(previous) && isWordChar(next)) {
+            return true;
+        }
+        if (previous == next && (next == '+' || next == '-' || next == '/')) {
+            return true;
+        }
+        // numeric literal followed by member access, regular expression followed by multiplication and HTML like comments
+        return Character.isDigit(previous) && next == '.' || previous == '/' && next == '*' || previous == '<' && next == '!' || previous == '-' && next == '>';
+    }
+
+    private boolean isRegexAllowed() {
+        if (lastChar == 0) {
+            return true;
+        }
+        if (lastRegex) {
+            return false;
+        }
+        if (isWordChar(lastChar)) {
+            return REGEX_KEYWORDS.contains(lastWord.toString());
+        }
+        if (lastHead) {
+            return true;
+        }
+        return lastChar != ')' && lastChar != ']' && lastChar != '"' && lastChar != '\'' && lastChar != '`';
+    }
+
+    private void skipLineComment() throws IOException {
+        for (int c = next(); c != -1; c = next()) {
+            if (isLineTerminator(c)) {
+                whitespace = NEWLINE;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Skip block comment and return true if comment contains line terminator. A multiline comment is processed as line
+     * terminator by automatic semicolon insertion.
+     *
+     * @return true if skipped comment contains line terminator.
+     * @throws IOException if decorated reader fails.
+     */
+    private boolean skipBlockComment() throws IOException {
+        boolean newline = false;
+        int previous = 0;
+        for (int c = next(); c != -1; c = next()) {
+            if (previous == '*' && c == '/') {
+                break;
+            }
+            newline |= isLineTerminator(c);
+            previous = c;
+        }
+        return newline;
+    }
+
+    /**
+     * Copy license comment verbatim. Pending white space and last token state are not changed since comment is not a token.
+     * Line breaks are not added around comment; a multiline comment is itself a line terminator for automatic semicolon
+     * insertion.
+     *
+     * @throws IOException if decorated reader fails.
+     */
+    private void copyLicenseComment() throws IOException {
+        output.append("/*!");
+        int previous = 0;
+        for (int c = next(); c != -1; c = next()) {
+            output.append((char) c);
+            if (previous == '*' && c == '/') {
+                break;
+            }
+            previous = c;
+        }
+    }
+
+    private void copyString(char quote) throws IOException {
+        for (int c = next(); c != -1; c = next()) {
+            output.append((char) c);
+            if (c == '\\') {
+                c = next();
+                if (c == -1) {
+                    break;
+                }
+                output.append((char) c);
+                continue;
+            }
+            if (c == quote || isLineTerminator(c)) {
+                // line terminator is not allowed into string literal but let script engine deal with it
+                break;
+            }
+        }
+        lastChar = quote;
+    }
+
+    private void copyRegex() throws IOException {
+        boolean characterClass = false;
+        for (int c = next(); c != -1; c = next()) {
+            output.append((char) c);
+            if (c == '\\') {
+                c = next();
+                if (c == -1) {
+                    break;
+                }
+                output.append((char) c);
+                continue;
+            }
+            if (c == '[') {
+                characterClass = true;
+            } else if (c == ']') {
+                characterClass = false;
+            } else if (c == '/' && !characterClass || isLineTerminator(c)) {
+                break;
+            }
+        }
+        // regular expression flags are processed as identifier
+        lastChar = '/';
+        lastRegex = true;
+        lastWord.setLength(0);
+    }
+
+    /**
+     * Copy template literal verbatim, including embedded expressions. Opening back tick is already written.
+     *
+     * @throws IOException if decorated reader fails.
+     */
+    private void copyTemplate() throws IOException {
+        for (int c = next(); c != -1; c = next()) {
+            output.append((char) c);
+            if (c == '\\') {
+                c = next();
+                if (c == -1) {
+                    break;
+                }
+                output.append((char) c);
+                continue;
+            }
+            if (c == '`') {
+                break;
+            }
+            if (c == '$') {
+                c = next();
+                if (c == '{') {
+                    output.append('{');
+                    copyTemplateExpression();
+                    continue;
+                }
+                pushback(c);
+            }
+        }
+        lastChar = '`';
+        lastWord.setLength(0);
+    }
+
+    /**
+     * Copy template literal embedded expression verbatim, up to and including closing curly brace. Nested strings, templates
+     * and comments are copied as they are, so that their curly braces are not counted.
+     *
+     * @throws IOException if decorated reader fails.
+     */
+    private void copyTemplateExpression() throws IOException {
+        int depth = 1;
+        for (int c = next(); c != -1; c = next()) {
+            output.append((char) c);
+            switch (c) {
+                case '{':
+                    ++depth;
+                    break;
+
+                case '}':
+                    if (--depth == 0) {
+                        return;
+                    }
+                    break;
+
+                case '"':
+                case '\'':
+                    copyString((char) c);
+                    break;
+
+                case '`':
+                    copyTemplate();
+                    break;
+
+                case '/':
+                    c = next();
+                    if (c == '/' || c == '*') {
+                        output.append((char) c);
+                        copyComment(c == '*');
+                        break;
+                    }
+                    pushback(c);
+                    break;
+            }
+        }
+    }
+
+    private void copyComment(boolean block) throws IOException {
+        int previous = 0;
+        for (int c = next(); c != -1; c = next()) {
+            output.append((char) c);
+            if (block ? previous == '*' && c == '/' : isLineTerminator(c)) {
+                return;
+            }
+            previous = c;
+        }
+    }
+
+    private int next() throws IOException {
+        if (pushback != -1) {
+            int c = pushback;
+            pushback = -1;
+            return c;
+        }
+        if (bufferIndex == bufferLength) {
+            bufferLength = reader.read(buffer, 0, BUFFER_SIZE);
+            bufferIndex = 0;
+            if (bufferLength <= 0) {
+                bufferLength = 0;
+                return -1;
+            }
+        }
+        return buffer[bufferIndex++];
+    }
+
+    private void pushback(int c) {
+        pushback = c;
+    }
+
+    private static boolean isLineTerminator(int c) {
+        return c == '\n' || c == '\r' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '$' || c == '_' || c == '\\' || c > 0x7F;
+    }
+}
@@ -0,0 +1,755 @@
+package com.jslib.wood.build;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Style reader decorator that minifies style content on the fly. This class is designed to decorate {@link com.jslib.wood.SourceReader}
+ * created for a style file, so that minification is applied on resolved content, including media sections injected by
+ * {@link com.jslib.wood.StyleReader} for style variants.
+ *
+ * <pre>
+ * Reader reader = new StyleMinifier(new SourceReader(new StyleReader(styleFile), styleFile, referenceHandler));
+ * </pre>
+ * <p>
+ * Minifier removes comments and insignificant white spaces, removes the last semicolon from declaration blocks, shortens
+ * hexadecimal colors with duplicated digits, e.g. <code>#aabbcc</code> becomes <code>#abc</code>, and removes unit from zero
+ * lengths, e.g. <code>0px</code> becomes <code>0</code>. Zero lengths from functions arguments are not changed since unit is
+ * required into <code>calc()</code> expressions. Zero lengths from <code>flex</code> shorthand are not changed either, since
+ * there a unitless zero is a flex factor, not a flex basis. Custom properties values are only trimmed. Empty rules are removed.
+ * <p>
+ * Adjacent rules with the same selector, from the same block, are merged into a single rule; if both have the same
+ * declarations the second rule is discarded. Merging is limited to adjacent rules since moving a rule over another one can
+ * change cascade order.
+ * <p>
+ * Minifier does not build style sheet model. Source content is processed one statement at a time - selector, at-rule prelude or
+ * declaration, and only the style rule under processing is kept in memory, waiting for a possible merge with the next one.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+class StyleMinifier extends Reader {
+    /**
+     * At-rules with style rules as content. Rules from these at-rules blocks can be merged.
+     */
+    private static final Set<String> GROUP_RULES = new HashSet<>(Arrays.asList("media", "supports", "container", "layer", "document", "-moz-document", "scope", "starting-style"));
+
+    /**
+     * Units for zero lengths that can be safely removed. Percent, time, angle and resolution units are not included.
+     */
+    private static final Set<String> LENGTH_UNITS = new HashSet<>(Arrays.asList("px", "em", "rem", "ex", "ch", "vw", "vh", "vmin", "vmax", "cm", "mm", "q", "in", "pt", "pc"));
+
+    /**
+     * Properties whose values keep zero lengths unit. On <code>flex</code> shorthand a unitless zero is a flex factor.
+     */
+    private static final Set<String> ZERO_UNIT_PROPERTIES = new HashSet<>(Arrays.asList("flex", "-webkit-flex", "-ms-flex"));
+
+    /**
+     * Characters from selectors that do not need white space before, respective after.
+     */
+    private static final String SELECTOR_TIGHT_BEFORE = ",>+~)";
+    private static final String SELECTOR_TIGHT_AFTER = ",>+~(";
+
+    /**
+     * Characters from at-rules prelude that do not need white space before, respective after. Colon is tight only inside
+     * parenthesis, e.g. <code>(max-width:800px)</code>.
+     */
+    private static final String PRELUDE_TIGHT_BEFORE = ",):";
+    private static final String PRELUDE_TIGHT_AFTER = ",(:";
+
+    /**
+     * Characters from declaration values that do not need white space before, respective after.
+     */
+    private static final String VALUE_TIGHT_BEFORE = ",)!/";
+    private static final String VALUE_TIGHT_AFTER = ",(/";
+
+    private static final int BUFFER_SIZE = 4096;
+
+    /**
+     * Decorated reader.
+     */
+    private final Reader reader;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int bufferIndex;
+    private int bufferLength;
+
+    /**
+     * Pushed back character or -1 if none.
+     */
+    private int pushback = -1;
+
+    /**
+     * Minified content ready to be read.
+     */
+    private final StringBuilder output = new StringBuilder();
+
+    /**
+     * Index of the next character from {@link #output} to be read.
+     */
+    private int outputIndex;
+
+    /**
+     * Currently scanned statement, with comments removed and white spaces collapsed.
+     */
+    private final StringBuilder statement = new StringBuilder();
+
+    /**
+     * Opened blocks, with root block on stack bottom.
+     */
+    private final Deque<Block> blocks = new ArrayDeque<>();
+
+    /**
+     * Completed style rule waiting to be merged with the next style rule, or null.
+     */
+    private Block pendingRule;
+
+    /**
+     * Flag true after decorated reader end of file.
+     */
+    private boolean eof;
+
+    public StyleMinifier(Reader reader) {
+        assert reader != null : "Reader argument is null";
+        this.reader = reader;
+        this.blocks.push(new Block(Kind.GROUP, null, output));
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        while (outputIndex == output.length()) {
+            if (eof) {
+                return -1;
+            }
+            output.setLength(0);
+            outputIndex = 0;
+            scanStatement();
+        }
+
+        int count = Math.min(len, output.length() - outputIndex);
+        output.getChars(outputIndex, outputIndex + count, cbuf, off);
+        outputIndex += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // --------------------------------------------------------------------------------------------
+    // statements scanner
+
+    /**
+     * Scan next statement from decorated reader, up to statement terminator - left or right curly brace or semicolon, outside
+     * strings and parenthesis. Comments are removed and white spaces collapsed; strings and unquoted URLs are copied verbatim.
+     *
+     * @throws IOException if decorated reader fails.
+     */
+    private void scanStatement() throws IOException {
+        statement.setLength(0);
+        int depth = 0;
+
+        for (; ; ) {
+            int c = next();
+            switch (c) {
+                case -1:
+                    eof = true;
+                    onEndOfFile();
+                    return;
+
+                case '/':
+                    int n = next();
+                    if (n == '*') {
+                        skipComment();
+                        appendSpace();
+                        break;
+                    }
+                    pushback(n);
+                    statement.append('/');
+                    break;
+
+                case '"':
+                case '\'':
+                    copyString((char) c);
+                    break;
+
+                case '\\':
+                    statement.append('\\');
+                    n = next();
+                    if (n != -1) {
+                        statement.append((char) n);
+                    }
+                    break;
+
+                case '(':
+                    if (endsWithUrl()) {
+                        copyUrl();
+                        break;
+                    }
+                    ++depth;
+                    statement.append('(');
+                    break;
+
+                case ')':
+                    if (depth > 0) {
+                        --depth;
+                    }
+                    statement.append(')');
+                    break;
+
+                case '{':
+                case '}':
+                case ';':
+                    if (depth > 0) {
+                        statement.append((char) c);
+                        break;
+                    }
+                    onStatement(trim(statement), (char) c);
+                    return;
+
+                default:
+                    if (Character.isWhitespace(c)) {
+                        appendSpace();
+                        break;
+                    }
+                    statement.append((char) c);
+            }
+        }
+    }
+
+    private void skipComment() throws IOException {
+        int previous = 0;
+        for (int c = next(); c != -1; c = next()) {
+            if (previous == '*' && c == '/') {
+                return;
+            }
+            previous = c;
+        }
+    }
+
+    private void appendSpace() {
+        if (statement.length() > 0 && statement.charAt(statement.length() - 1) != ' ') {
+            statement.append(' ');
+        }
+    }
+
+    private void copyString(char quote) throws IOException {
+        statement.append(quote);
+        for (int c = next(); c != -1; c = next()) {
+            statement.append((char) c);
+            if (c == '\\') {
+                c = next();
+                if (c == -1) {
+                    return;
+                }
+                statement.append((char) c);
+                continue;
+            }
+            if (c == quote) {
+                return;
+            }
+        }
+    }
+
+    private boolean endsWithUrl() {
+        int length = statement.length();
+        if (length < 3 || !statement.substring(length - 3).equalsIgnoreCase("url")) {
+            return false;
+        }
+        return length == 3 || !isNameChar(statement.charAt(length - 4));
+    }
+
+    /**
+     * Copy URL function arguments verbatim, including closing parenthesis. Takes care to process quoted URL as string.
+     *
+     * @throws IOException if decorated reader fails.
+     */
+    private void copyUrl() throws IOException {
+        statement.append('(');
+        int c = next();
+        while (c != -1 && Character.isWhitespace(c)) {
+            c = next();
+        }
+        for (; c != -1; c = next()) {
+            if (c == '"' || c == '\'') {
+                copyString((char) c);
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            statement.append((char) c);
+            if (c == ')') {
+                return;
+            }
+        }
+    }
+
+    private int next() throws IOException {
+        if (pushback != -1) {
+            int c = pushback;
+            pushback = -1;
+            return c;
+        }
+        if (bufferIndex == bufferLength) {
+            bufferLength = reader.read(buffer, 0, BUFFER_SIZE);
+            bufferIndex = 0;
+            if (bufferLength <= 0) {
+                bufferLength = 0;
+                return -1;
+            }
+        }
+        return buffer[bufferIndex++];
+    }
+
+    private void pushback(int c) {
+        pushback = c;
+    }
+
+    // --------------------------------------------------------------------------------------------
+    // statements processing
+
+    /**
+     * Process scanned statement accordingly its terminator.
+     *
+     * @param text       trimmed statement text, possible empty,
+     * @param terminator statement terminator: left or right curly brace or semicolon.
+     */
+    private void onStatement(String text, char terminator) {
+        Block block = blocks.peek();
+        switch (terminator) {
+            case '{':
+                if (block.kind == Kind.RULE) {
+                    block.nested = true;
+                }
+                if (text.startsWith("@")) {
+                    String prelude = compact(text, PRELUDE_TIGHT_BEFORE, PRELUDE_TIGHT_AFTER, false, false);
+                    write(block, prelude + '{');
+                    blocks.push(new Block(atRuleKind(prelude), prelude, block.sink));
+                } else {
+                    blocks.push(new Block(Kind.RULE, compact(text, SELECTOR_TIGHT_BEFORE, SELECTOR_TIGHT_AFTER, false, false), new StringBuilder()));
+                }
+                break;
+
+            case ';':
+                onDeclaration(block, text);
+                break;
+
+            case '}':
+                onDeclaration(block, text);
+                if (blocks.size() > 1) {
+                    closeBlock(blocks.pop());
+                }
+                break;
+        }
+    }
+
+    private void onDeclaration(Block block, String text) {
+        if (text.isEmpty()) {
+            return;
+        }
+        if (text.startsWith("@")) {
+            // at-rule statement, e.g. @import or @charset
+            write(block, compact(text, PRELUDE_TIGHT_BEFORE, PRELUDE_TIGHT_AFTER, false, false));
+            block.sink.append(';');
+            block.semicolon = false;
+            return;
+        }
+
+        int colonIndex = text.indexOf(':');
+        if (colonIndex == -1) {
+            write(block, text);
+        } else {
+            String property = text.substring(0, colonIndex).trim();
+            String value = text.substring(colonIndex + 1).trim();
+            if (!property.startsWith("--")) {
+                value = compact(value, VALUE_TIGHT_BEFORE, VALUE_TIGHT_AFTER, true, !ZERO_UNIT_PROPERTIES.contains(property.toLowerCase()));
+            }
+            write(block, property + ':' + value);
+        }
+        block.semicolon = true;
+    }
+
+    private void closeBlock(Block block) {
+        Block parent = blocks.peek();
+        assert parent != null;
+        if (block.kind != Kind.RULE) {
+            if (block.sink == output) {
+                flushPendingRule();
+            }
+            block.sink.append('}');
+            parent.semicolon = false;
+            return;
+        }
+
+        if (block.body.length() == 0) {
+            // empty rule has no effect
+            return;
+        }
+        if (parent.kind != Kind.GROUP || parent.sink != output) {
+            write(parent, block.toString());
+            parent.semicolon = false;
+            return;
+        }
+
+        if (pendingRule != null && pendingRule.prelude.equals(block.prelude) && !pendingRule.nested && !block.nested) {
+            String body = block.body.toString();
+            if (!pendingRule.body.toString().equals(body)) {
+                pendingRule.body.append(';').append(body);
+            }
+            return;
+        }
+        flushPendingRule();
+        pendingRule = block;
+    }
+
+    private void onEndOfFile() {
+        String text = trim(statement);
+        if (!text.isEmpty()) {
+            onDeclaration(blocks.peek(), text);
+        }
+        // close blocks left opened by malformed source
+        while (blocks.size() > 1) {
+            closeBlock(blocks.pop());
+        }
+        flushPendingRule();
+    }
+
+    /**
+     * Write text to block sink, preceded by semicolon if block has a pending declaration. If block sink is {@link #output},
+     * pending rule, if any, is written first.
+     *
+     * @param block target block,
+     * @param text  text to write.
+     */
+    private void write(Block block, String text) {
+        if (block.sink == output) {
+            flushPendingRule();
+        }
+        if (block.semicolon) {
+            block.sink.append(';');
+            block.semicolon = false;
+        }
+        block.sink.append(text);
+    }
+
+    private void flushPendingRule() {
+        if (pendingRule != null) {
+            output.append(pendingRule);
+            pendingRule = null;
+        }
+    }
+
+    private static Kind atRuleKind(String prelude) {
+        int nameEnd = 1;
+        while (nameEnd < prelude.length() && isNameChar(prelude.charAt(nameEnd))) {
+            ++nameEnd;
+        }
+        return GROUP_RULES.contains(prelude.substring(1, nameEnd).toLowerCase()) ? Kind.GROUP : Kind.OTHER;
+    }
+
+    // --------------------------------------------------------------------------------------------
+    // text compacting
+
+    /**
+     * Remove insignificant white spaces from statement text. A white space is removed if it is adjacent to a tight character:
+     * before a character from <code>tightBefore</code> or after a character from <code>tightAfter</code>. Strings, URL
+     * arguments and escaped characters are copied verbatim. If <code>value</code> flag is true, also shortens hexadecimal
+     * colors and, if <code>zeroLengths</code> flag is true, zero lengths.
+     *
+     * @param text        trimmed statement text with white spaces already collapsed,
+     * @param tightBefore characters that do not need white space before,
+     * @param tightAfter  characters that do not need white space after,
+     * @param value       true if text is a declaration value,
+     * @param zeroLengths true if unit can be removed from zero lengths.
+     * @return compacted text.
+     */
+    private static String compact(String text, String tightBefore, String tightAfter, boolean value, boolean zeroLengths) {
+        StringBuilder builder = new StringBuilder(text.length());
+        boolean prelude = tightBefore == PRELUDE_TIGHT_BEFORE;
+        // true if last character from builder is tight, that is, a following white space can be removed
+        boolean lastTight = false;
+        int depth = 0;
+
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            switch (c) {
+                case ' ':
+                    if (lastTight || i + 1 == text.length() || isTight(text.charAt(i + 1), tightBefore, prelude, depth)) {
+                        continue;
+                    }
+                    builder.append(' ');
+                    lastTight = false;
+                    continue;
+
+                case '"':
+                case '\'':
+                    i = copyString(text, i, builder);
+                    lastTight = false;
+                    continue;
+
+                case '\\':
+                    builder.append(c);
+                    if (i + 1 < text.length()) {
+                        builder.append(text.charAt(++i));
+                    }
+                    lastTight = false;
+                    continue;
+
+                case '(':
+                    if (endsWithUrl(builder)) {
+                        int end = urlEnd(text, i);
+                        builder.append(text, i, end);
+                        i = end - 1;
+                        lastTight = false;
+                        continue;
+                    }
+                    ++depth;
+                    break;
+
+                case ')':
+                    if (depth > 0) {
+                        --depth;
+                    }
+                    break;
+
+                case '#':
+                    if (value) {
+                        i = copyColor(text, i, builder);
+                        lastTight = false;
+                        continue;
+                    }
+                    break;
+
+                default:
+                    if (zeroLengths && depth == 0 && isNumberStart(c) && isTokenStart(builder)) {
+                        i = copyNumber(text, i, builder);
+                        lastTight = false;
+                        continue;
+                    }
+            }
+
+            builder.append(c);
+            lastTight = isTight(c, tightAfter, prelude, depth);
+        }
+        return builder.toString();
+    }
+
+    private static boolean isTight(char c, String tightChars, boolean prelude, int depth) {
+        if (c == ':' && prelude) {
+            // on at-rules prelude colon is tight only inside parenthesis, e.g. media feature
+            return depth > 0;
+        }
+        return tightChars.indexOf(c) != -1;
+    }
+
+    private static int copyString(String text, int index, StringBuilder builder) {
+        char quote = text.charAt(index);
+        builder.append(quote);
+        for (int i = index + 1; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            builder.append(c);
+            if (c == '\\' && i + 1 < text.length()) {
+                builder.append(text.charAt(++i));
+                continue;
+            }
+            if (c == quote) {
+                return i;
+            }
+        }
+        return text.length() - 1;
+    }
+
+    private static boolean endsWithUrl(StringBuilder builder) {
+        int length = builder.length();
+        if (length < 3 || !builder.substring(length - 3).equalsIgnoreCase("url")) {
+            return false;
+        }
+        return length == 3 || !isNameChar(builder.charAt(length - 4));
+    }
+
+    /**
+     * Get the index after URL function closing parenthesis. URL function arguments may be a quoted string.
+     *
+     * @param text  statement text,
+     * @param index index of URL function opening parenthesis.
+     * @return index after closing parenthesis or text length if closing parenthesis is missing.
+     */
+    private static int urlEnd(String text, int index) {
+        char quote = 0;
+        for (int i = index + 1; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            if (quote != 0) {
+                if (c == '\\') {
+                    ++i;
+                } else if (c == quote) {
+                    quote = 0;
+                }
+                continue;
+            }
+            if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == ')') {
+                return i + 1;
+            }
+        }
+        return text.length();
+    }
+
+    /**
+     * Copy hexadecimal color to builder, shortened if every pair of digits has equal digits. Returns the index of the last
+     * character processed.
+     *
+     * @param text    declaration value,
+     * @param index   index of color hash character,
+     * @param builder target builder.
+     * @return index of the last processed character.
+     */
+    private static int copyColor(String text, int index, StringBuilder builder) {
+        int end = index + 1;
+        while (end < text.length() && Character.digit(text.charAt(end), 16) != -1) {
+            ++end;
+        }
+        int length = end - index - 1;
+        boolean shorten = (length == 6 || length == 8) && (end == text.length() || !isNameChar(text.charAt(end)));
+        for (int i = index + 1; shorten && i < end; i += 2) {
+            shorten = Character.toLowerCase(text.charAt(i)) == Character.toLowerCase(text.charAt(i + 1));
+        }
+
+        builder.append('#');
+        if (!shorten) {
+            return index;
+        }
+        for (int i = index + 1; i < end; i += 2) {
+            builder.append(text.charAt(i));
+        }
+        return end - 1;
+    }
+
+    /**
+     * Copy number token to builder. If number is zero followed by length unit, unit is removed and zero is copied as single
+     * digit. Returns the index of the last character processed.
+     *
+     * @param text    declaration value,
+     * @param index   index of the number first character,
+     * @param builder target builder.
+     * @return index of the last processed character.
+     */
+    private static int copyNumber(String text, int index, StringBuilder builder) {
+        boolean digits = false;
+        boolean zero = true;
+        int unitStart = index;
+        for (; unitStart < text.length(); ++unitStart) {
+            char c = text.charAt(unitStart);
+            if (Character.isDigit(c)) {
+                digits = true;
+                zero &= c == '0';
+            } else if (c != '.') {
+                break;
+            }
+        }
+        int unitEnd = unitStart;
+        while (unitEnd < text.length() && Character.isLetter(text.charAt(unitEnd))) {
+            ++unitEnd;
+        }
+
+        boolean tokenEnd = unitEnd == text.length() || !isNameChar(text.charAt(unitEnd)) && text.charAt(unitEnd) != '%';
+        if (digits && zero && tokenEnd && LENGTH_UNITS.contains(text.substring(unitStart, unitEnd).toLowerCase())) {
+            builder.append('0');
+        } else {
+            builder.append(text, index, unitEnd);
+        }
+        return unitEnd - 1;
+    }
+
+    private static boolean isNumberStart(char c) {
+        return Character.isDigit(c) || c == '.';
+    }
+
+    private static boolean isTokenStart(StringBuilder builder) {
+        if (builder.length() == 0) {
+            return true;
+        }
+        char c = builder.charAt(builder.length() - 1);
+        return c == ' ' || c == ',' || c == '/' || c == ':';
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '_' || c == '\\' || c > 0x7F;
+    }
+
+    private static String trim(StringBuilder builder) {
+        int start = 0;
+        int end = builder.length();
+        while (start < end && builder.charAt(start) == ' ') {
+            ++start;
+        }
+        while (end > start && builder.charAt(end - 1) == ' ') {
+            --end;
+        }
+        return builder.substring(start, end);
+    }
+
+    // --------------------------------------------------------------------------------------------
+
+    private enum Kind {
+        /**
+         * Style rule with declarations block and possible nested rules.
+         */
+        RULE,
+        /**
+         * Root block and at-rules with style rules content, e.g. <code>@media</code>.
+         */
+        GROUP,
+        /**
+         * Other at-rules with block, e.g. <code>@font-face</code> or <code>@keyframes</code>.
+         */
+        OTHER
+    }
+
+    /**
+     * Opened block. Style rule block collects its content into its own body whereas at-rule block writes content into parent
+     * block sink.
+     */
+    private static class Block {
+        final Kind kind;
+        /**
+         * Compacted selector or at-rule prelude, null for root block.
+         */
+        final String prelude;
+        /**
+         * Style rule declarations and nested rules, null if block is not a style rule.
+         */
+        final StringBuilder body;
+        /**
+         * Builder where block content is written.
+         */
+        final StringBuilder sink;
+        /**
+         * Flag true if last written content is a declaration that need to be terminated by semicolon.
+         */
+        boolean semicolon;
+        /**
+         * Flag true if style rule contains nested rules.
+         */
+        boolean nested;
+
+        Block(Kind kind, String prelude, StringBuilder sink) {
+            this.kind = kind;
+            this.prelude = prelude;
+            this.body = kind == Kind.RULE ? sink : null;
+            this.sink = sink;
+        }
+
+        @Override
+        public String toString() {
+            return prelude + '{' + body + '}';
+        }
+    }
+}
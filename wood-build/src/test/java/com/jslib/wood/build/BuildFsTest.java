@@ -4,6 +4,7 @@ import com.jslib.wood.*;
 import com.jslib.wood.dom.Document;
 import com.jslib.wood.dom.DocumentBuilder;
 import com.jslib.wood.util.FilesUtil;
+import com.jslib.wood.util.StringsUtil;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
@@ -17,7 +18,15 @@ import org.mockito.stubbing.Answer;
 import org.xml.sax.SAXException;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -203,6 +212,26 @@ public class BuildFsTest {
         assertThat(path, equalTo("../img/background-004.jpg"));
     }
 
+    @Test
+    public void GivenMediaFileAndConcurrentThreads_WhenWritePageMedia_ThenFileWrittenOnce() throws Exception {
+        // GIVEN
+        FilePath mediaFile = file("background.jpg");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // WHEN
+        List<Future<String>> paths = new ArrayList<>();
+        for (int i = 0; i < 16; ++i) {
+            paths.add(executor.submit(() -> buildFS.writePageMedia(null, mediaFile)));
+        }
+        executor.shutdown();
+
+        // THEN
+        for (Future<String> path : paths) {
+            assertThat(path.get(), equalTo("../img/background.jpg"));
+        }
+        verify(mediaFile, times(1)).copyTo(any(OutputStream.class));
+    }
+
     @Test(expected = IOException.class)
     public void GivenMediaFile_WhenFailToWritePageMedia_ThenIOException() throws IOException {
         // GIVEN
@@ -351,6 +380,121 @@ public class BuildFsTest {
         // THEN
     }
 
+    @Test
+    public void GivenStyleFiles_WhenWriteStyleBundleTwice_ThenSingleFileInOrder() throws IOException {
+        // GIVEN
+        FilePath sourceDir = mock(FilePath.class);
+        when(sourceDir.filter(any())).thenReturn(Collections.emptyList());
+
+        FilePath varFile = file("var.css");
+        when(varFile.value()).thenReturn("res/theme/var.css");
+        when(varFile.getParentDir()).thenReturn(sourceDir);
+        when(varFile.getReader()).thenReturn(new StringReader("VAR"));
+
+        FilePath pageFile = file("page.css");
+        when(pageFile.value()).thenReturn("res/page/page.css");
+        when(pageFile.getParentDir()).thenReturn(sourceDir);
+        when(pageFile.getReader()).thenReturn(new StringReader("PAGE"));
+
+        List<FilePath> styleFiles = new ArrayList<>();
+        styleFiles.add(varFile);
+        styleFiles.add(pageFile);
+
+        // WHEN
+        String path1 = buildFS.writeStyleBundle(null, styleFiles, referenceHandler);
+        String path2 = buildFS.writeStyleBundle(null, styleFiles, referenceHandler);
+
+        // THEN
+        assertThat(path1, equalTo(path2));
+        assertTrue(path1.matches("\\.\\./css/bundle-[0-9a-f]{8}\\.css"));
+        File bundleFile = buildFile(path1.substring(3));
+        assertThat(new String(Files.readAllBytes(bundleFile.toPath()), StandardCharsets.UTF_8), equalTo("VAR\nPAGE\n"));
+        verify(varFile, times(1)).getReader();
+        verify(pageFile, times(1)).getReader();
+    }
+
+    @Test
+    public void GivenPrecompressAndContentHash_WhenWriteScript_ThenCompressedSiblingCreated() throws IOException {
+        // GIVEN
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            script.append("console.log('precompressed script');\n");
+        }
+        FilePath scriptFile = file("Index.js");
+        when(scriptFile.getReader()).thenReturn(new StringReader(script.toString()));
+        BuildFS buildFS = new TestBuildFS(buildDir, 0, true);
+        buildFS.setPrecompress(true);
+
+        // WHEN
+        String path = buildFS.writeScript(null, scriptFile, referenceHandler);
+
+        // THEN
+        File targetFile = buildFile(path.substring(3));
+        File gzipFile = buildFile(path.substring(3) + ".gz");
+        assertTrue(gzipFile.exists());
+        assertTrue(gzipFile.length() < targetFile.length());
+        assertFalse(buildFile("js/Index.js.tmp.gz").exists());
+        try (InputStream stream = new GZIPInputStream(Files.newInputStream(gzipFile.toPath()))) {
+            assertThat(StringsUtil.load(new InputStreamReader(stream, StandardCharsets.UTF_8)), equalTo(script.toString()));
+        }
+    }
+
+    @Test
+    public void GivenPrecompress_WhenWriteSmallScriptAndMedia_ThenNoCompressedSibling() throws IOException {
+        // GIVEN
+        FilePath scriptFile = file("Index.js");
+        FilePath mediaFile = file("background.jpg");
+        buildFS.setPrecompress(true);
+
+        // WHEN
+        buildFS.writeScript(null, scriptFile, referenceHandler);
+        buildFS.writeStyleMedia(mediaFile);
+
+        // THEN
+        assertTrue(buildFile("js/Index.js").exists());
+        assertFalse(buildFile("js/Index.js.gz").exists());
+        assertTrue(buildFile("img/background.jpg").exists());
+        assertFalse(buildFile("img/background.jpg.gz").exists());
+    }
+
+    @Test
+    public void GivenStaleCompressedSibling_WhenWriteScriptWithoutPrecompress_ThenSiblingDeleted() throws IOException {
+        // GIVEN
+        File gzipFile = buildFile("js/Index.js.gz");
+        assertTrue(gzipFile.getParentFile().mkdirs());
+        assertTrue(gzipFile.createNewFile());
+        FilePath scriptFile = file("Index.js");
+
+        // WHEN
+        buildFS.writeScript(null, scriptFile, referenceHandler);
+
+        // THEN
+        assertTrue(buildFile("js/Index.js").exists());
+        assertFalse(gzipFile.exists());
+    }
+
+    @Test
+    public void GivenScriptFiles_WhenWriteScriptBundleAndCommonScripts_ThenFilesCreatedWithSeparator() throws IOException {
+        // GIVEN
+        FilePath libFile = file("lib.js");
+        when(libFile.value()).thenReturn("lib/lib.js");
+        when(libFile.getReader()).thenReturn(new StringReader("LIB"));
+
+        FilePath pageFile = file("Index.js");
+        when(pageFile.value()).thenReturn("script/Index.js");
+        when(pageFile.getReader()).thenReturn(new StringReader("PAGE"));
+
+        // WHEN
+        String commonPath = buildFS.writeCommonScripts(null, Collections.singletonList(libFile), referenceHandler);
+        String bundlePath = buildFS.writeScriptBundle(null, Collections.singletonList(pageFile), referenceHandler);
+
+        // THEN
+        assertTrue(commonPath.matches("\\.\\./js/common-[0-9a-f]{8}\\.js"));
+        assertTrue(bundlePath.matches("\\.\\./js/bundle-[0-9a-f]{8}\\.js"));
+        assertThat(new String(Files.readAllBytes(buildFile(commonPath.substring(3)).toPath()), StandardCharsets.UTF_8), equalTo("LIB\n;\n"));
+        assertThat(new String(Files.readAllBytes(buildFile(bundlePath.substring(3)).toPath()), StandardCharsets.UTF_8), equalTo("PAGE\n;\n"));
+    }
+
     @Test
     public void GivenScriptFile_WhenWriteScript_ThenFileCreated() throws IOException {
         // GIVEN
@@ -392,6 +536,52 @@ public class BuildFsTest {
         assertThat(path, equalTo("../js/Index-004.js"));
     }
 
+    @Test
+    public void GivenScriptFileAndContentHash_WhenWriteScript_ThenFileCreatedWithContentHash() throws IOException {
+        // GIVEN
+        FilePath scriptFile = file("Index.js");
+        BuildFS buildFS = new TestBuildFS(buildDir, 4, true);
+
+        // WHEN
+        String path = buildFS.writeScript(null, scriptFile, referenceHandler);
+
+        // THEN
+        assertTrue(buildFile("js/Index-65f23e22.js").exists());
+        assertFalse(buildFile("js/Index.js.tmp").exists());
+        assertThat(path, equalTo("../js/Index-65f23e22.js"));
+    }
+
+    @Test
+    public void GivenMediaFileAndContentHash_WhenWriteStyleMediaTwice_ThenSamePath() throws IOException {
+        // GIVEN
+        FilePath mediaFile = file("background.jpg");
+        BuildFS buildFS = new TestBuildFS(buildDir, 0, true);
+
+        // WHEN
+        String path1 = buildFS.writeStyleMedia(mediaFile);
+        String path2 = buildFS.writeStyleMedia(mediaFile);
+
+        // THEN
+        assertTrue(buildFile("img/background-e3b0c442.jpg").exists());
+        assertThat(path1, equalTo("../img/background-e3b0c442.jpg"));
+        assertThat(path2, equalTo(path1));
+        verify(mediaFile, times(1)).copyTo(any(OutputStream.class));
+    }
+
+    @Test
+    public void GivenPageCompoAndContentHash_WhenWritePage_ThenFileCreatedWithBuildNumber() throws IOException, SAXException {
+        // GIVEN
+        Component compo = compo();
+        PageDocument page = new PageDocument(compo);
+        BuildFS buildFS = new TestBuildFS(buildDir, 4, true);
+
+        // WHEN
+        buildFS.writePage(compo, page.getDocument());
+
+        // THEN
+        assertTrue(buildFile("htm/index-004.htm").exists());
+    }
+
     @Test(expected = IOException.class)
     public void GivenScriptFile_WhenFailToWriteScript_ThenIOException() throws IOException {
         // GIVEN
@@ -501,6 +691,10 @@ public class BuildFsTest {
             super(buildDir, buildNumber);
         }
 
+        public TestBuildFS(File buildDir, int buildNumber, boolean contentHash) {
+            super(buildDir, buildNumber, contentHash);
+        }
+
         @Override
         protected File getPageDir(Component compo) {
             return createDirectory("htm");
@@ -0,0 +1,299 @@
+package com.jslib.wood.build;
+
+import com.jslib.wood.CompoPath;
+import com.jslib.wood.FilePath;
+import com.jslib.wood.util.FilesUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BuildGraphTest {
+    private static final String OPTIONS = "build-number=0 minify=true";
+    private static final List<String> LANGUAGES = Collections.singletonList("en");
+
+    @Mock
+    private CompoPath page;
+    @Mock
+    private FilePath layoutFile;
+    @Mock
+    private FilePath styleFile;
+
+    private File projectDir;
+    private File buildDir;
+    private List<File> outputs;
+
+    @Before
+    public void beforeTest() throws IOException {
+        projectDir = new File("target/build-graph");
+        buildDir = new File(projectDir, "build");
+        if (!buildDir.mkdirs()) {
+            throw new IOException("Fail to create build directory " + buildDir);
+        }
+
+        when(page.value()).thenReturn("page");
+        when(layoutFile.value()).thenReturn("page.htm");
+        when(styleFile.value()).thenReturn("page.css");
+        write("page.htm", "<body></body>");
+        write("build/page.htm", "<html></html>");
+        outputs = Collections.singletonList(new File(buildDir, "page.htm"));
+    }
+
+    @After
+    public void afterTest() throws IOException {
+        FilesUtil.removeFilesHierarchy(projectDir);
+    }
+
+    @Test
+    public void GivenUnchangedInputs_WhenIsUpToDate_ThenTrue() throws IOException {
+        // GIVEN
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+
+        // WHEN
+        boolean upToDate = new BuildGraph(projectDir, buildDir, OPTIONS).isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(true));
+    }
+
+    @Test
+    public void GivenChangedInput_WhenIsUpToDate_ThenFalse() throws IOException {
+        // GIVEN
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+        write("page.htm", "<body><h1>Page</h1></body>");
+
+        // WHEN
+        boolean upToDate = new BuildGraph(projectDir, buildDir, OPTIONS).isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(false));
+    }
+
+    @Test
+    public void GivenDeletedOutput_WhenIsUpToDate_ThenFalse() throws IOException {
+        // GIVEN
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+        if (!new File(buildDir, "page.htm").delete()) {
+            throw new IOException("Fail to delete page output");
+        }
+
+        // WHEN
+        boolean upToDate = new BuildGraph(projectDir, buildDir, OPTIONS).isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(false));
+    }
+
+    @Test
+    public void GivenCreatedMissingInput_WhenIsUpToDate_ThenFalse() throws IOException {
+        // GIVEN
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+        write("page.css", "body {}");
+
+        // WHEN
+        boolean upToDate = new BuildGraph(projectDir, buildDir, OPTIONS).isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(false));
+    }
+
+    @Test
+    public void GivenFileAddedToInputDirectory_WhenIsUpToDate_ThenFalse() throws IOException {
+        // GIVEN
+        FilePath dir = mock(FilePath.class);
+        when(dir.value()).thenReturn("res/");
+        write("res/strings.xml", "<string></string>");
+
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, dir), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+        write("res/colors.xml", "<color></color>");
+
+        // WHEN
+        boolean upToDate = new BuildGraph(projectDir, buildDir, OPTIONS).isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(false));
+    }
+
+    @Test
+    public void GivenFileAddedNextToInputDirectory_WhenIsUpToDate_ThenTrue() throws IOException {
+        // GIVEN
+        FilePath dir = mock(FilePath.class);
+        when(dir.value()).thenReturn("res/page/index/");
+        write("res/page/index/index.htm", "<body></body>");
+
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, dir), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+        write("res/page/about/about.htm", "<body></body>");
+
+        // WHEN
+        boolean upToDate = new BuildGraph(projectDir, buildDir, OPTIONS).isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(true));
+    }
+
+    @Test
+    public void GivenCreatedInputDirectory_WhenIsUpToDate_ThenFalse() throws IOException {
+        // GIVEN
+        FilePath dir = mock(FilePath.class);
+        when(dir.value()).thenReturn("asset/media/");
+
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, dir), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+        write("asset/media/icon.png", "icon");
+
+        // WHEN
+        boolean upToDate = new BuildGraph(projectDir, buildDir, OPTIONS).isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(false));
+    }
+
+    @Test
+    public void GivenChangedBuildOptions_WhenIsUpToDate_ThenFalse() throws IOException {
+        // GIVEN
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+
+        // WHEN
+        boolean upToDate = new BuildGraph(projectDir, buildDir, "build-number=1 minify=true").isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(false));
+    }
+
+    @Test
+    public void GivenUnchangedInputs_WhenGetScripts_ThenRecordedScripts() throws IOException {
+        // GIVEN
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Arrays.asList("lib/js-lib.js", "script/index.js"));
+        graph.save(LANGUAGES, Collections.singletonList(page));
+
+        // WHEN
+        List<String> scripts = new BuildGraph(projectDir, buildDir, OPTIONS).getScripts("en", page);
+
+        // THEN
+        assertThat(scripts, equalTo(Arrays.asList("lib/js-lib.js", "script/index.js")));
+    }
+
+    @Test
+    public void GivenChangedInput_WhenGetScripts_ThenNull() throws IOException {
+        // GIVEN
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.singletonList("lib/js-lib.js"));
+        graph.save(LANGUAGES, Collections.singletonList(page));
+        write("page.htm", "<body><h1>Page</h1></body>");
+
+        // WHEN
+        List<String> scripts = new BuildGraph(projectDir, buildDir, OPTIONS).getScripts("en", page);
+
+        // THEN
+        assertThat(scripts, nullValue());
+    }
+
+    @Test
+    public void GivenPageRemovedFromProject_WhenSave_ThenPageDiscarded() throws IOException {
+        // GIVEN
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+
+        // WHEN
+        new BuildGraph(projectDir, buildDir, OPTIONS).save(LANGUAGES, Collections.emptyList());
+
+        // THEN
+        assertThat(new BuildGraph(projectDir, buildDir, OPTIONS).isUpToDate("en", page), equalTo(false));
+    }
+
+    @Test
+    public void GivenOtherLanguage_WhenIsUpToDate_ThenFalse() throws IOException {
+        // GIVEN
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+
+        // WHEN
+        boolean upToDate = new BuildGraph(projectDir, buildDir, OPTIONS).isUpToDate("ro", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(false));
+    }
+
+    @Test
+    public void GivenUnchangedCommonScripts_WhenIsUpToDate_ThenTrue() throws IOException {
+        // GIVEN
+        FilePath script = mock(FilePath.class);
+        when(script.value()).thenReturn("lib/js-lib.js");
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.setCommonScripts("en", Collections.singletonList(script));
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+
+        // WHEN
+        graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.setCommonScripts("en", Collections.singletonList(script));
+        boolean upToDate = graph.isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(true));
+    }
+
+    @Test
+    public void GivenChangedCommonScripts_WhenIsUpToDate_ThenFalse() throws IOException {
+        // GIVEN
+        FilePath script = mock(FilePath.class);
+        when(script.value()).thenReturn("lib/js-lib.js");
+        BuildGraph graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.setCommonScripts("en", Collections.singletonList(script));
+        graph.record("en", page, Arrays.asList(layoutFile, styleFile), outputs, Collections.emptyList());
+        graph.save(LANGUAGES, Collections.singletonList(page));
+
+        // WHEN
+        graph = new BuildGraph(projectDir, buildDir, OPTIONS);
+        graph.setCommonScripts("en", Collections.emptyList());
+        boolean upToDate = graph.isUpToDate("en", page);
+
+        // THEN
+        assertThat(upToDate, equalTo(false));
+    }
+
+    private void write(String fileName, String content) throws IOException {
+        File file = new File(projectDir, fileName);
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            throw new IOException("Fail to create directory " + file.getParentFile());
+        }
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+    }
+}
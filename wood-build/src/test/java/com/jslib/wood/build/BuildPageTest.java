@@ -3,6 +3,8 @@ package com.jslib.wood.build;
 import com.jslib.wood.*;
 import com.jslib.wood.dom.Document;
 import com.jslib.wood.dom.DocumentBuilder;
+import com.jslib.wood.dom.Element;
+import com.jslib.wood.impl.ScriptDescriptor;
 import com.jslib.wood.util.StringsUtil;
 import org.junit.Before;
 import org.junit.Test;
@@ -19,9 +21,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.xml.xpath.XPathExpressionException;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -128,6 +133,106 @@ public class BuildPageTest {
         assertThat(document.stringify(), equalTo(StringsUtil.loadResource("/expected-build-page-test")));
     }
 
+    @Test
+    public void GivenScriptDependencies_WhenBuildPage_ThenEveryScriptIncludedOnceAfterItsDependencies() throws IOException, SAXException {
+        // GIVEN
+        List<IScriptDescriptor> projectScripts = scripts("lib/js-lib.js");
+        when(project.getScriptDescriptors()).thenReturn(projectScripts);
+        List<IScriptDescriptor> pageScripts = scripts("script/Index.js");
+        when(page.getScriptDescriptors()).thenReturn(pageScripts);
+        List<IScriptDescriptor> dependencies = scripts("lib/widget.js", "lib/js-lib.js");
+        when(project.getScriptDependencies(anyString())).thenReturn(Collections.emptyList());
+        when(project.getScriptDependencies("script/Index.js")).thenReturn(dependencies);
+
+        when(buildFS.writeScript(any(Component.class), any(SourceReader.class))).thenReturn("script/js-lib.js", "script/widget.js", "script/Index.js");
+        when(page.getLayout()).thenReturn(DocumentBuilder.getInstance().parseHTML("<body></body>").getRoot());
+
+        // WHEN
+        builder.setLanguage("en");
+        builder.buildPage(page);
+
+        // THEN
+        verify(buildFS, times(3)).writeScript(any(Component.class), any(SourceReader.class));
+
+        ArgumentCaptor<Document> documentArgument = ArgumentCaptor.forClass(Document.class);
+        verify(buildFS).writePage(any(), documentArgument.capture());
+        String html = documentArgument.getValue().stringify();
+        assertThat(html.indexOf("script/js-lib.js") < html.indexOf("script/widget.js"), equalTo(true));
+        assertThat(html.indexOf("script/widget.js") < html.indexOf("script/Index.js"), equalTo(true));
+    }
+
+    @Test
+    public void GivenBundleScripts_WhenBuildPage_ThenLocalScriptsBundledInDependencyOrder() throws IOException, SAXException {
+        // GIVEN
+        when(buildFS.isBundleScripts()).thenReturn(true);
+
+        List<IScriptDescriptor> projectScripts = scripts("lib/js-lib.js", "https://cdn.com/analytics.js");
+        when(project.getScriptDescriptors()).thenReturn(projectScripts);
+        List<IScriptDescriptor> pageScripts = scripts("script/Index.js", "lib/js-lib.js");
+        when(page.getScriptDescriptors()).thenReturn(pageScripts);
+        List<IScriptDescriptor> dependencies = scripts("lib/widget.js");
+        when(project.getScriptDependencies(anyString())).thenReturn(Collections.emptyList());
+        when(project.getScriptDependencies("script/Index.js")).thenReturn(dependencies);
+
+        List<FilePath> libFiles = new ArrayList<>();
+        libFiles.add(project.createFilePath("lib/js-lib.js"));
+        List<FilePath> indexFiles = new ArrayList<>();
+        indexFiles.add(project.createFilePath("lib/widget.js"));
+        indexFiles.add(project.createFilePath("script/Index.js"));
+        when(buildFS.writeScriptBundle(any(Component.class), eq(libFiles), any(IReferenceHandler.class))).thenReturn("script/lib-bundle.js");
+        when(buildFS.writeScriptBundle(any(Component.class), eq(indexFiles), any(IReferenceHandler.class))).thenReturn("script/index-bundle.js");
+        when(page.getLayout()).thenReturn(DocumentBuilder.getInstance().parseHTML("<body></body>").getRoot());
+
+        // WHEN
+        builder.setLanguage("en");
+        builder.buildPage(page);
+
+        // THEN
+        verify(buildFS, never()).writeScript(any(Component.class), any(SourceReader.class));
+
+        ArgumentCaptor<Document> documentArgument = ArgumentCaptor.forClass(Document.class);
+        verify(buildFS).writePage(any(), documentArgument.capture());
+        String html = documentArgument.getValue().stringify();
+        assertThat(html.indexOf("script/lib-bundle.js") < html.indexOf("https://cdn.com/analytics.js"), equalTo(true));
+        assertThat(html.indexOf("https://cdn.com/analytics.js") < html.indexOf("script/index-bundle.js"), equalTo(true));
+    }
+
+    @Test
+    public void GivenDescriptorScriptsWithDefaultDefer_WhenBuildPage_ThenBundlesDeferredAndSplitAtThirdPartyScript() throws IOException, SAXException, XPathExpressionException {
+        // GIVEN
+        when(buildFS.isBundleScripts()).thenReturn(true);
+
+        List<IScriptDescriptor> projectScripts = descriptors("lib/a.js", "https://cdn.com/x.js");
+        when(project.getScriptDescriptors()).thenReturn(projectScripts);
+        List<IScriptDescriptor> pageScripts = descriptors("script/b.js");
+        when(page.getScriptDescriptors()).thenReturn(pageScripts);
+        when(project.getScriptDependencies(anyString())).thenReturn(Collections.emptyList());
+        when(project.getScriptDependencies("script/b.js")).thenReturn(Collections.singletonList(projectScripts.get(1)));
+
+        List<FilePath> aFiles = Collections.singletonList(project.createFilePath("lib/a.js"));
+        List<FilePath> bFiles = Collections.singletonList(project.createFilePath("script/b.js"));
+        when(buildFS.writeScriptBundle(any(Component.class), eq(aFiles), any(IReferenceHandler.class))).thenReturn("script/a-bundle.js");
+        when(buildFS.writeScriptBundle(any(Component.class), eq(bFiles), any(IReferenceHandler.class))).thenReturn("script/b-bundle.js");
+        when(page.getLayout()).thenReturn(DocumentBuilder.getInstance().parseHTML("<body></body>").getRoot());
+
+        // WHEN
+        builder.setLanguage("en");
+        builder.buildPage(page);
+
+        // THEN
+        verify(buildFS, never()).writeScript(any(Component.class), any(SourceReader.class));
+
+        ArgumentCaptor<Document> documentArgument = ArgumentCaptor.forClass(Document.class);
+        verify(buildFS).writePage(any(), documentArgument.capture());
+        Document document = documentArgument.getValue();
+        assertThat(document.getByXPath("//SCRIPT[@src='script/a-bundle.js']").getAttr("defer"), equalTo("true"));
+        assertThat(document.getByXPath("//SCRIPT[@src='script/b-bundle.js']").getAttr("defer"), equalTo("true"));
+
+        String html = document.stringify();
+        assertThat(html.indexOf("script/a-bundle.js") < html.indexOf("https://cdn.com/x.js"), equalTo(true));
+        assertThat(html.indexOf("https://cdn.com/x.js") < html.indexOf("script/b-bundle.js"), equalTo(true));
+    }
+
     // --------------------------------------------------------------------------------------------
 
     private List<IScriptDescriptor> scripts(String... sources) {
@@ -147,6 +252,18 @@ public class BuildPageTest {
         return scripts;
     }
 
+    private List<IScriptDescriptor> descriptors(String... sources) throws SAXException {
+        List<IScriptDescriptor> scripts = new ArrayList<>();
+        for (String source : sources) {
+            Element element = DocumentBuilder.getInstance().parseXML("<script src='" + source + "'></script>").getRoot();
+            scripts.add(ScriptDescriptor.create(element));
+            if (FilePath.accept(source)) {
+                when(project.createFilePath(source)).thenReturn(Mockito.mock(FilePath.class));
+            }
+        }
+        return scripts;
+    }
+
     private static List<IMetaDescriptor> metas(String property, String content) {
         IMetaDescriptor meta = Mockito.mock(IMetaDescriptor.class);
         when(meta.getProperty()).thenReturn(property);
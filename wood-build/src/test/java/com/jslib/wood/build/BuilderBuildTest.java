@@ -15,8 +15,11 @@ import org.mockito.junit.MockitoJUnitRunner;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -44,6 +47,7 @@ public class BuilderBuildTest {
         when(project.getPwaWorker()).thenReturn(mock(FilePath.class));
         when(project.getFavicon()).thenReturn(mock(FilePath.class));
         when(project.getThemeStyles()).thenReturn(mock(ThemeStyles.class));
+        lenient().when(project.getThemeDir()).thenReturn(mock(FilePath.class));
 
         FilePath filePath = mock(FilePath.class);
         when(project.createFilePath(any(String.class))).thenReturn(filePath);
@@ -155,6 +159,131 @@ public class BuilderBuildTest {
         verify(buildFS, times(1)).setLanguage("ro");
     }
 
+    @Test
+    public void GivenMultiplePagesAndThreadsCount_WhenBuild_ThenAllPagesWritten() throws IOException {
+        // GIVEN
+        String html = "<body><h1>Test Page</h1></body>";
+        // every page scan needs its own reader
+        when(layoutPath.getReader()).thenAnswer(invocation -> new StringReader(html));
+
+        List<CompoPath> pages = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            CompoPath compoPath = mock(CompoPath.class);
+            when(compoPath.getLayoutPath()).thenReturn(layoutPath);
+            pages.add(compoPath);
+        }
+        when(project.getPages()).thenReturn(pages);
+        builder = new Builder(project, buildFS, 4);
+
+        // WHEN
+        builder.build();
+
+        // THEN
+        ArgumentCaptor<Document> documentArgument = ArgumentCaptor.forClass(Document.class);
+        verify(buildFS, times(8)).writePage(any(), documentArgument.capture());
+        for (Document document : documentArgument.getAllValues()) {
+            assertThat(document.stringify(), equalTo(StringsUtil.loadResource("/expected-builder-page-test")));
+        }
+    }
+
+    @Test
+    public void GivenUpToDatePage_WhenIncrementalBuild_ThenPageSkipped() throws IOException {
+        // GIVEN
+        BuildGraph graph = mock(BuildGraph.class);
+        when(graph.isUpToDate(eq("en"), any())).thenReturn(true);
+        builder = new Builder(project, buildFS, 1, graph);
+
+        // WHEN
+        builder.build();
+
+        // THEN
+        verify(buildFS, times(0)).writePage(any(), any());
+        verify(graph, times(0)).record(any(), any(), any(), any(), any());
+        verify(graph, times(1)).save(any(), any());
+    }
+
+    @Test
+    public void GivenUnchangedPageAndBundleScripts_WhenIncrementalBuild_ThenPageNotScannedForCommonScripts() throws IOException {
+        // GIVEN
+        when(buildFS.isBundleScripts()).thenReturn(true);
+        BuildGraph graph = mock(BuildGraph.class);
+        when(graph.getScripts(eq("en"), any())).thenReturn(Collections.singletonList("lib/js-lib.js"));
+        when(graph.isUpToDate(eq("en"), any())).thenReturn(true);
+        builder = new Builder(project, buildFS, 1, graph);
+
+        // WHEN
+        builder.build();
+
+        // THEN
+        verify(layoutPath, times(0)).getReader();
+        verify(graph, times(1)).setCommonScripts(eq("en"), eq(Collections.emptySet()));
+    }
+
+    @Test
+    public void GivenChangedPage_WhenIncrementalBuild_ThenPageBuiltAndRecorded() throws IOException {
+        // GIVEN
+        BuildGraph graph = mock(BuildGraph.class);
+        when(buildFS.writePage(any(), any())).thenReturn(new File("build/page.htm"));
+        builder = new Builder(project, buildFS, 1, graph);
+
+        // WHEN
+        builder.build();
+
+        // THEN
+        verify(buildFS, times(1)).writePage(any(), any());
+        verify(graph, times(1)).record(eq("en"), any(), any(), any(), any());
+        verify(graph, times(1)).save(any(), any());
+    }
+
+    @Test
+    public void GivenStyleSharedByPages_WhenIncrementalBuild_ThenStyleReferencesRecordedForEveryPage() throws IOException {
+        // GIVEN
+        String html = "<body><h1>Test Page</h1></body>";
+        when(layoutPath.getReader()).thenAnswer(invocation -> new StringReader(html));
+        List<CompoPath> pages = new ArrayList<>();
+        for (int i = 0; i < 2; ++i) {
+            CompoPath compoPath = mock(CompoPath.class);
+            when(compoPath.getLayoutPath()).thenReturn(layoutPath);
+            pages.add(compoPath);
+        }
+        when(project.getPages()).thenReturn(pages);
+
+        ThemeStyles themeStyles = mock(ThemeStyles.class);
+        when(project.getThemeStyles()).thenReturn(themeStyles);
+        FilePath styleFile = mock(FilePath.class);
+        when(styleFile.getType()).thenReturn(FileType.STYLE);
+        when(themeStyles.getStyles()).thenReturn(Collections.singletonList(styleFile));
+
+        Reference reference = new Reference(Reference.Type.IMAGE, "icon");
+        FilePath assetDir = mock(FilePath.class);
+        when(project.getAssetDir()).thenReturn(assetDir);
+        FilePath mediaFile = mock(FilePath.class);
+        when(project.getResourceFile("en", reference, styleFile)).thenReturn(mediaFile);
+        when(buildFS.writeStyleMedia(mediaFile)).thenReturn("../media/icon.png");
+        // build file system processes shared style and its references only once, for the first page
+        when(buildFS.writeStyle(any(), eq(styleFile), any())).thenAnswer(invocation -> {
+            ((IReferenceHandler) invocation.getArgument(2)).onResourceReference(reference, styleFile);
+            return "style/page.css";
+        }).thenReturn("style/page.css");
+
+        BuildGraph graph = mock(BuildGraph.class);
+        when(buildFS.writePage(any(), any())).thenReturn(new File("build/page.htm"));
+        builder = new Builder(project, buildFS, 1, graph);
+
+        // WHEN
+        builder.build();
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<FilePath>> inputsArgument = ArgumentCaptor.forClass(Collection.class);
+        verify(graph, times(2)).record(eq("en"), any(), inputsArgument.capture(), any(), any());
+        for (Collection<FilePath> inputs : inputsArgument.getAllValues()) {
+            assertThat(inputs.contains(styleFile), equalTo(true));
+            assertThat(inputs.contains(mediaFile), equalTo(true));
+            assertThat(inputs.contains(assetDir), equalTo(true));
+        }
+    }
+
     @Test
     public void GivenPwaWorkerExists_WhenBuild_ThenWritePwaWorkerOnBuildFilesystem() throws IOException {
         // GIVEN
@@ -46,6 +46,75 @@ public class BuilderMavenApiTest {
         assertThat(config.getBuildNumber(), equalTo(buildNumber));
     }
 
+    @Test
+    public void GivenThreadsCount_WhenSetThreadsCount_ThenGetIt() {
+        // GIVEN
+        BuilderConfig config = new BuilderConfig();
+        int threadsCount = 4;
+
+        // WHEN
+        config.setThreadsCount(threadsCount);
+
+        // THEN
+        assertThat(config.getThreadsCount(), equalTo(threadsCount));
+    }
+
+    @Test
+    public void GivenIncremental_WhenSetIncremental_ThenGetIt() {
+        // GIVEN
+        BuilderConfig config = new BuilderConfig();
+
+        // WHEN
+        config.setIncremental(true);
+
+        // THEN
+        assertThat(config.isIncremental(), equalTo(true));
+    }
+
+    @Test
+    public void GivenMinify_WhenSetMinify_ThenGetIt() {
+        // GIVEN
+        BuilderConfig config = new BuilderConfig();
+
+        // WHEN
+        config.setMinify(true);
+        config.setOmitOptionalQuotes(true);
+        config.setMinifyStyles(true);
+        config.setMinifyScripts(true);
+
+        // THEN
+        assertThat(config.isMinify(), equalTo(true));
+        assertThat(config.isOmitOptionalQuotes(), equalTo(true));
+        assertThat(config.isMinifyStyles(), equalTo(true));
+        assertThat(config.isMinifyScripts(), equalTo(true));
+    }
+
+    @Test
+    public void GivenBundling_WhenSetBundling_ThenGetIt() {
+        // GIVEN
+        BuilderConfig config = new BuilderConfig();
+
+        // WHEN
+        config.setBundleStyles(true);
+        config.setBundleScripts(true);
+
+        // THEN
+        assertThat(config.isBundleStyles(), equalTo(true));
+        assertThat(config.isBundleScripts(), equalTo(true));
+    }
+
+    @Test
+    public void GivenPrecompress_WhenSetPrecompress_ThenGetIt() {
+        // GIVEN
+        BuilderConfig config = new BuilderConfig();
+
+        // WHEN
+        config.setPrecompress(true);
+
+        // THEN
+        assertThat(config.isPrecompress(), equalTo(true));
+    }
+
     @Test
     public void GivenPluginSimulation_WhenCreateBuilder_ThenConfigGettersInvoked() throws IOException {
         // GIVEN
@@ -16,6 +16,8 @@ import java.io.IOException;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -120,6 +122,27 @@ public class BuilderReferenceHandlerTest {
         assertThat(value, equalTo("../media/icon.png"));
     }
 
+    @Test
+    public void GivenStyleMediaReferencedTwice_WhenOnResourceReference_ThenResolveOnce() throws IOException {
+        // GIVEN
+        Reference reference = new Reference(Reference.Type.IMAGE, "icon");
+        FilePath source = mock(FilePath.class);
+        when(source.getType()).thenReturn(FileType.STYLE);
+
+        FilePath mediaFile = mock(FilePath.class);
+        when(project.getResourceFile("en", reference, source)).thenReturn(mediaFile);
+        when(buildFS.writeStyleMedia(mediaFile)).thenReturn("../media/icon.png");
+
+        // WHEN
+        builder.onResourceReference(reference, source);
+        String value = builder.onResourceReference(new Reference(Reference.Type.IMAGE, "icon"), source);
+
+        // THEN
+        assertThat(value, equalTo("../media/icon.png"));
+        verify(project, times(1)).getResourceFile("en", reference, source);
+        verify(buildFS, times(1)).writeStyleMedia(mediaFile);
+    }
+
     @Test
     public void GivenBadSourceForMedia_WhenOnResourceReference_ThenNullPath() throws IOException {
         // GIVEN
@@ -9,9 +9,14 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -43,12 +48,14 @@ public class FilePathVisitorTest {
         Variants variants = mock(Variants.class);
         when(file.getVariants()).thenReturn(variants);
         when(file.getReader()).thenReturn(new StringReader("<string></string>"));
+        Map<FilePath, Variables> variables = new HashMap<>();
+        visitor = new BuilderProject.FilePathVisitor(variables, pages);
 
         // WHEN
         visitor.visitFile(project, file);
 
         // THEN
-        verify(variables, times(1)).put(any(), any());
+        assertThat(variables.get(parentDir), notNullValue());
     }
 
     @Test
@@ -64,6 +71,25 @@ public class FilePathVisitorTest {
         verify(pages, times(1)).add(any());
     }
 
+    @Test
+    public void GivenPages_WhenEndScan_ThenPagesSortedByPath() {
+        // GIVEN
+        CompoPath about = mock(CompoPath.class);
+        when(about.value()).thenReturn("res/page/about/");
+        CompoPath index = mock(CompoPath.class);
+        when(index.value()).thenReturn("res/page/index/");
+        List<CompoPath> pages = new ArrayList<>();
+        pages.add(index);
+        pages.add(about);
+        visitor = new BuilderProject.FilePathVisitor(variables, pages);
+
+        // WHEN
+        visitor.endScan(project);
+
+        // THEN
+        assertThat(pages, contains(about, index));
+    }
+
     @Test
     public void GivenFileOnProjectRoot_WhenVisitFile_ThenNoUpdates() throws Exception {
         // GIVEN
@@ -74,7 +100,7 @@ public class FilePathVisitorTest {
 
         // THEN
         verify(pages, times(0)).add(any());
-        verify(variables, times(0)).put(any(), any());
+        verify(variables, times(0)).computeIfAbsent(any(), any());
     }
 
     @Test
@@ -86,6 +112,6 @@ public class FilePathVisitorTest {
 
         // THEN
         verify(pages, times(0)).add(any());
-        verify(variables, times(0)).put(any(), any());
+        verify(variables, times(0)).computeIfAbsent(any(), any());
     }
 }
@@ -0,0 +1,88 @@
+package com.jslib.wood.build;
+
+import com.jslib.wood.util.StringsUtil;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ScriptMinifierTest {
+    @Test
+    public void GivenScript_WhenMinify_ThenCommentsAndWhiteSpacesRemoved() throws IOException {
+        // GIVEN
+        String script = "/*! license notice */\r\n" + //
+                "// line comment\r\n" + //
+                "function sum ( a, b ) {\r\n" + //
+                "    /* block comment */\r\n" + //
+                "    var result = a + +b;\r\n" + //
+                "    return result\r\n" + //
+                "}\r\n" + //
+                "var s = \"keep  // this\" + ' and /* this */';\r\n";
+
+        // WHEN
+        String js = minify(script);
+
+        // THEN
+        assertThat(js, equalTo("/*! license notice */" + //
+                "function sum(a,b){var result=a+ +b;return result}\n" + //
+                "var s=\"keep  // this\"+' and /* this */';"));
+    }
+
+    @Test
+    public void GivenLineBreaks_WhenMinify_ThenAutomaticSemicolonInsertionPreserved() throws IOException {
+        // GIVEN
+        String script = "var a = b\r\n" + //
+                "++c\r\n" + //
+                "function f() {\r\n" + //
+                "    return\r\n" + //
+                "        42;\r\n" + //
+                "}\r\n";
+
+        // WHEN
+        String js = minify(script);
+
+        // THEN
+        assertThat(js, equalTo("var a=b\n++c\nfunction f(){return\n42;}"));
+    }
+
+    @Test
+    public void GivenRegexAndTemplateLiterals_WhenMinify_ThenLiteralsPreserved() throws IOException {
+        // GIVEN
+        String script = "var re = /[/]  \\/\\/ not comment/g;\r\n" + //
+                "var x = a / b / c;\r\n" + //
+                "var t = `sum  ${ a + `${ b }` /* } */ }  done`;\r\n" + //
+                "if (typeof /x/ === 'object') {}\r\n";
+
+        // WHEN
+        String js = minify(script);
+
+        // THEN
+        assertThat(js, equalTo("var re=/[/]  \\/\\/ not comment/g;" + //
+                "var x=a/b/c;" + //
+                "var t=`sum  ${ a + `${ b }` /* } */ }  done`;" + //
+                "if(typeof/x/==='object'){}"));
+    }
+
+    @Test
+    public void GivenRegexAfterStatementHead_WhenMinify_ThenRegexPreserved() throws IOException {
+        // GIVEN
+        String script = "if (x) /a  b/.test(s);\r\n" + //
+                "while (f(y)) /[ ]/.exec(s);\r\n" + //
+                "var z = (a) / (b) / c;\r\n";
+
+        // WHEN
+        String js = minify(script);
+
+        // THEN
+        assertThat(js, equalTo("if(x)/a  b/.test(s);" + //
+                "while(f(y))/[ ]/.exec(s);" + //
+                "var z=(a)/(b)/c;"));
+    }
+
+    private static String minify(String script) throws IOException {
+        return StringsUtil.load(new ScriptMinifier(new StringReader(script)));
+    }
+}
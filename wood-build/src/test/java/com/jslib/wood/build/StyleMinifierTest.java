@@ -0,0 +1,87 @@
+package com.jslib.wood.build;
+
+import com.jslib.wood.util.StringsUtil;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class StyleMinifierTest {
+    @Test
+    public void GivenStyle_WhenMinify_ThenCommentsAndWhiteSpacesRemoved() throws IOException {
+        // GIVEN
+        String style = "/* page styles */\r\n" + //
+                "body > DIV.page ,\r\n" + //
+                "  a:hover  {\r\n" + //
+                "    margin : 0px 0 -1px 0.0em ; /* inline comment */\r\n" + //
+                "    background : url( \"media/bg image.png\" ) no-repeat;\r\n" + //
+                "    width: calc( 100% - 0px );\r\n" + //
+                "    color : #AABBCC !important;\r\n" + //
+                "    border-color: #aabbcd;\r\n" + //
+                "    --gap : 0px  1px ;\r\n" + //
+                "    transition: opacity 0s;\r\n" + //
+                "}\r\n" + //
+                "p {}\r\n";
+
+        // WHEN
+        String css = minify(style);
+
+        // THEN
+        assertThat(css, equalTo("body>DIV.page,a:hover{margin:0 0 -1px 0;background:url(\"media/bg image.png\") no-repeat;" + //
+                "width:calc(100% - 0px);color:#ABC!important;border-color:#aabbcd;--gap:0px 1px;transition:opacity 0s}"));
+    }
+
+    @Test
+    public void GivenStyleVariants_WhenMinify_ThenMediaSectionsPreserved() throws IOException {
+        // GIVEN
+        String style = "body {\r\n    width: 1000px;\r\n}\r\n" + //
+                "\r\n@media screen and ( max-width : 1200px ) {\r\nbody {\r\n    width: 600px;\r\n}\r\n}\r\n" + //
+                "@font-face { font-family: 'My Font'; src: url(font.woff); }\r\n" + //
+                "@keyframes fade { from { opacity: 0 } to { opacity: 1 } }\r\n";
+
+        // WHEN
+        String css = minify(style);
+
+        // THEN
+        assertThat(css, equalTo("body{width:1000px}@media screen and (max-width:1200px){body{width:600px}}" + //
+                "@font-face{font-family:'My Font';src:url(font.woff)}@keyframes fade{from{opacity:0}to{opacity:1}}"));
+    }
+
+    @Test
+    public void GivenAdjacentRulesWithSameSelector_WhenMinify_ThenRulesMerged() throws IOException {
+        // GIVEN
+        String style = "a { color: red; }\r\n" + //
+                "a { color: red; }\r\n" + //
+                "a { margin: 0; }\r\n" + //
+                "b { color: blue; }\r\n" + //
+                "a { color: green; }\r\n" + //
+                "@media print { b { color: black } b { margin: 0 } }\r\n" + //
+                "@import url(data:image/png;base64,AAAA);";
+
+        // WHEN
+        String css = minify(style);
+
+        // THEN
+        assertThat(css, equalTo("a{color:red;margin:0}b{color:blue}a{color:green}@media print{b{color:black;margin:0}}" + //
+                "@import url(data:image/png;base64,AAAA);"));
+    }
+
+    @Test
+    public void GivenFlexShorthand_WhenMinify_ThenZeroLengthUnitPreserved() throws IOException {
+        // GIVEN
+        String style = "div { flex: 0px; -webkit-flex: 1 0px; flex-basis: 0px; margin: 0px; }";
+
+        // WHEN
+        String css = minify(style);
+
+        // THEN
+        assertThat(css, equalTo("div{flex:0px;-webkit-flex:1 0px;flex-basis:0;margin:0}"));
+    }
+
+    private static String minify(String style) throws IOException {
+        return StringsUtil.load(new StyleMinifier(new StringReader(style)));
+    }
+}
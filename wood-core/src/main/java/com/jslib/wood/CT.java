@@ -66,6 +66,11 @@ public final class CT {
 	// ------------------------------------------------------
 	// Dynamic generated files
 
+	/**
+	 * Hidden directory, next to project build directory, where binary snapshots of variables definition files are stored.
+	 */
+	public static final String VARIABLES_SNAPSHOT_DIR = ".variables";
+
 	/** File name for styles variables. */
 	public static final String VARIABLES_CSS = "var.css";
 
@@ -61,6 +61,12 @@ public class Component {
 	/** External defined resource references handler in charge with resources processing. */
 	private final IReferenceHandler referenceHandler;
 
+	/** Optional cache for parsed layout documents, shared by components from the same build. Null if not used. */
+	private final LayoutsCache layoutsCache;
+
+	/** Optional cache for templates and widgets descriptors, shared by components from the same build. Null if not used. */
+	private final DescriptorsCache descriptorsCache;
+
 	/**
 	 * The list of style files used by this component - consolidated from all included components, in the proper oder for page
 	 * document inclusion.
@@ -72,11 +78,11 @@ public class Component {
 	 * <p>
 	 * This field is optional with default to empty list.
 	 * <p>
-	 * Implementation note: use list instead of linked hash set to simplify the interface of this class, even if this means to
-	 * add some extra internal checks, when insert values. The same is true for {@link #linkDescriptors} and
-	 * {@link #scriptDescriptors}.
+	 * Implementation note: use linked hash set to keep insertion order and to avoid linear search for duplicates when merge
+	 * descriptors from templates and widgets; getters expose it as list though. The same is true for {@link #linkDescriptors}
+	 * and {@link #scriptDescriptors}.
 	 */
-	private final List<IMetaDescriptor> metaDescriptors = new ArrayList<>();
+	private final Set<IMetaDescriptor> metaDescriptors = new LinkedHashSet<>();
 
 	/**
 	 * Descriptors for page link elements, declared on this component descriptor. Link descriptors order is preserved. Link
@@ -84,17 +90,24 @@ public class Component {
 	 * <p>
 	 * This field is optional with default to empty list.
 	 */
-	private final List<ILinkDescriptor> linkDescriptors = new ArrayList<>();
+	private final Set<ILinkDescriptor> linkDescriptors = new LinkedHashSet<>();
 
 	/**
 	 * Descriptors for page script elements, declared on this component descriptor. Script descriptors order is preserved.
 	 * <p>
 	 * This field is optional with default to empty list.
 	 */
-	private final List<IScriptDescriptor> scriptDescriptors = new ArrayList<>();
+	private final Set<IScriptDescriptor> scriptDescriptors = new LinkedHashSet<>();
 
 	private final ComponentDescriptor descriptor;
 
+	/**
+	 * Source files touched by this component scanning: layouts, descriptors, style and script files from templates hierarchy
+	 * and widgets tree. Related style and script files are probed by convention and are included even if missing, so that a
+	 * newly created file can be detected as a change. This set is used by incremental build.
+	 */
+	private final Set<FilePath> sourceFiles = new LinkedHashSet<>();
+
 	/**
 	 * Consolidated layout for this component instance. It contains layouts from templates hierarchy and widgets tree. Also,
 	 * references are resolved, that is, references replaced with variables values and media URL paths.
@@ -124,6 +137,23 @@ public class Component {
 	 * @param referenceHandler resource references handler,
 	 */
 	public Component(FilePath layoutPath, IReferenceHandler referenceHandler) {
+		this(layoutPath, referenceHandler, null, null);
+	}
+
+	/**
+	 * Create component instance using shared caches for parsed layout documents and descriptors. Caches are used by build
+	 * process to avoid parsing the same templates and widgets for every page.
+	 * 
+	 * @param compoPath component path,
+	 * @param referenceHandler resource references handler,
+	 * @param layoutsCache shared layouts cache, null if not used,
+	 * @param descriptorsCache shared descriptors cache, null if not used.
+	 */
+	public Component(CompoPath compoPath, IReferenceHandler referenceHandler, LayoutsCache layoutsCache, DescriptorsCache descriptorsCache) {
+		this(compoPath.getLayoutPath(), referenceHandler, layoutsCache, descriptorsCache);
+	}
+
+	private Component(FilePath layoutPath, IReferenceHandler referenceHandler, LayoutsCache layoutsCache, DescriptorsCache descriptorsCache) {
 		if (!layoutPath.exists()) {
 			throw new WoodException("Missing component layout %s", layoutPath);
 		}
@@ -133,9 +163,12 @@ public class Component {
 		this.operators = this.project.getOperatorsHandler();
 		this.layoutParameters = new LayoutParameters();
 		this.referenceHandler = referenceHandler;
+		this.layoutsCache = layoutsCache;
+		this.descriptorsCache = descriptorsCache;
 
 		FilePath descriptorFile = layoutPath.cloneTo(FileType.XML);
 		this.descriptor = new ComponentDescriptor(descriptorFile, referenceHandler);
+		this.sourceFiles.add(descriptorFile);
 
 		this.baseLayoutPath = layoutPath;
 		this.name = layoutPath.getBasename();
@@ -208,14 +241,15 @@ public class Component {
 		// 2. this method logic scans recursively for and insert widget components - for short widgets
 
 		// if the case, returned component layout has templates elements with base component content inserted
-		Document layout = loadLayoutDocument(layoutPath, guardCount);
+		OperatorsIndex layoutIndex = loadLayoutDocument(layoutPath, guardCount);
+		Document layout = layoutIndex.getDocument();
 
 		// scan for widget components referenced by this base component
 		// an external widget component is identified by widget path, which is a standard project file path
 
 		// widget path element is part of base component and contains the widget path
 		// it acts as insertion point; is where widget layout is inserted
-		for (Element compoPathElement : getCompoPathElements(layout)) {
+		for (Element compoPathElement : getCompoPathElements(layoutIndex)) {
 			String path = operators.getOperand(compoPathElement, Operator.COMPO);
 			if(path.endsWith("/")) {
 				path = path.substring(0, path.length() - 1);
@@ -269,6 +303,10 @@ public class Component {
 	 * <p>
 	 * Document file is loaded using {@link SourceReader} decorator. Source reader detects resource references and invoke
 	 * {@link #referenceHandler} that handle variables replacement and media files processing.
+	 * If {@link #layoutsCache} is configured, layout document is retrieved from cache, that takes care to parse it only once.
+	 * <p>
+	 * Loaded layout document tree is walked once to collect elements with operators, see {@link OperatorsIndex}; returned index
+	 * is reused by caller for its own operators. If templates are consolidated, returned document is indexed again.
 	 * <p>
 	 * This method insert the related style file into styles list. By convention layout and style files have
 	 * the same name; anyway, style file is not mandatory. Also takes care to insert style file path in the proper order,
@@ -276,17 +314,22 @@ public class Component {
 	 * 
 	 * @param layoutPath component layout file path,
 	 * @param guardCounter nesting level guard counter for protection against circular dependencies.
-	 * @return layout document.
+	 * @return operators index for layout document.
 	 */
-	private Document loadLayoutDocument(FilePath layoutPath, int guardCounter) {
+	private OperatorsIndex loadLayoutDocument(FilePath layoutPath, int guardCounter) {
 		if (guardCounter++ == MAX_NESTING_LEVELS) {
 			throw new WoodException("Circular templates references suspicion. Too many nesting levels on |%s|. Please check 'template' attributes!", layoutPath);
 		}
 
-		Reader reader = new SourceReader(layoutPath, layoutParameters, referenceHandler);
+		sourceFiles.add(layoutPath);
 		Document layoutDoc;
 		try {
-			layoutDoc = project.hasNamespace() ? documentBuilder.loadXMLNS(reader) : documentBuilder.loadXML(reader);
+			if (layoutsCache != null) {
+				layoutDoc = layoutsCache.load(layoutPath, layoutParameters, resourcesGroup, referenceHandler);
+			} else {
+				Reader reader = new SourceReader(layoutPath, layoutParameters, referenceHandler);
+				layoutDoc = project.hasNamespace() ? documentBuilder.loadXMLNS(reader) : documentBuilder.loadXML(reader);
+			}
 		} catch (IOException | SAXException e) {
 			throw new WoodException("Invalid layout document |%s|. Root cause: %s", layoutPath, e);
 		}
@@ -294,40 +337,41 @@ public class Component {
 		// component layout may have related style file; collect if into this base component used styles list
 		collectRelatedStyle(layoutPath);
 
+		// single walk of document tree collects all operators; index is used till document is changed
+		OperatorsIndex layoutIndex = operators.indexOperators(layoutDoc);
 		if (!layoutDoc.getRoot().hasChildren()) {
-			return layoutDoc;
+			return layoutIndex;
 		}
 
 		// use 'template' operator to scan for content fragments; 'template' operator is mandatory on content fragment root
-		EList contentFragments = operators.findByOperator(layoutDoc, Operator.TEMPLATE);
-        contentFragments.size();// throw new IllegalStateException();
-        if (contentFragments.isEmpty()) {
+		List<Element> contentFragments = layoutIndex.find(Operator.TEMPLATE);
+		if (contentFragments.isEmpty()) {
 			// if there are no content fragments, currently loaded layout does not inherit from a template component
-			return layoutDoc;
+			return layoutIndex;
 		}
 
 		// if content fragment is the document root we have a stand-alone content component
 		// it is not allowed to have multiple content fragments in a stand-alone content component
-		ContentFragment contentFragment = new ContentFragment(operators, contentFragments.item(0));
+		ContentFragment contentFragment = new ContentFragment(operators, layoutIndex, contentFragments.get(0));
 		if (contentFragment.hasParent()) {
 			for (int i = 1; i < contentFragments.size(); ++i) {
-				Element inlineContentFragment = contentFragments.item(i);
-				Document templateDoc = consolidateTemplate(layoutPath, new ContentFragment(operators, inlineContentFragment), guardCounter);
+				Element inlineContentFragment = contentFragments.get(i);
+				Document templateDoc = consolidateTemplate(layoutPath, new ContentFragment(operators, layoutIndex, inlineContentFragment), guardCounter);
 				inlineContentFragment.replace(templateDoc.getRoot());
 			}
 
 			// return consolidated template document
-			return consolidateTemplate(layoutPath, contentFragment, guardCounter);
+			return operators.indexOperators(consolidateTemplate(layoutPath, contentFragment, guardCounter));
 		}
 
 		// at this point we have one or many inline content fragments
 		// consolidate template for content fragment then replace it with consolidated document root
 		for (Element inlineContentFragment : contentFragments) {
-			Document templateDoc = consolidateTemplate(layoutPath, new ContentFragment(operators, inlineContentFragment), guardCounter);
+			Document templateDoc = consolidateTemplate(layoutPath, new ContentFragment(operators, layoutIndex, inlineContentFragment), guardCounter);
 			inlineContentFragment.replace(templateDoc.getRoot());
 		}
 		// return component layout document with inline content fragments replaces by consolidated template documents
-		return layoutDoc;
+		return operators.indexOperators(layoutDoc);
 	}
 
 	/**
@@ -358,8 +402,9 @@ public class Component {
 				layoutParameters.reload(operators.getOperand(contentElement, Operator.PARAM));
 				operators.removeOperator(contentElement, Operator.PARAM);
 
-				templateDoc = loadLayoutDocument(templateLayoutPath, guardCounter);
-				editables = new Editables(operators, templateDoc);
+				OperatorsIndex templateIndex = loadLayoutDocument(templateLayoutPath, guardCounter);
+				templateDoc = templateIndex.getDocument();
+				editables = new Editables(templateIndex);
 			}
 
 			String editableName = contentFragment.getEditableName(contentElement);
@@ -473,7 +518,7 @@ public class Component {
 	 * @see #metaDescriptors
 	 */
 	public List<IMetaDescriptor> getMetaDescriptors() {
-		return Collections.unmodifiableList(metaDescriptors);
+		return Collections.unmodifiableList(new ArrayList<>(metaDescriptors));
 	}
 
 	/**
@@ -485,7 +530,7 @@ public class Component {
 	 * @see #linkDescriptors
 	 */
 	public List<ILinkDescriptor> getLinkDescriptors() {
-		return Collections.unmodifiableList(linkDescriptors);
+		return Collections.unmodifiableList(new ArrayList<>(linkDescriptors));
 	}
 
 	/**
@@ -507,7 +552,18 @@ public class Component {
 	 * @see #scriptDescriptors
 	 */
 	public List<IScriptDescriptor> getScriptDescriptors() {
-		return Collections.unmodifiableList(scriptDescriptors);
+		return Collections.unmodifiableList(new ArrayList<>(scriptDescriptors));
+	}
+
+	/**
+	 * Get source files touched by this component scanning, including probed related files that are missing. Returned set is
+	 * not modifiable.
+	 * 
+	 * @return Immutable set of component source files.
+	 * @see #sourceFiles
+	 */
+	public Set<FilePath> getSourceFiles() {
+		return Collections.unmodifiableSet(sourceFiles);
 	}
 
 	/**
@@ -550,6 +606,7 @@ public class Component {
 		// res/path/compo/compo.css style
 
 		FilePath styleFile = sourceFile.cloneTo(FileType.STYLE);
+		sourceFiles.add(styleFile);
 		if (styleFile.exists() && !styleFiles.contains(styleFile)) {
 			// component style files are linked into build and preview document header
 			// in the order from this component styles list, first style file on top
@@ -566,44 +623,44 @@ public class Component {
 
 	/**
 	 * A compo path is a reference to a child component; this method returns defined compo paths. Returns a newly created array
-	 * with all compo path elements found in given layout document. This method creates a new array because {@link EList} is
-	 * live, and we need to remove compo paths while iterating. Returns empty array if no compo found.
+	 * with all compo path elements collected by layout document operators index. Array is a snapshot since compo paths are
+	 * removed while iterating. Returns empty array if no compo found.
 	 * <p>
 	 * Compo path element is identified by attribute with name <code>wood:compo</code>.
 	 * 
-	 * @param layout layout document.
+	 * @param layoutIndex operators index for layout document.
 	 * @return widgets array possible empty.
 	 */
-	private Element[] getCompoPathElements(Document layout) {
-		EList elist = operators.findByOperator(layout.getRoot(), Operator.COMPO);
-		if (elist.isEmpty()) {
-			return EMPTY_ARRAY;
-		}
-		Element[] array = new Element[elist.size()];
-		for (int i = 0; i < elist.size(); ++i) {
-			array[i] = elist.item(i);
-		}
-		return array;
+	private static Element[] getCompoPathElements(OperatorsIndex layoutIndex) {
+		return layoutIndex.find(Operator.COMPO).toArray(EMPTY_ARRAY);
 	}
 
 	private void mergeDescriptor(FilePath layoutPath) {
 		FilePath descriptorFile = layoutPath.cloneTo(FileType.XML);
-		ComponentDescriptor descriptor = new ComponentDescriptor(descriptorFile, referenceHandler);
+		sourceFiles.add(descriptorFile);
+		ComponentDescriptor descriptor;
+		if (descriptorsCache != null) {
+			try {
+				descriptor = descriptorsCache.load(descriptorFile, resourcesGroup, referenceHandler);
+			} catch (IOException e) {
+				throw new WoodException(e);
+			}
+		} else {
+			descriptor = new ComponentDescriptor(descriptorFile, referenceHandler);
+		}
 		mergeDescriptor(descriptor);
 	}
 
 	private void mergeDescriptor(ComponentDescriptor descriptor) {
-		addAll(metaDescriptors, descriptor.getMetaDescriptors());
-		addAll(linkDescriptors, descriptor.getLinkDescriptors());
-		addAll(scriptDescriptors, descriptor.getScriptDescriptors());
+		metaDescriptors.addAll(descriptor.getMetaDescriptors());
+		linkDescriptors.addAll(descriptor.getLinkDescriptors());
+		scriptDescriptors.addAll(descriptor.getScriptDescriptors());
 
 		// by convention, component path and, descriptor and script files have the same name
 		FilePath scriptFile = descriptor.getDescriptorFile().cloneTo(FileType.SCRIPT);
+		sourceFiles.add(scriptFile);
 		if (scriptFile.exists()) {
-			IScriptDescriptor script = ScriptDescriptor.create(scriptFile);
-			if (!scriptDescriptors.contains(script)) {
-				scriptDescriptors.add(script);
-			}
+			scriptDescriptors.add(ScriptDescriptor.create(scriptFile));
 		}
 	}
 
@@ -642,14 +699,6 @@ public class Component {
 		}
 	}
 
-	private static <T> void addAll(List<T> target, List<T> source) {
-		for (T item : source) {
-			if (!target.contains(item)) {
-				target.add(item);
-			}
-		}
-	}
-
 	// ------------------------------------------------------
 	// Internal classes
 
@@ -660,9 +709,8 @@ public class Component {
 	 * @author Iulian Rotaru
 	 */
 	private static class Editables {
-		private final IOperatorsHandler operators;
-		/** Template document. */
-		private final Document template;
+		/** Operators index for template document. */
+		private final OperatorsIndex templateIndex;
 
 		/** Template editables. */
 		private final Map<String, Element> editables = new HashMap<>();
@@ -670,11 +718,10 @@ public class Component {
 		/**
 		 * Create editables instance for given template layout.
 		 * 
-		 * @param template template layout document.
+		 * @param templateIndex operators index for template layout document.
 		 */
-		public Editables(IOperatorsHandler operators, Document template) {
-			this.operators = operators;
-			this.template = template;
+		public Editables(OperatorsIndex templateIndex) {
+			this.templateIndex = templateIndex;
 		}
 
 		/**
@@ -686,7 +733,7 @@ public class Component {
 		public Element get(String editableName) {
 			Element editable = editables.get(editableName);
 			if (editable == null) {
-				editable = operators.getByOperator(template, Operator.EDITABLE, editableName);
+				editable = templateIndex.get(Operator.EDITABLE, editableName);
 				if (editable == null) {
 					return null;
 				}
@@ -724,7 +771,7 @@ public class Component {
 		private final String templatePathEditableName;
 		private final List<Element> contentElements;
 
-		public ContentFragment(IOperatorsHandler operators, Element root) {
+		public ContentFragment(IOperatorsHandler operators, OperatorsIndex layoutIndex, Element root) {
 			this.operators = operators;
 			this.root = root;
 
@@ -745,10 +792,7 @@ public class Component {
 			this.templatePathEditableName = templatePathEditableName;
 
 			// load all content elements from given content fragment
-			this.contentElements = new ArrayList<>();
-			for (Element contentElement : operators.findByOperator(root, Operator.CONTENT)) {
-				this.contentElements.add(contentElement);
-			}
+			this.contentElements = layoutIndex.find(root, Operator.CONTENT);
 			if (this.contentElements.isEmpty()) {
 				this.contentElements.add(root);
 			}
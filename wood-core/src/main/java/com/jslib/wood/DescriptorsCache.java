@@ -0,0 +1,100 @@
+package com.jslib.wood;
+
+import com.jslib.wood.impl.ComponentDescriptor;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache for component descriptors of templates and widgets, shared by all components scanned by a build process. Without it,
+ * the same descriptor files are read and parsed for every page using a template or widget. Cache entries are keyed by
+ * descriptor file and component resources group; descriptors are language sensitive, so a cache instance should be used for a
+ * single language.
+ * <p>
+ * Descriptor meta, link and script lists are computed when descriptor is loaded, see
+ * {@link ComponentDescriptor#getScriptDescriptors()}. Resource references discovered while a descriptor is parsed are recorded
+ * and replayed on reference handler on every cache hit, the same as for {@link LayoutsCache}.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+public class DescriptorsCache {
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Get component descriptor for given descriptor file, loading and caching it if not already cached. Returned descriptor is
+     * immutable and shared by all components using it.
+     *
+     * @param descriptorFile   descriptor file, possible missing,
+     * @param resourcesGroup   resources group of the component being scanned, possible null,
+     * @param referenceHandler resource references handler.
+     * @return component descriptor.
+     * @throws IOException if resource references replay fails.
+     */
+    public ComponentDescriptor load(FilePath descriptorFile, String resourcesGroup, IReferenceHandler referenceHandler) throws IOException {
+        Key key = new Key(descriptorFile, resourcesGroup);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            ReferencesRecorder references = new ReferencesRecorder(referenceHandler);
+            ComponentDescriptor descriptor = new ComponentDescriptor(descriptorFile, references);
+            // compute descriptors lists before publishing the entry; this also validates descriptor content
+            descriptor.getMetaDescriptors();
+            descriptor.getLinkDescriptors();
+            descriptor.getScriptDescriptors();
+
+            entry = new Entry(descriptor, references);
+            Entry existingEntry = entries.putIfAbsent(key, entry);
+            if (existingEntry == null) {
+                // references were already handled while descriptor was parsed
+                return descriptor;
+            }
+            entry = existingEntry;
+        }
+
+        entry.references.replay(referenceHandler);
+        return entry.descriptor;
+    }
+
+    private static class Key {
+        private final FilePath descriptorFile;
+        private final String resourcesGroup;
+
+        public Key(FilePath descriptorFile, String resourcesGroup) {
+            this.descriptorFile = descriptorFile;
+            this.resourcesGroup = resourcesGroup;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(descriptorFile, resourcesGroup);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            Key other = (Key) obj;
+            return descriptorFile.equals(other.descriptorFile) && Objects.equals(resourcesGroup, other.resourcesGroup);
+        }
+    }
+
+    private static class Entry {
+        private final ComponentDescriptor descriptor;
+
+        /**
+         * Resource references discovered while descriptor was parsed, in discovery order.
+         */
+        private final ReferencesRecorder references;
+
+        public Entry(ComponentDescriptor descriptor, ReferencesRecorder references) {
+            this.descriptor = descriptor;
+            this.references = references;
+        }
+    }
+}
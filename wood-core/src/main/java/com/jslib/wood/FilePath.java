@@ -41,7 +41,8 @@ import java.util.regex.Pattern;
  * ; ALPHA and DIGIT are described by RFC5234, Appendix B.1
  * </pre>
  * <p>
- * File path has no mutable state and is thread safe.
+ * File path has no mutable state and is thread safe. Variants for files without variants and parent directory are created on
+ * first request. File path instances are shared, see {@link Project#createFilePath(String)}.
  *
  * @author Iulian Rotaru
  * @since 1.0
@@ -100,9 +101,15 @@ public class FilePath implements Iterable<FilePath> {
     private final String fileName;
 
     /**
-     * Optional variants, empty if file path has none.
+     * Optional variants, empty if file path has none. For file path without variants, empty variants instance is created on
+     * first request; variants syntax is validated on construction if file path has variants.
      */
-    private final Variants variants;
+    private volatile Variants variants;
+
+    /**
+     * Parent directory created on first request, see {@link #getParentDir()}.
+     */
+    private volatile FilePath parentDir;
 
     /**
      * File type.
@@ -125,7 +132,7 @@ public class FilePath implements Iterable<FilePath> {
         assert value != null : "Path value argument is null";
 
         this.project = project;
-        this.pathSegments = new ArrayList<>(StringsUtil.split(value, FilePath.SEPARATOR_CHAR));
+        this.pathSegments = Collections.unmodifiableList(StringsUtil.split(value, FilePath.SEPARATOR_CHAR));
 
         Matcher matcher = FILE_PATTERN.matcher(value);
         boolean directory = false;
@@ -147,12 +154,14 @@ public class FilePath implements Iterable<FilePath> {
         this.basename = matcher.group(2);
 
         if (!directory) {
-            this.variants = new Variants(this, matcher.group(3));
+            String variants = matcher.group(3);
+            if (variants != null) {
+                this.variants = new Variants(this, variants);
+            }
             String extension = matcher.group(4);
             this.fileName = StringsUtil.concat(this.basename, '.', extension);
             this.fileType = FileType.forExtension(extension);
         } else {
-            this.variants = new Variants(this, null);
             this.fileName = this.basename;
             this.fileType = FileType.NONE;
         }
@@ -230,7 +239,8 @@ public class FilePath implements Iterable<FilePath> {
      * @return true if this file path has variants.
      */
     public boolean hasVariants() {
-        return !variants.isEmpty();
+        Variants variants = this.variants;
+        return variants != null && !variants.isEmpty();
     }
 
     /**
@@ -240,6 +250,11 @@ public class FilePath implements Iterable<FilePath> {
      * @see #variants
      */
     public Variants getVariants() {
+        Variants variants = this.variants;
+        if (variants == null) {
+            variants = new Variants(this, null);
+            this.variants = variants;
+        }
         return variants;
     }
 
@@ -249,7 +264,15 @@ public class FilePath implements Iterable<FilePath> {
      * @return parent directory, possible null.
      */
     public FilePath getParentDir() {
-        return parentPath.isEmpty() ? null : new FilePath(project, parentPath);
+        if (parentPath.isEmpty()) {
+            return null;
+        }
+        FilePath parentDir = this.parentDir;
+        if (parentDir == null) {
+            parentDir = project.createFilePath(parentPath);
+            this.parentDir = parentDir;
+        }
+        return parentDir;
     }
 
     public String getParentPath() {
@@ -379,19 +402,33 @@ public class FilePath implements Iterable<FilePath> {
             // if there are no 'roots' arguments accept all XML files
             return true;
         }
+        FilesIndex index = project.getFilesIndex();
+        String line = index != null ? index.getXmlRootLine(this) : readXmlRootLine();
+        if (line == null) {
+            return false;
+        }
+        for (String root : roots) {
+            if (line.startsWith(StringsUtil.concat('<', root, '>'))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Read the line with XML root element, that is, the first line or the second one if first line is XML declaration.
+     *
+     * @return XML root element line or null if this file is empty or cannot be read.
+     */
+    String readXmlRootLine() {
         try (BufferedReader reader = new BufferedReader(getReader())) {
             String line = reader.readLine();
-            if (line.startsWith("<?")) {
+            if (line != null && line.startsWith("<?")) {
                 line = reader.readLine();
             }
-            for (String root : roots) {
-                if (line.startsWith(StringsUtil.concat('<', root, '>'))) {
-                    return true;
-                }
-            }
-            return false;
-        } catch (IOException ignore) {
-            return false;
+            return line;
+        } catch (IOException | WoodException ignore) {
+            return null;
         }
     }
 
@@ -414,7 +451,7 @@ public class FilePath implements Iterable<FilePath> {
      * @see #pathSegments
      */
     public List<String> getPathSegments() {
-        return Collections.unmodifiableList(pathSegments);
+        return pathSegments;
     }
 
     /**
@@ -444,8 +481,19 @@ public class FilePath implements Iterable<FilePath> {
         return project.createFilePath(value + name);
     }
 
+    /**
+     * Iterate over this directory child files; subdirectories and hidden files are not included. If this directory is indexed
+     * by project files index, child files are retrieved from index without file system access.
+     *
+     * @return child files iterator.
+     */
     @Override
     public Iterator<FilePath> iterator() {
+        FilesIndex index = project.getFilesIndex();
+        List<FilePath> indexedFiles = index != null ? index.getFiles(this) : null;
+        if (indexedFiles != null) {
+            return indexedFiles.iterator();
+        }
         if (!exists()) {
             return Collections.emptyIterator();
         }
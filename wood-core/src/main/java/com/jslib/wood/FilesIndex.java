@@ -0,0 +1,195 @@
+package com.jslib.wood;
+
+import com.jslib.wood.util.FilesUtil;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of project files, built once while project file system is scanned, see {@link Project#create()}. Index maps
+ * project directories to their child files so that directory iteration - see {@link FilePath#iterator()}, does not list
+ * file system on every call. Child files are {@link FilePath} instances with base name, variants and type already parsed.
+ * Index also caches root element line of XML files, used by {@link FilePath#isXml(String...)}.
+ * <p>
+ * Only scanned directories are indexed; excluded and hidden directories are not. Files iteration on a directory not present
+ * on this index falls back to file system listing.
+ * <p>
+ * Index is updated incrementally, one file or directory at a time, see {@link #update(File)}. This is used by preview that
+ * watches project file system for changes.
+ * <p>
+ * This class is thread safe. Directory children lists are immutable and replaced as a whole on update.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+class FilesIndex {
+    /**
+     * Key used for project root directory.
+     */
+    private static final String ROOT_KEY = ".";
+
+    private final Project project;
+
+    /**
+     * Child files mapped to directory path value, see {@link FilePath#value()}. Lists do not include subdirectories and hidden
+     * files.
+     */
+    private final Map<String, List<FilePath>> directories = new ConcurrentHashMap<>();
+
+    /**
+     * Root element line of XML files, mapped to file path value.
+     */
+    private final Map<String, String> xmlRootLines = new ConcurrentHashMap<>();
+
+    public FilesIndex(Project project) {
+        this.project = project;
+    }
+
+    /**
+     * Add directory child files. This method is invoked while project file system is scanned.
+     *
+     * @param dir   project directory,
+     * @param files directory child files, excluding subdirectories and hidden files.
+     */
+    public void add(File dir, List<FilePath> files) {
+        directories.put(key(dir), Collections.unmodifiableList(files));
+    }
+
+    /**
+     * Get child files of given directory or null if directory is not indexed. Returned list is not modifiable.
+     *
+     * @param dir project directory.
+     * @return directory child files or null.
+     */
+    public List<FilePath> getFiles(FilePath dir) {
+        return directories.get(dir.value());
+    }
+
+    /**
+     * Get root element line of given XML file. Root element line is loaded on first request and cached.
+     *
+     * @param file XML file.
+     * @return root element line, possible null if file is empty or cannot be read.
+     */
+    public String getXmlRootLine(FilePath file) {
+        return xmlRootLines.computeIfAbsent(file.value(), value -> file.readXmlRootLine());
+    }
+
+    /**
+     * Update index after given file was created, modified or deleted. If file is a directory, index its files hierarchy; if
+     * file was deleted, remove it together with its descendants, if was a directory. Also re-index parent directory, if
+     * indexed. Files from excluded and hidden directories are ignored.
+     *
+     * @param file created, modified or deleted file or directory.
+     */
+    public void update(File file) {
+        if (isExcluded(file)) {
+            return;
+        }
+        String value = FilesUtil.getRelativePath(project.getProjectRoot(), file, true);
+        xmlRootLines.remove(value);
+
+        if (file.isDirectory()) {
+            index(file);
+        } else if (!file.exists()) {
+            String prefix = value + FilePath.SEPARATOR;
+            directories.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+
+        File parentDir = file.getParentFile();
+        if (parentDir != null && directories.containsKey(key(parentDir))) {
+            directories.put(key(parentDir), Collections.unmodifiableList(list(parentDir, null)));
+        }
+    }
+
+    /**
+     * Recursively index given directory files hierarchy. Hidden and excluded subdirectories are skipped.
+     *
+     * @param dir directory to index.
+     */
+    private void index(File dir) {
+        List<File> subdirs = new ArrayList<>();
+        directories.put(key(dir), Collections.unmodifiableList(list(dir, subdirs)));
+        for (File subdir : subdirs) {
+            if (!isExcluded(subdir)) {
+                index(subdir);
+            }
+        }
+    }
+
+    /**
+     * List directory child files, excluding hidden files. Files with names not valid for {@link FilePath} are ignored.
+     *
+     * @param dir     directory to list,
+     * @param subdirs optional subdirectories list, null if not interested in subdirectories.
+     * @return directory child files.
+     */
+    private List<FilePath> list(File dir, List<File> subdirs) {
+        List<FilePath> files = new ArrayList<>();
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return files;
+        }
+        for (File child : children) {
+            if (child.isDirectory()) {
+                if (subdirs != null) {
+                    subdirs.add(child);
+                }
+                continue;
+            }
+            if (child.getName().charAt(0) == '.') {
+                continue;
+            }
+            try {
+                files.add(project.createFilePath(child));
+            } catch (WoodException ignored) {
+                // file name is not valid for a project file path
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Test if file is into an excluded or hidden directory or is itself excluded or hidden.
+     *
+     * @param file project file or directory.
+     * @return true if file should not be indexed.
+     */
+    private boolean isExcluded(File file) {
+        Path projectRoot = normalize(project.getProjectRoot());
+        for (Path ancestor = normalize(file); ancestor != null && !ancestor.equals(projectRoot); ancestor = ancestor.getParent()) {
+            Path name = ancestor.getFileName();
+            if (name != null && name.toString().startsWith(".")) {
+                return true;
+            }
+            for (File excludeDir : project.getExcludes()) {
+                if (normalize(excludeDir).equals(ancestor)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get index key for directory. Index key is the directory path value, see {@link FilePath#value()}.
+     *
+     * @param dir project directory.
+     * @return directory index key.
+     */
+    private String key(File dir) {
+        if (normalize(dir).equals(normalize(project.getProjectRoot()))) {
+            return ROOT_KEY;
+        }
+        return FilesUtil.getRelativePath(project.getProjectRoot(), dir, true) + FilePath.SEPARATOR;
+    }
+
+    private static Path normalize(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+}
@@ -3,34 +3,33 @@ package com.jslib.wood;
 import java.io.IOException;
 import java.io.Reader;
 
+/**
+ * Layout file reader that validates layout structure while layout content is reading. This reader is used by
+ * {@link SourceReader} for layout files and is designed to add no copy on reading path: characters are read from decorated
+ * reader straight into caller buffer and parser state machine scans them in place. Caller buffer size is not limited, so large
+ * reads are passed through as they are.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
 public class LayoutReader extends Reader {
-    private final char[] buffer;
-
     private final Reader reader;
-    private final IProcessor processor;
+    private final Processor processor;
 
     public LayoutReader(Reader reader, FilePath sourceFile) {
-        this(reader, sourceFile, new char[512]);
-    }
-
-    public LayoutReader(Reader reader, FilePath sourceFile, char[] buffer) {
         super();
-        this.buffer = buffer;
         this.reader = reader;
         this.processor = new Processor(sourceFile);
     }
 
     @Override
     public int read(char[] cbuf, int off, int len) throws IOException {
-        if (processor.isEmpty()) {
-            int charsCount = reader.read(buffer);
-            if (charsCount <= 0) {
-                return -1;
-            }
-            processor.batch(buffer, charsCount);
+        int charsCount = reader.read(cbuf, off, len);
+        if (charsCount <= 0) {
+            return charsCount == 0 ? 0 : -1;
         }
-
-        return processor.getData(cbuf, off, len);
+        processor.process(cbuf, off, charsCount);
+        return charsCount;
     }
 
     @Override
@@ -48,28 +47,9 @@ public class LayoutReader extends Reader {
         }
     }
 
-    private interface IProcessor {
-
-        void batch(char[] buffer, int len);
-
-        int getData(char[] cbuf, int off, int len);
-
-        boolean isEmpty();
-
-    }
-
-    private static class Processor implements IProcessor {
+    private static class Processor {
         private final FilePath sourceFile;
 
-        /**
-         * Buffer with characters read from source file. Its initial length can be anything between couple chars to full
-         * capacity and is most probably refilled multiple times from source file.
-         * <p>
-         * Source buffer is mutable. If processor discovers custom element with missing WOOD operator, processor inserts on the
-         * fly the operator altering source buffer content.
-         */
-        private final StringBuilder sourceBuffer = new StringBuilder();
-
         /**
          * Parser finite state machine.
          */
@@ -80,41 +60,26 @@ public class LayoutReader extends Reader {
             this.state = State.WAIT_ROOT;
         }
 
-        @Override
-        public void batch(char[] cbuf, int len) {
-            sourceBuffer.setLength(0);
-            sourceBuffer.append(cbuf, 0, len);
-
-            for (int i = 0; i < sourceBuffer.length(); ++i) {
-                int insertedCharsCount = parse(sourceBuffer.charAt(i));
-                i += insertedCharsCount;
-            }
-        }
-
-        @Override
-        public int getData(char[] cbuf, int off, int len) {
-            if (len > sourceBuffer.length()) {
-                len = sourceBuffer.length();
+        /**
+         * Scan characters just read from source file. Characters are processed in place, on reader caller buffer.
+         *
+         * @param cbuf buffer with characters read from source file,
+         * @param off  buffer offset,
+         * @param len  number of characters read.
+         */
+        public void process(char[] cbuf, int off, int len) {
+            for (int i = off, end = off + len; i < end; ++i) {
+                parse(cbuf[i]);
             }
-            sourceBuffer.getChars(0, len, cbuf, off);
-            sourceBuffer.delete(0, len);
-            return len;
-        }
-
-        @Override
-        public boolean isEmpty() {
-            return sourceBuffer.length() == 0;
         }
 
         /**
-         * Parse for custom elements and insert WOOD operator, if missing. This parser read characters from source buffer, see
-         * {@link #sourceBuffer} inserting WOOD operators on the fly, altering source buffer. Returns the number of characters
-         * inserted and zero if source buffer is not changed.
+         * Advance parser state machine with given source character.
          *
-         * @param c source buffer current character.
-         * @return the number of characters inserted or zero if source buffer is not changed.
+         * @param c source current character.
+         * @throws LayoutParseException if layout root element is missing.
          */
-        private int parse(char c) {
+        private void parse(char c) {
             switch (state) {
                 // ------------------------------------------------------------------------------------
                 // state machine for name space detection
@@ -199,8 +164,6 @@ public class LayoutReader extends Reader {
                     }
                     break;
             }
-
-            return 0;
         }
 
         private enum State {
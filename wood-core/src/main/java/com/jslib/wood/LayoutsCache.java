@@ -0,0 +1,141 @@
+package com.jslib.wood;
+
+import com.jslib.wood.dom.Document;
+import com.jslib.wood.dom.DocumentBuilder;
+import com.jslib.wood.impl.LayoutParameters;
+import org.xml.sax.SAXException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache for parsed layout documents, shared by all components scanned by a build process. It is common for pages to use the
+ * same templates and widgets; without this cache the same layout files are read, references resolved and XML parsed for every
+ * page. Cache entries are keyed by layout path, layout parameters in effect at loading time and component resources group;
+ * layout documents are language sensitive, so a cache instance should be used for a single language.
+ * <p>
+ * Cached documents are never returned directly; {@link #load(FilePath, LayoutParameters, String, IReferenceHandler)} returns a
+ * deep clone so that caller can freely consolidate it. Resource references discovered while a layout is parsed are recorded on
+ * cache entry and replayed on given reference handler on every cache hit; this way reference handler side effects - e.g.
+ * media files copied to build directory or incremental build inputs, are preserved.
+ * <p>
+ * This class is thread safe.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+public class LayoutsCache {
+    private final DocumentBuilder documentBuilder;
+
+    /**
+     * True if layout documents are loaded with namespace support.
+     */
+    private final boolean namespaceAware;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Create layouts cache for project.
+     *
+     * @param project parent project.
+     */
+    public LayoutsCache(Project project) {
+        this.documentBuilder = DocumentBuilder.getInstance();
+        this.namespaceAware = project.hasNamespace();
+    }
+
+    /**
+     * Get a deep clone of layout document identified by layout path, layout parameters and resources group. If layout is not
+     * already cached, load it using {@link SourceReader} with given layout parameters and reference handler. Otherwise,
+     * replay recorded resource references on reference handler.
+     *
+     * @param layoutPath       layout file path,
+     * @param parameters       layout parameters in effect,
+     * @param resourcesGroup   resources group of the component being scanned, possible null,
+     * @param referenceHandler resource references handler.
+     * @return layout document, deep clone of the cached one.
+     * @throws IOException  if layout file reading fails.
+     * @throws SAXException if layout document parsing fails.
+     */
+    public Document load(FilePath layoutPath, LayoutParameters parameters, String resourcesGroup, IReferenceHandler referenceHandler) throws IOException, SAXException {
+        Key key = new Key(layoutPath, new LayoutParameters(parameters), resourcesGroup);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            entry = parse(layoutPath, parameters, referenceHandler);
+            Entry existingEntry = entries.putIfAbsent(key, entry);
+            if (existingEntry == null) {
+                // references were already handled while layout was parsed
+                return entry.cloneDocument();
+            }
+            entry = existingEntry;
+        }
+
+        entry.references.replay(referenceHandler);
+        return entry.cloneDocument();
+    }
+
+    private Entry parse(FilePath layoutPath, LayoutParameters parameters, IReferenceHandler referenceHandler) throws IOException, SAXException {
+        ReferencesRecorder references = new ReferencesRecorder(referenceHandler);
+        Document document;
+        try (Reader reader = new SourceReader(layoutPath, parameters, references)) {
+            document = namespaceAware ? documentBuilder.loadXMLNS(reader) : documentBuilder.loadXML(reader);
+        }
+        return new Entry(document, references);
+    }
+
+    private static class Key {
+        private final FilePath layoutPath;
+        private final LayoutParameters parameters;
+        private final String resourcesGroup;
+
+        public Key(FilePath layoutPath, LayoutParameters parameters, String resourcesGroup) {
+            this.layoutPath = layoutPath;
+            this.parameters = parameters;
+            this.resourcesGroup = resourcesGroup;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(layoutPath, parameters, resourcesGroup);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            Key other = (Key) obj;
+            return layoutPath.equals(other.layoutPath) && parameters.equals(other.parameters) && Objects.equals(resourcesGroup, other.resourcesGroup);
+        }
+    }
+
+    private static class Entry {
+        /**
+         * Cached layout document, never exposed to callers.
+         */
+        private final Document document;
+
+        /**
+         * Resource references discovered while layout document was parsed, in discovery order.
+         */
+        private final ReferencesRecorder references;
+
+        public Entry(Document document, ReferencesRecorder references) {
+            this.document = document;
+            this.references = references;
+        }
+
+        /**
+         * Clone cached document. DOM implementation is not thread safe even for read-only access so cloning is synchronized.
+         *
+         * @return deep clone of cached document.
+         */
+        public synchronized Document cloneDocument() {
+            return document.cloneDocument();
+        }
+    }
+}
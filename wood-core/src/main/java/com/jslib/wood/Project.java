@@ -1,13 +1,25 @@
 package com.jslib.wood;
 
-import com.jslib.wood.dom.Document;
-import com.jslib.wood.dom.DocumentBuilder;
-import com.jslib.wood.dom.Element;
 import com.jslib.wood.impl.*;
 import com.jslib.wood.util.FilesUtil;
+import com.jslib.wood.util.ParsersUtil;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Collectors;
 
 /**
@@ -53,7 +65,23 @@ public class Project {
     /**
      * Map script path to its dependencies. Only scripts with declared dependencies are included in this map.
      */
-    private final Map<String, List<IScriptDescriptor>> scriptDependencies = new HashMap<>();
+    private final Map<String, List<IScriptDescriptor>> scriptDependencies = new ConcurrentHashMap<>();
+
+    /**
+     * Shared file path instances mapped to path value, see {@link #createFilePath(String)}. Both original path, as requested
+     * by caller, and normalized path value are mapped.
+     */
+    private final Map<String, FilePath> filePaths = new ConcurrentHashMap<>();
+
+    /**
+     * Media query definitions mapped to their alias, created on first request, see {@link #getMediaQueryDefinition(String)}.
+     */
+    private volatile Map<String, MediaQueryDefinition> mediaQueryDefinitions;
+
+    /**
+     * In-memory index of project files, built while project file system is scanned.
+     */
+    private final FilesIndex filesIndex = new FilesIndex(this);
 
     /**
      * File path visitors for project file system scanning.
@@ -277,7 +305,16 @@ public class Project {
      * @see ProjectDescriptor#getMediaQueryDefinitions()
      */
     public MediaQueryDefinition getMediaQueryDefinition(String alias) {
-        return descriptor.getMediaQueryDefinitions().stream().filter(query -> query.getAlias().equals(alias)).findAny().orElse(null);
+        Map<String, MediaQueryDefinition> definitions = mediaQueryDefinitions;
+        if (definitions == null) {
+            definitions = new HashMap<>();
+            for (MediaQueryDefinition definition : descriptor.getMediaQueryDefinitions()) {
+                // preserve first definition for alias, as linear search does
+                definitions.putIfAbsent(definition.getAlias(), definition);
+            }
+            mediaQueryDefinitions = definitions;
+        }
+        return definitions.get(alias);
     }
 
     /**
@@ -355,6 +392,25 @@ public class Project {
         return operatorsHandler instanceof XmlnsOperatorsHandler;
     }
 
+    /**
+     * Get project files index.
+     *
+     * @return project files index.
+     */
+    FilesIndex getFilesIndex() {
+        return filesIndex;
+    }
+
+    /**
+     * Update project files index after a change on project file system. Given file can be created, modified or deleted, and
+     * can be a directory. This method should be invoked by tools watching project file system, e.g. preview.
+     *
+     * @param file created, modified or deleted file or directory.
+     */
+    public void updateFilesIndex(File file) {
+        filesIndex.update(file);
+    }
+
     // --------------------------------------------------------------------------------------------
     // resource files retrieving
 
@@ -426,12 +482,33 @@ public class Project {
     // --------------------------------------------------------------------------------------------
     // factory methods
 
+    /**
+     * Get file path instance for given path value. File path instances are immutable and shared: this factory method returns
+     * the same instance for the same path, be it requested with original or normalized value - e.g. directory path with or
+     * without trailing separator.
+     *
+     * @param path path value, relative to project root.
+     * @return file path instance.
+     * @throws WoodException if path value is not valid.
+     */
     public FilePath createFilePath(String path) {
-        return new FilePath(this, path);
+        FilePath filePath = filePaths.get(path);
+        if (filePath != null) {
+            return filePath;
+        }
+        filePath = new FilePath(this, path);
+        FilePath existingFilePath = filePaths.putIfAbsent(filePath.value(), filePath);
+        if (existingFilePath != null) {
+            filePath = existingFilePath;
+        }
+        if (!path.equals(filePath.value())) {
+            filePaths.putIfAbsent(path, filePath);
+        }
+        return filePath;
     }
 
     public FilePath createFilePath(File file) {
-        return new FilePath(this, FilesUtil.getRelativePath(projectRoot, file, true));
+        return createFilePath(FilesUtil.getRelativePath(projectRoot, file, true));
     }
 
     public CompoPath createCompoPath(String path) {
@@ -456,64 +533,145 @@ public class Project {
     // scanner for project file system
 
     /**
-     * Recursively traverse project file system and invoke visitors for every file found. Visitors are invoked in provided
-     * order.
+     * Traverse project file system and invoke visitors for every file found. Also add traversed directories to project files
+     * index.
+     * <p>
+     * Directories are scanned in parallel, on common fork join pool, one task per directory. Files from the same directory are
+     * visited in the order returned by directory stream and, for every file, visitors are invoked in provided order; files
+     * from different directories are visited concurrently. This is why visitors should be thread safe. Since visiting order is
+     * not predictable, visitors collecting order sensitive data should sort or merge it on
+     * {@link IFilePathVisitor#endScan(Project)}, invoked after all files were visited.
      *
      * @param project  master project,
-     * @param dir      current visited directory,
+     * @param dir      directory to scan, usually project root,
      * @param visitors visitors list.
      * @throws WoodException if fail to list directory or there is an error on visitor execution.
      */
     static void walkFileTree(Project project, File dir, List<IFilePathVisitor> visitors) throws WoodException {
         assert dir.isDirectory() : "Directory argument is not an existing directory";
+        ForkJoinPool.commonPool().invoke(new ScanTask(project, dir.toPath(), visitors));
+        for (IFilePathVisitor visitor : visitors) {
+            visitor.endScan(project);
+        }
+    }
 
-        File[] files = dir.listFiles();
-        if (files == null) {
-            throw new WoodException("Fail to list directory %s", dir);
+    /**
+     * Scan task for a single directory. Directory entries attributes are read once, with {@link BasicFileAttributes}; a new task
+     * is forked for every subdirectory that is not hidden or excluded.
+     *
+     * @author Iulian Rotaru
+     * @since 1.0
+     */
+    private static class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Project project;
+        private final Path dir;
+        private final List<IFilePathVisitor> visitors;
+
+        public ScanTask(Project project, Path dir, List<IFilePathVisitor> visitors) {
+            this.project = project;
+            this.dir = dir;
+            this.visitors = visitors;
         }
 
-        for (File file : files) {
-            if (file.isDirectory()) {
-                if (file.getName().startsWith(".") || project.excludeDirs.contains(file)) {
-                    continue;
+        @Override
+        protected void compute() {
+            List<ScanTask> subtasks = new ArrayList<>();
+            // directory child files are collected for project files index; subdirectories and hidden files are not included
+            List<FilePath> indexedFiles = new ArrayList<>();
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path entry : entries) {
+                    String name = entry.getFileName().toString();
+                    boolean directory = isDirectory(entry);
+                    if (directory) {
+                        if (name.startsWith(".") || project.excludeDirs.contains(entry.toFile())) {
+                            continue;
+                        }
+                        ScanTask subtask = new ScanTask(project, entry, visitors);
+                        subtask.fork();
+                        subtasks.add(subtask);
+                    }
+
+                    try {
+                        FilePath filePath = project.createFilePath(entry.toFile());
+                        if (!directory && name.charAt(0) != '.') {
+                            indexedFiles.add(filePath);
+                        }
+                        for (IFilePathVisitor visitor : visitors) {
+                            visitor.visitFile(project, filePath);
+                        }
+                    } catch (Throwable t) {
+                        throw new WoodException("Scan processing fail on file %s: %s: %s", entry, t.getClass(), t.getMessage());
+                    }
+                }
+            } catch (IOException | DirectoryIteratorException e) {
+                throw new WoodException("Fail to list directory %s", dir);
+            } finally {
+                for (ScanTask subtask : subtasks) {
+                    subtask.join();
                 }
-                walkFileTree(project, file, visitors);
             }
+            project.filesIndex.add(dir.toFile(), indexedFiles);
+        }
 
+        private static boolean isDirectory(Path entry) {
             try {
-                for (IFilePathVisitor visitor : visitors) {
-                    visitor.visitFile(project, project.createFilePath(file));
-                }
-            } catch (Throwable t) {
-                throw new WoodException("Scan processing fail on file %s: %s: %s", file, t.getClass(), t.getMessage());
+                return Files.readAttributes(entry, BasicFileAttributes.class).isDirectory();
+            } catch (IOException e) {
+                // broken symbolic link is processed as a regular file, as java.io.File#isDirectory() does
+                return false;
             }
         }
     }
 
     /**
-     * File path visitor for project file system scanning.
+     * File path visitor for project file system scanning. Visitors are invoked concurrently for files from different
+     * directories, see {@link #walkFileTree(Project, File, List)}; implementations should be thread safe.
      *
      * @author Iulian Rotaru
      * @since 1.0
      */
     public interface IFilePathVisitor {
         void visitFile(Project project, FilePath file) throws Exception;
+
+        /**
+         * Invoked after all project files were visited, from scanning thread. Visitor can use this hook to put collected data
+         * in a deterministic order, independent of concurrent files visiting. Default implementation does nothing.
+         *
+         * @param project master project.
+         */
+        default void endScan(Project project) {
+        }
     }
 
     /**
      * Implementation for file path visitor. Current version just scan component descriptors for script dependencies.
+     * <p>
+     * Component descriptors are scanned with a SAX parser; only <code>script</code> elements and their direct children are
+     * processed, no DOM document is created. If descriptor has a <code>scripts</code> section, parsing stops at section end.
+     * <p>
+     * This visitor is thread safe: SAX parsers are pooled per thread, see {@link ParsersUtil}, and dependencies are collected
+     * into concurrent maps, per script source and per component descriptor. Since descriptors are scanned concurrently,
+     * dependencies declared by many descriptors for the same script are merged on {@link #endScan(Project)}, in descriptors
+     * path order, and duplicates removed; this way dependencies order does not depend on scanning threads scheduling.
      *
      * @author Iulian Rotaru
      * @since 1.0
      */
     static class FilePathVisitor implements IFilePathVisitor {
-        private static final DocumentBuilder documentBuilder = DocumentBuilder.getInstance();
-
         /**
          * Map script source to dependencies list. Script source is a path inside project file system or a URL therefore is unique.
          */
         private final Map<String, List<IScriptDescriptor>> scriptDependencies;
 
+        /**
+         * Dependencies declared by component descriptors, mapped to script source then to descriptor path. A descriptor is
+         * scanned by a single thread so its dependencies list needs no locking.
+         */
+        private final Map<String, Map<String, List<IScriptDescriptor>>> declaredDependencies = new ConcurrentHashMap<>();
+
         public FilePathVisitor(Map<String, List<IScriptDescriptor>> scriptDependencies) {
             this.scriptDependencies = scriptDependencies;
         }
@@ -524,18 +682,91 @@ public class Project {
                 return;
             }
 
-            Document document = documentBuilder.loadXML(file.getReader());
+            try (Reader reader = file.getReader()) {
+                ParsersUtil.parse(new InputSource(reader), new SAXHandler(this, file.value()));
+            } catch (ScriptsSectionEndException unused) {
+                // all scripts from descriptor are processed and parsing was aborted
+            }
+        }
+
+        private void addDependency(String descriptorPath, String scriptSource, IScriptDescriptor dependency) {
+            Map<String, List<IScriptDescriptor>> descriptors = declaredDependencies.computeIfAbsent(scriptSource, source -> new ConcurrentHashMap<>());
+            descriptors.computeIfAbsent(descriptorPath, path -> new ArrayList<>()).add(dependency);
+        }
 
-            for (Element scriptElement : document.findByXPath("//script")) {
-                for (Element dependencyElement : scriptElement.getChildren()) {
-                    String scriptSource = scriptElement.getAttr("src");
-                    List<IScriptDescriptor> dependencies = scriptDependencies.computeIfAbsent(scriptSource, k -> new ArrayList<>());
-                    IScriptDescriptor scriptDescriptor = ScriptDescriptor.create(dependencyElement);
-                    if (!dependencies.contains(scriptDescriptor)) {
-                        dependencies.add(scriptDescriptor);
+        /**
+         * Merge dependencies declared by component descriptors into script dependencies, in descriptors path order. Dependencies
+         * already present on external storage are kept first and duplicates are not added.
+         *
+         * @param project master project.
+         */
+        @Override
+        public void endScan(Project project) {
+            declaredDependencies.forEach((scriptSource, descriptors) -> {
+                List<IScriptDescriptor> dependencies = scriptDependencies.computeIfAbsent(scriptSource, source -> new ArrayList<>());
+                Set<IScriptDescriptor> collected = new HashSet<>(dependencies);
+                for (List<IScriptDescriptor> descriptorDependencies : new TreeMap<>(descriptors).values()) {
+                    for (IScriptDescriptor dependency : descriptorDependencies) {
+                        if (collected.add(dependency)) {
+                            dependencies.add(dependency);
+                        }
                     }
                 }
+            });
+            declaredDependencies.clear();
+        }
+
+        /**
+         * SAX handler for component descriptor. Keeps a stack with source of open elements; entry is null if element is not a
+         * script. Every element direct child of a script with source is a script dependency.
+         * <p>
+         * This SAX handler has mutable internal state and is not thread safe.
+         *
+         * @author Iulian Rotaru
+         * @since 1.0
+         */
+        private static class SAXHandler extends DefaultHandler {
+            private final FilePathVisitor visitor;
+            private final String descriptorPath;
+            private final List<String> sources = new ArrayList<>();
+
+            public SAXHandler(FilePathVisitor visitor, String descriptorPath) {
+                this.visitor = visitor;
+                this.descriptorPath = descriptorPath;
             }
+
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                String parentSource = sources.isEmpty() ? null : sources.get(sources.size() - 1);
+                // empty source attribute is processed as missing, the same as DOM element attribute
+                String source = attributes.getValue("src");
+                if (source != null && source.isEmpty()) {
+                    source = null;
+                }
+                if (parentSource != null && source != null) {
+                    visitor.addDependency(descriptorPath, parentSource, ScriptDescriptor.create(attributes));
+                }
+                // script element without source is rejected by descriptor validation; dependencies are not relevant
+                sources.add("script".equals(qName) ? source : null);
+            }
+
+            @Override
+            public void endElement(String uri, String localName, String qName) throws SAXException {
+                sources.remove(sources.size() - 1);
+                if ("scripts".equals(qName)) {
+                    throw new ScriptsSectionEndException();
+                }
+            }
+        }
+
+        /**
+         * Thrown by SAX handler to abort parsing after scripts section end.
+         *
+         * @author Iulian Rotaru
+         * @since 1.0
+         */
+        private static class ScriptsSectionEndException extends SAXException {
+            private static final long serialVersionUID = -3167415330284218735L;
         }
     }
 
@@ -1,5 +1,9 @@
 package com.jslib.wood;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 /**
  * Immutable at-meta reference. There are three families of at-meta references: variables, resource files - mostly media files,
  * and layout parameters references. At-meta reference has a type and a name - uniquely identifying the reference in its scope.
@@ -341,11 +345,34 @@ public class Reference {
          * @return reference type enumeration, possible {@link #UNKNOWN}.
          */
         public static Type getValueOf(String type) {
-            try {
-                return Type.valueOf(type.toUpperCase());
-            } catch (Exception ignored) {
+            if (type == null) {
+                return UNKNOWN;
+            }
+            Type value = VALUES.get(type);
+            if (value == null) {
+                value = VALUES.get(type.toLowerCase(Locale.ENGLISH));
+            }
+            return value != null ? value : UNKNOWN;
+        }
+
+        /**
+         * Reference types mapped to their lower case names. Used by {@link #getValueOf(String)} to avoid enumeration
+         * <code>valueOf</code> exception on not recognized reference types, which are common - for example <code>@media</code>.
+         */
+        private static final Map<String, Type> VALUES = new HashMap<>();
+
+        /**
+         * Maximum length of reference type name.
+         */
+        public static final int MAX_LENGTH;
+
+        static {
+            int maxLength = 0;
+            for (Type type : values()) {
+                VALUES.put(type.name().toLowerCase(Locale.ENGLISH), type);
+                maxLength = Math.max(maxLength, type.name().length());
             }
-            return UNKNOWN;
+            MAX_LENGTH = maxLength;
         }
 
         // WARN: keep variable names in sync with reference type constants
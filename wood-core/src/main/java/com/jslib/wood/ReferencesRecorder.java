@@ -0,0 +1,53 @@
+package com.jslib.wood;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reference handler decorator that records resource references, together with their source files, before delegating the
+ * actual handling. Used by build caches to replay, on cache hit, the resource references discovered when cached object was
+ * loaded, so that reference handler side effects are preserved.
+ * <p>
+ * Recording is not thread safe but, once recording completes, {@link #replay(IReferenceHandler)} can be safely invoked from
+ * multiple threads.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+class ReferencesRecorder implements IReferenceHandler {
+    private final IReferenceHandler referenceHandler;
+
+    /**
+     * Resource references in discovery order.
+     */
+    private final List<Reference> references = new ArrayList<>();
+
+    /**
+     * Source files for {@link #references}, with the same order.
+     */
+    private final List<FilePath> sourceFiles = new ArrayList<>();
+
+    public ReferencesRecorder(IReferenceHandler referenceHandler) {
+        this.referenceHandler = referenceHandler;
+    }
+
+    @Override
+    public String onResourceReference(Reference reference, FilePath sourceFile) throws IOException, WoodException {
+        references.add(reference);
+        sourceFiles.add(sourceFile);
+        return referenceHandler.onResourceReference(reference, sourceFile);
+    }
+
+    /**
+     * Invoke given reference handler for all recorded resource references, in discovery order. Returned values are ignored.
+     *
+     * @param handler reference handler.
+     * @throws IOException if handler IO operations fail.
+     */
+    public void replay(IReferenceHandler handler) throws IOException {
+        for (int i = 0; i < references.size(); ++i) {
+            handler.onResourceReference(references.get(i), sourceFiles.get(i));
+        }
+    }
+}
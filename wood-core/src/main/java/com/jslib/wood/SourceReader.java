@@ -1,6 +1,5 @@
 package com.jslib.wood;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
 
@@ -43,6 +42,14 @@ import com.jslib.wood.util.StringsUtil;
  * </ol>
  * Note that variables value getter, at point 3, implements recursive loop level guard.
  *
+ * <h5>Block Reading</h5>
+ * <p>
+ * Source reader keeps its own characters buffer and is optimized for block reading, see {@link #read(char[], int, int)}. Text
+ * runs without at-meta mark are copied in bulk; only when at-meta mark is discovered the reference is parsed, character by
+ * character. Reference type is recognized while parsing, using {@link Reference.Type#getValueOf(String)} lookup table; if
+ * reference type is not recognized - for example <code>@media</code> from CSS files, parsing is abandoned as soon as possible
+ * and already parsed characters are sent back to reader output unchanged.
+ *
  * <h5>Layout Parameters Processing</h5>
  * <p>
  * Component layouts can contain layout parameters defined by `@param/name` parameter reference syntax. For example a child
@@ -73,6 +80,16 @@ import com.jslib.wood.util.StringsUtil;
  * @since 1.0
  */
 public class SourceReader extends Reader {
+    /**
+     * Internal characters buffer size.
+     */
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Text replacing escaped at-meta mark: double <code>@@</code> is read as a single at-meta mark.
+     */
+    private static final String AT_MARK = String.valueOf(Reference.MARK);
+
     /**
      * Source file define the scope of resource references.
      */
@@ -89,34 +106,44 @@ public class SourceReader extends Reader {
     private final Reader reader;
 
     /**
-     * Resource reference builder.
+     * Characters buffer filled from decorated reader.
      */
-    private final MetaBuilder metaBuilder;
+    private final char[] buffer;
 
     /**
-     * Optional layout parameters map, null if source is not a layout file.
+     * Number of valid characters from {@link #buffer}.
      */
-    private LayoutParameters layoutParameters;
+    private int bufferLength;
 
     /**
-     * Current state determine how every character is processed.
+     * Index of the next character to process from {@link #buffer}.
      */
-    private State state;
+    private int bufferPosition;
 
     /**
-     * Current variable value.
+     * Resource reference builder. Collects at-meta reference characters, including at-meta mark.
      */
-    private String value;
+    private final StringBuilder metaBuilder;
 
     /**
-     * Current variable value index.
+     * Single character buffer used by {@link #read()}.
      */
-    private int valueIndex;
+    private final char[] singleChar;
+
+    /**
+     * Optional layout parameters map, null if source is not a layout file.
+     */
+    private LayoutParameters layoutParameters;
+
+    /**
+     * Current at-meta value, pending to be sent to reader output, or null if there is no pending value.
+     */
+    private String value;
 
     /**
-     * Store the character after at-meta, used to detect at-meta end.
+     * Current at-meta value index.
      */
-    private int charAfterMeta;
+    private int valueIndex;
 
     /**
      * Create source reader decorator for external defined reader. Source may contain resource references and expression
@@ -135,16 +162,14 @@ public class SourceReader extends Reader {
         assert sourceFile.isSynthetic() || sourceFile.exists() : "Source file argument does not exist";
         assert referenceHandler != null : "Reference handler argument is null";
 
-        Reader reader = sourceFile.isLayout() ? new LayoutReader(sourceReader, sourceFile) : sourceReader;
-        if (!(reader instanceof BufferedReader)) {
-            reader = new BufferedReader(reader);
-        }
-        this.reader = reader;
+        // source reader has its own buffer so there is no need for buffered reader
+        this.reader = sourceFile.isLayout() ? new LayoutReader(sourceReader, sourceFile) : sourceReader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.metaBuilder = new StringBuilder();
+        this.singleChar = new char[1];
 
         this.sourceFile = sourceFile;
         this.referenceHandler = referenceHandler;
-        this.metaBuilder = new MetaBuilder(sourceFile);
-        this.state = State.TEXT;
     }
 
     /**
@@ -189,95 +214,74 @@ public class SourceReader extends Reader {
     }
 
     /**
-     * This method is not needed for source reader logic but is required by reader interface. It just fills the buffer, reading
-     * char by char.
+     * Fill the given characters buffer from source text, resolving at-meta references on the fly. Text runs without at-meta
+     * mark are copied in bulk from internal buffer. When at-meta mark is discovered, parse at-meta reference and delegate
+     * {@link #referenceHandler} to process it; resulting value is copied to the given buffer, possible over multiple calls.
      *
-     * @param buffer target characters buffer,
+     * @param cbuf   target characters buffer,
      * @param offset buffer offset,
-     * @param length buffer length.
-     * @return the number of read characters.
+     * @param length maximum number of characters to read.
+     * @return the number of read characters or -1 if end of source text was reached.
+     * @throws IOException if decorated reader fails.
      */
     @Override
-    public int read(char[] buffer, int offset, int length) throws IOException {
-        int n = 0;
-        for (int i = offset; i < length; ++i, ++n) {
-            int c = read();
-            if (c == -1) {
-                return n > 0 ? n : c;
+    public int read(char[] cbuf, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        int count = 0;
+        while (count < length) {
+            if (value != null) {
+                int valueCount = Math.min(value.length() - valueIndex, length - count);
+                value.getChars(valueIndex, valueIndex + valueCount, cbuf, offset + count);
+                valueIndex += valueCount;
+                count += valueCount;
+                if (valueIndex == value.length()) {
+                    value = null;
+                }
+                continue;
+            }
+
+            if (bufferPosition == bufferLength && !fill()) {
+                break;
+            }
+
+            int start = bufferPosition;
+            int end = Math.min(bufferLength, start + length - count);
+            int index = start;
+            while (index < end && buffer[index] != Reference.MARK) {
+                ++index;
+            }
+
+            System.arraycopy(buffer, start, cbuf, offset + count, index - start);
+            count += index - start;
+            bufferPosition = index;
+
+            if (index < end) {
+                // skip at-meta mark
+                ++bufferPosition;
+                value = readMeta();
+                valueIndex = 0;
             }
-            buffer[i] = (char) c;
         }
-        return n;
+
+        return count > 0 ? count : -1;
     }
 
     /**
-     * Get character from decorated reader and process it accordingly current state value. On the fly updates the state.
-     * <p>
-     * If current reader position is outside at-meta reference this method just return the source text character. When discover
-     * at-meta mark, this method blocks, reading the at-meta content. Once at-meta reference parsed, delegates
-     * {@link #referenceHandler} to process at-meta reference that return a not null, not empty value.
-     * <p>
-     * At this point, this method start returning the value, char by char, instead of reading from decorated reader. When value
-     * is completely retrieved start processing again the source text characters.
+     * Get next character from source text, with at-meta references resolved. This method is implemented on top of
+     * {@link #read(char[], int, int)} but has a fast path for plain text characters.
      *
-     * @return source text or resource value character.
+     * @return source text or resource value character, or -1 if end of source text was reached.
+     * @throws IOException if decorated reader fails.
      */
     @Override
     public int read() throws IOException {
-        int c = -1;
-
-        switch (state) {
-            case TEXT:
-                c = reader.read();
-                if (c != Reference.MARK) {
-                    break;
-                }
-                state = State.AT_META;
-                metaBuilder.reset();
-                // fall through next REFERENCE state
-
-            case AT_META:
-                while (metaBuilder.add(c)) {
-                    c = reader.read();
-                }
-
-                Reference reference = metaBuilder.getReference();
-                if (reference != null) {
-                    if (reference.getType() == Reference.Type.PARAM) {
-                        if (layoutParameters == null) {
-                            throw new WoodException("Found @param at-meta but missing layout parameters for source file %s", sourceFile);
-                        }
-                        value = layoutParameters.getValue(sourceFile, reference.getName());
-                    } else {
-                        value = referenceHandler.onResourceReference(reference, sourceFile);
-                        if (sourceFile.isXmlLike()) {
-                            value = StringsUtil.escapeXML(value);
-                        }
-                    }
-                } else {
-                    // if built reference is not recognized sent it back to source stream unchanged since is valid to have reference
-                    // mark in source syntax, e.g. @media from CSS file
-                    value = metaBuilder.toString();
-                }
-
-                state = State.VALUE;
-                charAfterMeta = c;
-                valueIndex = 1;
-                if (value == null) {
-                    throw new WoodException("Null value for at-meta reference %s in source file %s", metaBuilder.toString(), sourceFile);
-                }
-                return value.charAt(0);
-
-            case VALUE:
-                if (valueIndex < value.length()) {
-                    return value.charAt(valueIndex++);
-                }
-                state = State.TEXT;
-                c = charAfterMeta;
-                break;
+        if (value == null && bufferPosition < bufferLength && buffer[bufferPosition] != Reference.MARK) {
+            return buffer[bufferPosition++];
         }
-
-        return c;
+        return read(singleChar, 0, 1) == -1 ? -1 : singleChar[0];
     }
 
     @Override
@@ -285,133 +289,102 @@ public class SourceReader extends Reader {
         reader.close();
     }
 
-    // --------------------------------------------------------------------------------------------
-    // Internal classes
-
     /**
-     * Source reader state machine.
+     * Fill internal buffer from decorated reader.
      *
-     * @author Iulian Rotaru
-     * @since 1.0
+     * @return false if decorated reader reached its end.
+     * @throws IOException if decorated reader fails.
      */
-    private enum State {
-        /**
-         * Source file text, outside reference.
-         */
-        TEXT,
-
-        /**
-         * At-meta reference is parsing.
-         */
-        AT_META,
-
-        /**
-         * At-meta reference is completely parsed and its value is returning, char by char.
-         */
-        VALUE
+    private boolean fill() throws IOException {
+        int length = reader.read(buffer, 0, buffer.length);
+        if (length == -1) {
+            return false;
+        }
+        bufferLength = length;
+        bufferPosition = 0;
+        return true;
     }
 
     /**
-     * At-meta reference builder is enacted when source reader discovers at-meta mark. It collects at-meta reference characters
-     * till end mark or EOF, see {@link #add(int)}. Also detects escape sequence - double <code>at</code> character.
+     * Get next character from internal buffer without consuming it, filling the buffer if necessary.
      *
-     * @author Iulian Rotaru
-     * @since 1.0
+     * @return next character or -1 if end of source text was reached.
+     * @throws IOException if decorated reader fails.
      */
-    private static class MetaBuilder {
-        /**
-         * Escape sequence.
-         */
-        private static final String ESCAPE = "@@";
-
-        private final FilePath sourceFile;
-
-        private final StringBuilder builder;
-
-        private Reference.Type referenceType;
-
-        /**
-         * Store reference separator index for reference instance creation, see {@link #getReference()}.
-         */
-        private int separatorIndex;
+    private int peek() throws IOException {
+        if (bufferPosition == bufferLength && !fill()) {
+            return -1;
+        }
+        return buffer[bufferPosition];
+    }
 
-        /**
-         * Flag true only is escape sequence (double <code>at</code> character) was discovered.
-         */
-        private boolean escape;
+    /**
+     * Parse at-meta reference and return its value. At-meta mark is already consumed. This method stops parsing as soon as it
+     * detects that at-meta is not a known reference and returns already parsed characters unchanged; characters not consumed
+     * are processed as plain source text. Also returns a single at-meta mark for escape sequence - double at-meta mark.
+     *
+     * @return at-meta reference value or at-meta original text if reference type is not recognized.
+     * @throws IOException if decorated reader fails.
+     * @throws WoodException if reference value is null or layout parameters are missing for <code>@param</code> reference.
+     */
+    private String readMeta() throws IOException {
+        int c = peek();
+        if (c == Reference.MARK) {
+            ++bufferPosition;
+            return AT_MARK;
+        }
 
-        public MetaBuilder(FilePath sourceFile) {
-            super();
-            this.sourceFile = sourceFile;
-            this.builder = new StringBuilder();
+        metaBuilder.setLength(0);
+        metaBuilder.append(Reference.MARK);
+        while (isTypeChar(c) && metaBuilder.length() <= Reference.Type.MAX_LENGTH) {
+            metaBuilder.append((char) c);
+            ++bufferPosition;
+            c = peek();
+        }
+        if (c != Reference.SEPARATOR) {
+            // not a reference, e.g. @media from CSS file; valid to have reference mark in source syntax
+            return metaBuilder.toString();
         }
 
-        public void reset() {
-            builder.setLength(0);
-            referenceType = null;
-            separatorIndex = 0;
+        Reference.Type type = Reference.Type.getValueOf(metaBuilder.substring(1));
+        if (type == Reference.Type.UNKNOWN) {
+            return metaBuilder.toString();
         }
 
-        /**
-         * Store reference character and return true if collecting is to be continuing. Returns false if reference end mark or
-         * end of file is detected. On the fly updates {@link #separatorIndex}.
-         * <p>
-         * Also return false if escape sequence (double <code>at</code> character) was discovered. In this case builder content
-         * is replaced with a single <code>at</code> character.
-         * <p>
-         * This method is designed for usage in a <code>while</code> loop, see sample code.
-         *
-         * <pre>
-         * while (referenceBuilder.add(c)) {
-         * 	c = reader.read();
-         * }
-         * </pre>
-         *
-         * @param c reference character to add.
-         * @return true if reference collecting is to be continuing.
-         */
-        public boolean add(int c) {
-            if (escape) {
-                builder.replace(0, builder.length(), "@");
-                return false;
-            }
-            if (c == -1 || (referenceType != null && !referenceType.isChar(c))) {
-                return false;
-            }
+        metaBuilder.append((char) c);
+        ++bufferPosition;
+        int separatorIndex = metaBuilder.length();
+        while ((c = peek()) != -1 && type.isChar(c)) {
+            metaBuilder.append((char) c);
+            ++bufferPosition;
+        }
 
-            // detect separator for both resource reference and expression, that is, '/' or '('
-            // if expression separator found initialize expression flag and expression nesting level to 1
-            if (separatorIndex == 0) {
-                if (c == Reference.SEPARATOR) {
-                    referenceType = Reference.Type.getValueOf(builder.substring(1));
-                    separatorIndex = builder.length();
-                }
+        Reference reference = new Reference(sourceFile, type, metaBuilder.substring(separatorIndex));
+        String value;
+        if (type == Reference.Type.PARAM) {
+            if (layoutParameters == null) {
+                throw new WoodException("Found @param at-meta but missing layout parameters for source file %s", sourceFile);
             }
-
-            builder.append((char) c);
-            if (ESCAPE.contentEquals(builder)) {
-                escape = true;
+            value = layoutParameters.getValue(sourceFile, reference.getName());
+        } else {
+            value = referenceHandler.onResourceReference(reference, sourceFile);
+            if (value != null && sourceFile.isXmlLike()) {
+                value = StringsUtil.escapeXML(value);
             }
-            return true;
         }
-
-        /**
-         * Get at-meta reference instance. Create and return a new at-meta reference instance. Return null on at-meta escape or
-         * not recognized reference type; in this case internal builder still contains original source text.
-         *
-         * @return newly created reference instance or null.
-         */
-        public Reference getReference() {
-            if (escape || separatorIndex == 0 || referenceType == Reference.Type.UNKNOWN) {
-                return null;
-            }
-            String name = builder.substring(separatorIndex + 1);
-            return new Reference(sourceFile, referenceType, name);
+        if (value == null) {
+            throw new WoodException("Null value for at-meta reference %s in source file %s", metaBuilder, sourceFile);
         }
+        return value;
+    }
 
-        @Override
-        public String toString() {
-            return builder.toString();
-        }
+    /**
+     * Test if character is valid for reference type name. All reference types are named with US-ASCII letters.
+     *
+     * @param c character to test.
+     * @return true if character is valid for reference type name.
+     */
+    private static boolean isTypeChar(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
     }
 }
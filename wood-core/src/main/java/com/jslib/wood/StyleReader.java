@@ -114,17 +114,18 @@ public class StyleReader extends Reader {
         if (state == State.BASE_CONTENT) {
             int readCount = reader.read(buffer, offset, length);
             if (readCount != -1) {
-                lastProcessedChar = buffer[readCount - 1];
+                if (readCount > 0) {
+                    lastProcessedChar = buffer[offset + readCount - 1];
+                }
                 return readCount;
             }
             // end of stream (EOS) on base content reading
             state = State.NEXT_VARIANT;
             if (lastProcessedChar != '\n') {
                 // inject line separator if base style file is not properly ended with new line
-                char[] lineSeparator = System.lineSeparator().toCharArray();
-                assert lineSeparator.length < length : "Line separator length smaller than style reader buffer size";
-                System.arraycopy(lineSeparator, 0, buffer, offset, lineSeparator.length);
-                return lineSeparator.length;
+                assert LINE_SEPARATOR.length < length : "Line separator length smaller than style reader buffer size";
+                System.arraycopy(LINE_SEPARATOR, 0, buffer, offset, LINE_SEPARATOR.length);
+                return LINE_SEPARATOR.length;
             }
         }
 
@@ -202,11 +203,9 @@ public class StyleReader extends Reader {
         if (sourceIndex == source.length()) {
             return -1;
         }
-        int readCount = 0;
-        for (int i = offset; sourceIndex < source.length() && i < length; sourceIndex++, i++) {
-            buffer[i] = source.charAt(sourceIndex);
-            readCount++;
-        }
+        int readCount = Math.min(source.length() - sourceIndex, length);
+        source.getChars(sourceIndex, sourceIndex + readCount, buffer, offset);
+        sourceIndex += readCount;
         return readCount;
     }
 
@@ -252,12 +251,12 @@ public class StyleReader extends Reader {
     }
 
     /**
-     * Media section header.
+     * Media section header. Header builder is sized for usual header length.
      */
     private static String HEADER(String media, String expression) {
         assert media != null && !media.isEmpty() : "Media argument is null or empty";
         assert expression != null : "Expression argument is null";
-        StringBuilder header = new StringBuilder();
+        StringBuilder header = new StringBuilder(HEADER_CAPACITY + media.length() + expression.length());
         header.append(System.lineSeparator());
         header.append("@media ");
         header.append(media);
@@ -270,6 +269,10 @@ public class StyleReader extends Reader {
         return header.toString();
     }
 
+    private static final int HEADER_CAPACITY = 32;
+
+    private static final char[] LINE_SEPARATOR = System.lineSeparator().toCharArray();
+
     /**
      * Media section footer.
      */
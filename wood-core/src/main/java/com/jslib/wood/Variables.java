@@ -1,17 +1,21 @@
 package com.jslib.wood;
 
+import com.jslib.wood.impl.FileType;
 import com.jslib.wood.impl.ReferencesResolver;
 import com.jslib.wood.lang.ReaderInputStream;
+import com.jslib.wood.util.ParsersUtil;
 import com.jslib.wood.util.StringsUtil;
 import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
-import javax.xml.parsers.SAXParser;
-import javax.xml.parsers.SAXParserFactory;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Stack;
@@ -50,29 +54,29 @@ public class Variables {
     private final Map<String, Map<Reference, String>> languageValueMaps = new HashMap<>();
 
     /**
-     * XML stream parser for files containing variables definition.
+     * Source files loaded by this variables instance, in loading order. Used by incremental build to track variables changes.
      */
-    private final SAXParser saxParser;
+    private final List<FilePath> files = new ArrayList<>();
+
+    /**
+     * Compiled variable values, one table per language, created on first value retrieval after loading. Every language table
+     * already contains default language values, overridden by language specific ones, so that value retrieval is a single hash
+     * lookup. This field is reset when variables are loaded.
+     */
+    private volatile Map<String, Map<Reference, Value>> valueTables;
 
     /**
      * Stack for references nesting level trace, used for circular dependencies' detection. It is global per execution thread.
      * Nesting level trace logic assume references tree iteration occurs in a single thread.
      */
-    private static final ThreadLocal<Stack<String>> levelTraceTLS = new ThreadLocal<>();
+    private static final ThreadLocal<Stack<Trace>> levelTraceTLS = new ThreadLocal<>();
 
     /**
      * Create empty variables instance.
      *
-     * @throws WoodException if SAXA parser initialization fails.
      */
     public Variables() {
-        try {
-            SAXParserFactory factory = SAXParserFactory.newInstance();
-            this.saxParser = factory.newSAXParser();
-            this.referenceResolver = new ReferencesResolver();
-        } catch (Exception e) {
-            throw new WoodException(e);
-        }
+        this.referenceResolver = new ReferencesResolver();
     }
 
     /**
@@ -83,7 +87,6 @@ public class Variables {
      * constructor does not load values and resulting variables instance is empty.
      *
      * @param dir directory to scan for variables definition files.
-     * @throws WoodException if SAXA parser initialization fails.
      * @see #loadDir(FilePath)
      */
     public Variables(FilePath dir) {
@@ -103,6 +106,8 @@ public class Variables {
      */
     public void reload(FilePath dir) {
         languageValueMaps.clear();
+        files.clear();
+        valueTables = null;
         loadDir(dir);
     }
 
@@ -148,8 +153,8 @@ public class Variables {
      * {@link #languageValueMaps}. Key language are retrieved from given file variants; if file is not localized uses project
      * default language.
      * <p>
-     * Variables definition files are XML files and this worker method uses {@link #saxParser} with a new {@link SAXHandler}
-     * instance to perform the actual parsing.
+     * Variables definition files are XML files and this worker method uses a pooled SAX parser, see {@link ParsersUtil}, with
+     * a new {@link SAXHandler} instance to perform the actual parsing.
      * <p>
      * Variables definition file is a standard XML with root element one of the {@link Reference.Type#variables()} values. It is
      * legal that provided <code>file</code> parameter to not point to a variables definition file. If this is the case SAX
@@ -168,13 +173,34 @@ public class Variables {
             values = new HashMap<>();
         }
 
-        SAXHandler saxHandler = new SAXHandler(file, values);
-        try (InputStream stream = new ReaderInputStream(file.getReader())) {
-            saxParser.parse(stream, saxHandler);
-            languageValueMaps.put(language, values);
-        } catch (NoVariablesDefinitionException unused) {
-            // is a legal condition to have XML files that are not variables definition
+        files.add(file);
+        // use binary snapshot if variables definition file was not changed since last parsing
+        Map<Reference, String> fileValues = VariablesSnapshot.load(file);
+        if (fileValues == null) {
+            fileValues = new HashMap<>();
+            SAXHandler saxHandler = new SAXHandler(file, fileValues);
+            try (InputStream stream = new ReaderInputStream(file.getReader())) {
+                ParsersUtil.parse(new InputSource(stream), saxHandler);
+            } catch (NoVariablesDefinitionException unused) {
+                // is a legal condition to have XML files that are not variables definition
+                return;
+            }
+            VariablesSnapshot.write(file, fileValues);
         }
+
+        values.putAll(fileValues);
+        languageValueMaps.put(language, values);
+        valueTables = null;
+    }
+
+    /**
+     * Get source files loaded by this variables instance. Returned list is not modifiable.
+     *
+     * @return variables source files, possible empty.
+     * @see #files
+     */
+    public List<FilePath> getFiles() {
+        return Collections.unmodifiableList(files);
     }
 
     // --------------------------------------------------------------------------------------------
@@ -225,43 +251,139 @@ public class Variables {
      * @throws WoodException if circular dependency is detected on references' resolver.
      */
     public String get(String language, Reference reference, FilePath source, IReferenceHandler handler) throws WoodException {
-        String value = null;
-
-        // 1. attempt to get value from this variables instance, for requested language
-        Map<Reference, String> values = languageValueMaps.get(language);
-        if (values != null) {
-            value = values.get(reference);
-        }
-
-        // 2. if not found try to get value for default language
-        if (value == null) {
-            values = languageValueMaps.get(null);
-            if (values != null) {
-                value = values.get(reference);
-            }
-        }
+        // 1. and 2. language table already contains default language values, see compile()
+        Map<Reference, Value> values = valueTable(language);
+        Value value = values != null ? values.get(reference) : null;
 
         // 3. if still value not found or if value is empty return null
         if (value == null || value.isEmpty()) {
             return null;
         }
+        // value without nested references is returned as it is
+        if (value.isLiteral()) {
+            return value.getText();
+        }
 
         // 4. if value found attempt to resolve nested references; guard resolver invocation against circular dependencies
-        Stack<String> levelTrace = levelTrace();
-        String trace = String.format("%s:%s", source, reference);
-        if (levelTrace.contains(trace)) {
+        Stack<Trace> levelTrace = levelTrace();
+        Trace trace = new Trace(source, reference);
+        if (value.getCircularTrace() != null || levelTrace.contains(trace)) {
             StringBuilder builder = new StringBuilder("Circular variable references. Trace stack follows:\n");
-            for (String s : levelTrace) {
-                builder.append(StringsUtil.concat("\t- ", s, "\n"));
+            for (Trace t : levelTrace) {
+                builder.append(StringsUtil.concat("\t- ", t, "\n"));
+            }
+            if (value.getCircularTrace() != null) {
+                builder.append(value.getCircularTrace());
             }
             throw new WoodException(builder.toString());
         }
         levelTrace.push(trace);
 
-        // resolve nested references; see resolver API
-        value = referenceResolver.parse(value, source, handler);
-        levelTrace.pop();
-        return value;
+        try {
+            // resolve nested references; value not compiled is processed by references resolver, see resolver API
+            return value.isCompiled() ? value.resolve(source, handler) : referenceResolver.parse(value.getText(), source, handler);
+        } finally {
+            levelTrace.pop();
+        }
+    }
+
+    /**
+     * Get compiled values table for requested language or default language table if requested language is missing. Compile
+     * loaded values if this is the first retrieval after loading. Returns null if there are no default language values.
+     *
+     * @param language optional language, null for default.
+     * @return language values table, possible null.
+     */
+    private Map<Reference, Value> valueTable(String language) {
+        Map<String, Map<Reference, Value>> tables = valueTables;
+        if (tables == null) {
+            synchronized (this) {
+                tables = valueTables;
+                if (tables == null) {
+                    tables = compile();
+                    valueTables = tables;
+                }
+            }
+        }
+        Map<Reference, Value> table = tables.get(language);
+        return table != null ? table : tables.get(null);
+    }
+
+    /**
+     * Compile loaded values into language tables. Language tables are flattened: every language table contains default
+     * language values overridden by language specific values. Values are compiled into literal and reference segments, see
+     * {@link Value#compile(String)}, and circular references between values from the same table are detected here, once.
+     * <p>
+     * Values are compiled separately for every table since circular references detection result depends on table content.
+     *
+     * @return compiled values tables mapped to language.
+     */
+    private Map<String, Map<Reference, Value>> compile() {
+        Map<String, Map<Reference, Value>> tables = new HashMap<>();
+        Map<Reference, String> defaultValues = languageValueMaps.getOrDefault(null, Collections.emptyMap());
+        for (Map.Entry<String, Map<Reference, String>> entry : languageValueMaps.entrySet()) {
+            if (entry.getKey() == null) {
+                continue;
+            }
+            Map<Reference, Value> table = new HashMap<>();
+            defaultValues.forEach((reference, text) -> table.put(reference, Value.compile(text)));
+            entry.getValue().forEach((reference, text) -> table.put(reference, Value.compile(text)));
+            detectCircularReferences(table);
+            tables.put(entry.getKey(), table);
+        }
+
+        Map<Reference, Value> table = new HashMap<>();
+        defaultValues.forEach((reference, text) -> table.put(reference, Value.compile(text)));
+        detectCircularReferences(table);
+        tables.put(null, table);
+        return tables;
+    }
+
+    /**
+     * Mark values from table that are part of circular references chains. Only variable references resolved on the same table
+     * are considered; circular references through external values are detected at value retrieval.
+     *
+     * @param table compiled values table.
+     */
+    private static void detectCircularReferences(Map<Reference, Value> table) {
+        // visited reference state is false while references subtree is processed and true after
+        Map<Reference, Boolean> visited = new HashMap<>();
+        List<Reference> path = new ArrayList<>();
+        for (Reference reference : table.keySet()) {
+            detectCircularReferences(table, reference, visited, path);
+        }
+    }
+
+    private static void detectCircularReferences(Map<Reference, Value> table, Reference reference, Map<Reference, Boolean> visited, List<Reference> path) {
+        Boolean done = visited.get(reference);
+        if (done != null) {
+            if (!done) {
+                // reference is already on current path; all references from its position to path end create a cycle
+                List<Reference> cycle = path.subList(path.indexOf(reference), path.size());
+                StringBuilder trace = new StringBuilder();
+                for (Reference cycleReference : cycle) {
+                    trace.append(StringsUtil.concat("\t- ", cycleReference, "\n"));
+                }
+                trace.append(StringsUtil.concat("\t- ", reference, "\n"));
+                for (Reference cycleReference : cycle) {
+                    table.get(cycleReference).setCircularTrace(trace.toString());
+                }
+            }
+            return;
+        }
+
+        Value value = table.get(reference);
+        visited.put(reference, false);
+        if (value != null && value.isCompiled() && !value.isLiteral()) {
+            path.add(reference);
+            for (Object segment : value.getSegments()) {
+                if (segment instanceof Reference && ((Reference) segment).isVariable()) {
+                    detectCircularReferences(table, (Reference) segment, visited, path);
+                }
+            }
+            path.remove(path.size() - 1);
+        }
+        visited.put(reference, true);
     }
 
     /**
@@ -270,8 +392,8 @@ public class Variables {
      *
      * @return nesting level trace stack.
      */
-    private static Stack<String> levelTrace() {
-        Stack<String> levelTrace = levelTraceTLS.get();
+    private static Stack<Trace> levelTrace() {
+        Stack<Trace> levelTrace = levelTraceTLS.get();
         if (levelTrace == null) {
             levelTrace = new Stack<>();
             levelTraceTLS.set(levelTrace);
@@ -282,6 +404,207 @@ public class Variables {
     // --------------------------------------------------------------------------------------------
     // Internal types
 
+    /**
+     * Variable value compiled into literal and reference segments. Compilation follows {@link SourceReader} at-meta syntax:
+     * double at-meta mark is escaped to a single mark and at-meta with not recognized type is kept as literal. A value without
+     * references is a literal value and is returned as it is, without resolving.
+     * <p>
+     * There are values that are not compiled, e.g. values with layout parameter references or with invalid references syntax;
+     * these values are resolved by {@link ReferencesResolver} on every retrieval, that takes care of error reporting.
+     *
+     * @author Iulian Rotaru
+     * @since 1.0
+     */
+    private static class Value {
+        /**
+         * Original value text.
+         */
+        private final String text;
+
+        /**
+         * Value segments: string literals and references, in value text order. Null if value has no references or if value is
+         * not compiled.
+         */
+        private final List<Object> segments;
+
+        private final boolean compiled;
+
+        /**
+         * Trace of circular references chain this value is part of, or null if value is not in a circular references chain.
+         */
+        private String circularTrace;
+
+        private Value(String text, List<Object> segments, boolean compiled) {
+            this.text = text;
+            this.segments = segments;
+            this.compiled = compiled;
+        }
+
+        public static Value compile(String text) {
+            List<Object> segments = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+
+            int length = text.length();
+            int index = 0;
+            while (index < length) {
+                char c = text.charAt(index++);
+                if (c != Reference.MARK) {
+                    literal.append(c);
+                    continue;
+                }
+                if (index < length && text.charAt(index) == Reference.MARK) {
+                    // escape sequence
+                    literal.append(c);
+                    ++index;
+                    continue;
+                }
+
+                int typeIndex = index;
+                while (index < length && isTypeChar(text.charAt(index)) && index - typeIndex < Reference.Type.MAX_LENGTH) {
+                    ++index;
+                }
+                Reference.Type type = Reference.Type.UNKNOWN;
+                if (index < length && text.charAt(index) == Reference.SEPARATOR) {
+                    type = Reference.Type.getValueOf(text.substring(typeIndex, index));
+                }
+                if (type == Reference.Type.UNKNOWN) {
+                    // not a reference; at-meta and parsed characters are literal
+                    literal.append(c).append(text, typeIndex, index);
+                    continue;
+                }
+
+                int nameIndex = ++index;
+                while (index < length && type.isChar(text.charAt(index))) {
+                    ++index;
+                }
+                if (index == nameIndex || type == Reference.Type.PARAM) {
+                    return new Value(text, null, false);
+                }
+                Reference reference;
+                try {
+                    reference = new Reference(type, text.substring(nameIndex, index));
+                } catch (WoodException e) {
+                    return new Value(text, null, false);
+                }
+
+                if (literal.length() > 0) {
+                    segments.add(literal.toString());
+                    literal.setLength(0);
+                }
+                segments.add(reference);
+            }
+
+            if (segments.isEmpty()) {
+                return new Value(literal.toString(), null, true);
+            }
+            if (literal.length() > 0) {
+                segments.add(literal.toString());
+            }
+            return new Value(text, segments, true);
+        }
+
+        private static boolean isTypeChar(char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+
+        /**
+         * Resolve value references using given reference handler, the same way {@link SourceReader} does.
+         *
+         * @param source  source file that define the scope of the variable reference,
+         * @param handler resource references handler.
+         * @return value with references resolved.
+         * @throws WoodException if reference handler fails or returns null value.
+         */
+        public String resolve(FilePath source, IReferenceHandler handler) {
+            // variable file is a synthetic file used only to convey information about related component path
+            FilePath varFile = source.isSynthetic() ? source : source.cloneTo(FileType.VAR);
+
+            StringBuilder builder = new StringBuilder();
+            for (Object segment : segments) {
+                if (segment instanceof String) {
+                    builder.append((String) segment);
+                    continue;
+                }
+                Reference reference = (Reference) segment;
+                String value;
+                try {
+                    value = handler.onResourceReference(reference, varFile);
+                } catch (IOException e) {
+                    throw new WoodException(e);
+                }
+                if (value == null) {
+                    throw new WoodException("Null value for at-meta reference %s in source file %s", reference, varFile);
+                }
+                builder.append(varFile.isXmlLike() ? StringsUtil.escapeXML(value) : value);
+            }
+            return builder.toString();
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public List<Object> getSegments() {
+            return segments;
+        }
+
+        public boolean isEmpty() {
+            return text.isEmpty();
+        }
+
+        public boolean isCompiled() {
+            return compiled;
+        }
+
+        public boolean isLiteral() {
+            return compiled && segments == null;
+        }
+
+        public void setCircularTrace(String circularTrace) {
+            this.circularTrace = circularTrace;
+        }
+
+        public String getCircularTrace() {
+            return circularTrace;
+        }
+    }
+
+    /**
+     * Entry on references nesting level trace, see {@link #levelTraceTLS}.
+     *
+     * @author Iulian Rotaru
+     * @since 1.0
+     */
+    private static class Trace {
+        private final FilePath source;
+        private final Reference reference;
+
+        public Trace(FilePath source, Reference reference) {
+            this.source = source;
+            this.reference = reference;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, reference);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            Trace other = (Trace) obj;
+            return Objects.equals(source, other.source) && reference.equals(other.reference);
+        }
+
+        @Override
+        public String toString() {
+            return source + ":" + reference;
+        }
+    }
+
     /**
      * Scanner for variable values definition file. Variables values are stored into XML files processed by a SAX parser. This
      * scanner actually implement SAX parser handler.
@@ -0,0 +1,243 @@
+package com.jslib.wood;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Binary snapshot for values loaded from a variables definition file, see {@link Variables#load(FilePath)}. Parsing large
+ * variables files, e.g. translation catalogs, with SAX parser is costly and is performed on every build and on every preview
+ * variables update. Snapshot is written after variables definition file parsing and is used instead of XML parsing as long as
+ * source file is not changed.
+ * <p>
+ * There is a snapshot file for every variables definition file, that is, per directory and language. Snapshot files are stored
+ * into a hidden directory, next to project build directory, see {@link CT#VARIABLES_SNAPSHOT_DIR}, mirroring source files
+ * hierarchy. Snapshot file is valid if source file modification time and length match the values recorded on snapshot header.
+ * <p>
+ * Source file CRC32 checksum is recorded too but it is verified only when modification time is not reliable: file system does
+ * not report it or source file was modified too close to snapshot writing, so that a change made in the same file system clock
+ * tick is not visible on modification time, see {@link #MODIFIED_RESOLUTION}. This way regular snapshot loading does not read
+ * source file content.
+ * <p>
+ * Snapshot file has a fixed size header, an index and a string table. Index has an entry for every variable with offset and
+ * length of variable name and value into string table. String table contains all names and values characters, concatenated.
+ * Snapshot files are small and are read entirely into a heap buffer.
+ *
+ * <pre>
+ * snapshot = header index table
+ * header   = MAGIC VERSION modified length checksum type-length type count
+ * index    = count * (name-offset name-length value-offset value-length)
+ * table    = table-length *CHAR
+ * </pre>
+ * <p>
+ * Snapshot is an optimization: failing to read or write a snapshot file is not an error and variables definition file is
+ * parsed as usual. Also, snapshot is not used if source file is not part of a project, e.g. on tests with mock files.
+ * <p>
+ * This class is thread safe. Snapshot file is written on a temporary file and moved to its final name.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+final class VariablesSnapshot {
+    /**
+     * Snapshot file signature, <code>WVAR</code> ASCII characters.
+     */
+    private static final int MAGIC = 0x57564152;
+
+    /**
+     * Snapshot format version. Snapshot files with different version are ignored and overwritten.
+     */
+    private static final int VERSION = 1;
+
+    private static final String EXTENSION = ".bin";
+
+    /**
+     * Coarsest file modification time resolution, in milliseconds, on supported file systems. If source file was modified
+     * within this interval before snapshot writing, modification time is not reliable and checksum is verified.
+     */
+    private static final long MODIFIED_RESOLUTION = 2000;
+
+    private VariablesSnapshot() {
+    }
+
+    /**
+     * Load variable values from snapshot of given variables definition file. Returns null if snapshot file is missing,
+     * source file was changed after snapshot creation or snapshot file is not valid.
+     *
+     * @param file variables definition file.
+     * @return variable values or null if snapshot is not usable.
+     */
+    public static Map<Reference, String> load(FilePath file) {
+        File snapshotFile = snapshotFile(file);
+        if (snapshotFile == null || !snapshotFile.isFile()) {
+            return null;
+        }
+        File sourceFile = file.toFile();
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotFile.toPath()));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            long modified = sourceFile.lastModified();
+            if (buffer.getLong() != modified || buffer.getLong() != sourceFile.length()) {
+                return null;
+            }
+            long checksum = buffer.getLong();
+            if (modified == 0 || snapshotFile.lastModified() - modified < MODIFIED_RESOLUTION) {
+                if (checksum != checksum(sourceFile)) {
+                    return null;
+                }
+            }
+
+            char[] typeName = new char[buffer.getInt()];
+            buffer.asCharBuffer().get(typeName);
+            buffer.position(buffer.position() + 2 * typeName.length);
+            Reference.Type type = Reference.Type.getValueOf(new String(typeName));
+            if (type == Reference.Type.UNKNOWN) {
+                return null;
+            }
+
+            int count = buffer.getInt();
+            int[] index = new int[4 * count];
+            buffer.asIntBuffer().get(index);
+            buffer.position(buffer.position() + 4 * index.length);
+
+            int tableLength = buffer.getInt();
+            CharBuffer table = buffer.asCharBuffer();
+            if (table.remaining() < tableLength) {
+                return null;
+            }
+
+            Map<Reference, String> values = new HashMap<>();
+            for (int i = 0; i < index.length; i += 4) {
+                String name = string(table, index[i], index[i + 1]);
+                String value = string(table, index[i + 2], index[i + 3]);
+                values.put(new Reference(file, type, name), value);
+            }
+            return values;
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            // snapshot is an optimization; if not usable fall back to variables definition file parsing
+            return null;
+        }
+    }
+
+    /**
+     * Write snapshot for variable values loaded from given variables definition file. All values should have the same type,
+     * as variables definition file does. Failing to write snapshot is silently ignored.
+     *
+     * @param file   variables definition file,
+     * @param values variable values loaded from file.
+     */
+    public static void write(FilePath file, Map<Reference, String> values) {
+        File snapshotFile = snapshotFile(file);
+        if (snapshotFile == null || values.isEmpty()) {
+            return;
+        }
+        File sourceFile = file.toFile();
+        String typeName = values.keySet().iterator().next().getType().name();
+
+        StringBuilder table = new StringBuilder();
+        int[] index = new int[4 * values.size()];
+        int i = 0;
+        for (Map.Entry<Reference, String> entry : values.entrySet()) {
+            i = addString(table, index, i, entry.getKey().getName());
+            i = addString(table, index, i, entry.getValue());
+        }
+
+        File snapshotDir = snapshotFile.getParentFile();
+        File temporaryFile = null;
+        try {
+            if (!snapshotDir.isDirectory() && !snapshotDir.mkdirs() && !snapshotDir.isDirectory()) {
+                return;
+            }
+            // source file attributes are read before checksum so that a concurrent change invalidates snapshot
+            long modified = sourceFile.lastModified();
+            long length = sourceFile.length();
+            long checksum = checksum(sourceFile);
+
+            temporaryFile = File.createTempFile(snapshotFile.getName(), null, snapshotDir);
+            try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+                stream.writeInt(MAGIC);
+                stream.writeInt(VERSION);
+                stream.writeLong(modified);
+                stream.writeLong(length);
+                stream.writeLong(checksum);
+                stream.writeInt(typeName.length());
+                stream.writeChars(typeName);
+                stream.writeInt(values.size());
+                for (int value : index) {
+                    stream.writeInt(value);
+                }
+                stream.writeInt(table.length());
+                stream.writeChars(table.toString());
+            }
+            Files.move(temporaryFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UnsupportedOperationException ignored) {
+            // snapshot is an optimization; variables definition file will be parsed again on next loading
+        } finally {
+            if (temporaryFile != null && temporaryFile.exists()) {
+                temporaryFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Get snapshot file for given variables definition file or null if file is not part of a project.
+     *
+     * @param file variables definition file.
+     * @return snapshot file, possible null.
+     */
+    static File snapshotFile(FilePath file) {
+        Project project = file.getProject();
+        if (project == null || project.getBuildDir() == null || file.toFile() == null) {
+            return null;
+        }
+        File buildDir = project.getBuildDir().toFile().getAbsoluteFile();
+        File snapshotDir = new File(buildDir.getParentFile(), CT.VARIABLES_SNAPSHOT_DIR);
+        return new File(snapshotDir, file.value() + EXTENSION);
+    }
+
+    private static int addString(StringBuilder table, int[] index, int i, String string) {
+        index[i++] = table.length();
+        index[i++] = string.length();
+        table.append(string);
+        return i;
+    }
+
+    private static String string(CharBuffer table, int offset, int length) {
+        char[] chars = new char[length];
+        ((CharBuffer) table.duplicate().position(offset)).get(chars);
+        return new String(chars);
+    }
+
+    /**
+     * Compute CRC32 checksum for file content.
+     *
+     * @param file source file.
+     * @return file content checksum.
+     * @throws IOException if file reading fails.
+     */
+    private static long checksum(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream stream = new CheckedInputStream(Files.newInputStream(file.toPath()), crc)) {
+            byte[] buffer = new byte[8192];
+            while (stream.read(buffer) != -1) {
+                // checksum is updated by checked input stream
+            }
+        }
+        return crc.getValue();
+    }
+}
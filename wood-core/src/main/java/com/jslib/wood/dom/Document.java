@@ -1,7 +1,10 @@
 package com.jslib.wood.dom;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 
 import javax.xml.xpath.XPathExpressionException;
 
@@ -72,6 +75,23 @@ public interface Document {
      */
     Element importElement(Element el);
 
+    /**
+     * Create a deep copy of this document. Returned document is completely independent of this one and can be altered without
+     * side effects on source document.
+     * <p>
+     * Default implementation creates an empty document of the same kind and imports root element into it. Implementations
+     * are encouraged to override it with a native deep clone.
+     *
+     * @return newly created document, deep copy of this document.
+     */
+    default Document cloneDocument() {
+        DocumentBuilder builder = DocumentBuilder.getInstance();
+        Element root = getRoot();
+        Document document = isXML() ? builder.createXML(root.getTag()) : builder.createHTML();
+        document.getRoot().replace(document.importElement(root));
+        return document;
+    }
+
     /**
      * Retrieve the root of this document tree.
      *
@@ -220,6 +240,10 @@ public interface Document {
      * <li>close-write: boolean flag, default to false. If true close the writer after serialization complete.
      * <li>xml-declaration: boolean flag, default to true. Controls if XML declaration is included before document root.
      * If this flag is false XML declaration is not included into serialized XML stream.
+     * <li>minify: boolean flag, default to false. If true write minified HTML, with no indentation and with insignificant
+     * white space removed. Text from raw and preformatted elements is not changed.
+     * <li>omit-optional-quotes: boolean flag, default to false. If true and minify flag is enabled, write attribute values
+     * without quotes, where HTML syntax allows it.
      * </ul>
      * It is the caller responsibility to provide correct flags order and type.
      *
@@ -229,6 +253,28 @@ public interface Document {
      */
     void serialize(Writer writer, Object... flags) throws IOException;
 
+    /**
+     * Serialize this document to given output stream, using UTF-8 encoding, and optionally close the stream. Supported flags
+     * are the same as for {@link #serialize(Writer, Object...)}: close-stream, xml-declaration, minify and
+     * omit-optional-quotes, in this order.
+     * <p>
+     * Default implementation writes through an UTF-8 output stream writer. Implementations are encouraged to override it and
+     * encode characters directly into serializer buffer, with no intermediate writer.
+     *
+     * @param stream destination output stream,
+     * @param flags  variable number of optional flags.
+     * @throws IOException if writing operation fails.
+     */
+    default void serialize(OutputStream stream, Object... flags) throws IOException {
+        boolean closeStream = flags.length > 0 && (boolean) flags[0];
+        Writer writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        serialize(writer, flags);
+        if (!closeStream) {
+            // if close flag is set writer is already closed, which also flushes it
+            writer.flush();
+        }
+    }
+
     /**
      * Remove namespace declaration for requested namespace URI. Usually there is a single namespace declaration on an XML
      * document. Anyway, if there are multiple declarations for the same namespace URI this method remove them all. This
@@ -2,15 +2,15 @@ package com.jslib.wood.dom;
 
 import org.apache.html.dom.HTMLDocumentImpl;
 import org.cyberneko.html.parsers.DOMParser;
+import com.jslib.wood.util.ParsersUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.EntityResolver;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -43,9 +43,13 @@ final class DocumentBuilderImpl implements DocumentBuilder {
      */
     private static final String FEAT_NAMESPACES = "http://xml.org/sax/features/namespaces";
     /**
-     * XML parser feature for schema validation.
+     * Entity resolver for XML documents, stateless and shared by all parsing.
      */
-    private static final String FEAT_SCHEMA_VALIDATION = "http://apache.org/xml/features/validation/schema";
+    private static final EntityResolver entityResolver = new EntityResolverImpl();
+    /**
+     * Error handler for XML documents, stateless and shared by all parsing.
+     */
+    private static final ErrorHandler errorHandler = new ErrorHandlerImpl();
 
     private DocumentBuilderImpl() {
         log.trace("DocumentBuilderImpl()");
@@ -54,7 +58,7 @@ final class DocumentBuilderImpl implements DocumentBuilder {
     @Override
     public Document createXML(String root) {
         assert root != null && !root.isEmpty() : "Root element argument is null or empty";
-        org.w3c.dom.Document doc = getDocumentBuilder(false).newDocument();
+        org.w3c.dom.Document doc = ParsersUtil.newDocument();
         doc.appendChild(doc.createElement(root));
         return new DocumentImpl(doc);
     }
@@ -118,7 +122,7 @@ final class DocumentBuilderImpl implements DocumentBuilder {
      */
     private static Document loadXML(InputSource source, boolean useNamespace) throws IOException, SAXException {
         try {
-            org.w3c.dom.Document doc = getDocumentBuilder(useNamespace).parse(source);
+            org.w3c.dom.Document doc = ParsersUtil.parseDocument(source, useNamespace, entityResolver, errorHandler);
             return new DocumentImpl(doc);
         } finally {
             close(source);
@@ -244,32 +248,4 @@ final class DocumentBuilderImpl implements DocumentBuilder {
             log.error("Warning on document building: {}: {}", exception.getClass(), exception.getMessage(), exception);
         }
     }
-
-    /**
-     * Get XML document builder.
-     *
-     * @param useNamespace flag to use name space.
-     * @return XML document builder.
-     */
-    private static javax.xml.parsers.DocumentBuilder getDocumentBuilder(boolean useNamespace) {
-        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-        dbf.setIgnoringComments(true);
-        dbf.setIgnoringElementContentWhitespace(true);
-        dbf.setCoalescing(true);
-
-        try {
-            // disable parser XML schema support; it is enabled by default
-            dbf.setFeature(FEAT_SCHEMA_VALIDATION, false);
-            dbf.setValidating(false);
-            dbf.setNamespaceAware(useNamespace);
-
-            javax.xml.parsers.DocumentBuilder db = dbf.newDocumentBuilder();
-            db.setEntityResolver(new EntityResolverImpl());
-            db.setErrorHandler(new ErrorHandlerImpl());
-            return db;
-        } catch (ParserConfigurationException e) {
-            // document builder implementation does not support features used by this method
-            throw new IllegalStateException(e);
-        }
-    }
 }
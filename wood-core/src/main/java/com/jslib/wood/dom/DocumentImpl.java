@@ -7,10 +7,9 @@ import org.w3c.dom.NodeList;
 
 import javax.xml.xpath.XPathExpressionException;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
-import java.nio.charset.StandardCharsets;
 
 
 /**
@@ -124,6 +123,12 @@ final class DocumentImpl implements Document {
         return getElement(doc.importNode(((ElementImpl) el).getNode(), true));
     }
 
+    @Override
+    public Document cloneDocument() {
+        // node user data handler is null so that element back references are not copied into cloned document
+        return new DocumentImpl((org.w3c.dom.Document) doc.cloneNode(true));
+    }
+
     @Override
     public Element getRoot() {
         return getElement(doc.getDocumentElement());
@@ -202,7 +207,7 @@ final class DocumentImpl implements Document {
     @Override
     public void dump() {
         try {
-            Serializer serializer = new Serializer(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            Serializer serializer = new Serializer(System.out);
             serializer.serialize(this);
         } catch (Exception e) {
             // hard to believe standard out will fail to write
@@ -214,9 +219,13 @@ final class DocumentImpl implements Document {
     public void serialize(Writer writer, Object... flags) throws IOException {
         boolean closeWriter = flags.length > 0 && (boolean) flags[0];
         boolean xmlDeclaration = flags.length <= 1 || (boolean) flags[1];
+        boolean minify = flags.length > 2 && (boolean) flags[2];
+        boolean omitOptionalQuotes = flags.length > 3 && (boolean) flags[3];
 
         Serializer serializer = new Serializer(writer);
         serializer.setXmlDeclaration(xmlDeclaration);
+        serializer.setMinify(minify);
+        serializer.setOmitOptionalQuotes(omitOptionalQuotes);
 
         if (closeWriter) {
             try {
@@ -229,6 +238,29 @@ final class DocumentImpl implements Document {
         }
     }
 
+    @Override
+    public void serialize(OutputStream stream, Object... flags) throws IOException {
+        boolean closeStream = flags.length > 0 && (boolean) flags[0];
+        boolean xmlDeclaration = flags.length <= 1 || (boolean) flags[1];
+        boolean minify = flags.length > 2 && (boolean) flags[2];
+        boolean omitOptionalQuotes = flags.length > 3 && (boolean) flags[3];
+
+        Serializer serializer = new Serializer(stream);
+        serializer.setXmlDeclaration(xmlDeclaration);
+        serializer.setMinify(minify);
+        serializer.setOmitOptionalQuotes(omitOptionalQuotes);
+
+        if (closeStream) {
+            try {
+                serializer.serialize(this);
+            } finally {
+                stream.close();
+            }
+        } else {
+            serializer.serialize(this);
+        }
+    }
+
     @Override
     public void removeNamespaceDeclaration(String namespaceURI) {
         assert namespaceURI != null && !namespaceURI.isEmpty() : "Namespace URI argument is null or empty";
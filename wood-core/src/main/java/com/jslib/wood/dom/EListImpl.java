@@ -41,7 +41,7 @@ final class EListImpl implements EList {
 
     @Override
     public Element item(int index) {
-        return new ElementImpl(ownerDoc, nodeList.item(index));
+        return ((DocumentImpl) ownerDoc).getElement(nodeList.item(index));
     }
 
     @Override
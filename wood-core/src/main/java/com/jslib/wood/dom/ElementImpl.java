@@ -194,13 +194,7 @@ final class ElementImpl implements Element {
     public Element getByXPathNS(String namespaceURI, String xpath, Object... args) throws XPathExpressionException {
         assert namespaceURI != null && !namespaceURI.isEmpty() : "Namespace URI argument is null or empty";
         assert xpath != null && !xpath.isEmpty() : "XPath argument is null or empty";
-        return ownerDoc.getElement(XPATH.evaluateXPathNodeNS(node, new NamespaceContext() {
-            @Override
-            public String getNamespaceURI(String prefix) {
-                // it is expected to be used on documents with a single namespace
-                return namespaceURI;
-            }
-        }, xpath, args));
+        return ownerDoc.getElement(XPATH.evaluateXPathNodeNS(node, new SingleNamespaceContext(namespaceURI), xpath, args));
     }
 
     @Override
@@ -552,4 +546,39 @@ final class ElementImpl implements Element {
     private static Node node(Element el) {
         return ((ElementImpl) el).node;
     }
+
+    /**
+     * Namespace context for documents with a single namespace, that resolves all prefixes to the same namespace URI.
+     * Namespace contexts with the same URI are equal so that compiled XPath expressions can be reused, see {@link XPATH}.
+     *
+     * @author Iulian Rotaru
+     * @since 1.0
+     */
+    private static class SingleNamespaceContext extends NamespaceContext {
+        private final String namespaceURI;
+
+        public SingleNamespaceContext(String namespaceURI) {
+            this.namespaceURI = namespaceURI;
+        }
+
+        @Override
+        public String getNamespaceURI(String prefix) {
+            // it is expected to be used on documents with a single namespace
+            return namespaceURI;
+        }
+
+        @Override
+        public int hashCode() {
+            return namespaceURI.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            return namespaceURI.equals(((SingleNamespaceContext) obj).namespaceURI);
+        }
+    }
 }
@@ -3,6 +3,7 @@ package com.jslib.wood.dom;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 
 /**
@@ -46,6 +47,85 @@ public final class HTML {
 		RAW_TAGS.add("script");
 	}
 
+	/**
+	 * HTML elements rendered as blocks. White space around these elements is not significant and is dropped by minified
+	 * serialization.
+	 */
+	public static final Collection<String> BLOCK_TAGS = new HashSet<>();
+	static {
+		BLOCK_TAGS.add("html");
+		BLOCK_TAGS.add("head");
+		BLOCK_TAGS.add("body");
+		BLOCK_TAGS.add("title");
+		BLOCK_TAGS.add("noscript");
+		BLOCK_TAGS.add("address");
+		BLOCK_TAGS.add("article");
+		BLOCK_TAGS.add("aside");
+		BLOCK_TAGS.add("blockquote");
+		BLOCK_TAGS.add("details");
+		BLOCK_TAGS.add("dialog");
+		BLOCK_TAGS.add("dd");
+		BLOCK_TAGS.add("div");
+		BLOCK_TAGS.add("dl");
+		BLOCK_TAGS.add("dt");
+		BLOCK_TAGS.add("fieldset");
+		BLOCK_TAGS.add("figcaption");
+		BLOCK_TAGS.add("figure");
+		BLOCK_TAGS.add("footer");
+		BLOCK_TAGS.add("form");
+		BLOCK_TAGS.add("h1");
+		BLOCK_TAGS.add("h2");
+		BLOCK_TAGS.add("h3");
+		BLOCK_TAGS.add("h4");
+		BLOCK_TAGS.add("h5");
+		BLOCK_TAGS.add("h6");
+		BLOCK_TAGS.add("header");
+		BLOCK_TAGS.add("hgroup");
+		BLOCK_TAGS.add("hr");
+		BLOCK_TAGS.add("li");
+		BLOCK_TAGS.add("main");
+		BLOCK_TAGS.add("nav");
+		BLOCK_TAGS.add("ol");
+		BLOCK_TAGS.add("p");
+		BLOCK_TAGS.add("pre");
+		BLOCK_TAGS.add("section");
+		BLOCK_TAGS.add("summary");
+		BLOCK_TAGS.add("table");
+		BLOCK_TAGS.add("caption");
+		BLOCK_TAGS.add("colgroup");
+		BLOCK_TAGS.add("col");
+		BLOCK_TAGS.add("thead");
+		BLOCK_TAGS.add("tbody");
+		BLOCK_TAGS.add("tfoot");
+		BLOCK_TAGS.add("tr");
+		BLOCK_TAGS.add("td");
+		BLOCK_TAGS.add("th");
+		BLOCK_TAGS.add("ul");
+		BLOCK_TAGS.add("option");
+		BLOCK_TAGS.add("optgroup");
+	}
+
+	/**
+	 * HTML elements not rendered at all. They do not separate text, e.g. an inline script between two words, so minified
+	 * serialization looks beyond them when decides about white space significance.
+	 */
+	public static final Collection<String> HIDDEN_TAGS = new HashSet<>();
+	static {
+		HIDDEN_TAGS.add("meta");
+		HIDDEN_TAGS.add("link");
+		HIDDEN_TAGS.add("script");
+		HIDDEN_TAGS.add("style");
+		HIDDEN_TAGS.add("template");
+		HIDDEN_TAGS.add("base");
+	}
+
+	/** HTML elements with white space preserved by browser. Minified serialization writes their text nodes unchanged. */
+	public static final Collection<String> PREFORMATTED_TAGS = new ArrayList<>();
+	static {
+		PREFORMATTED_TAGS.add("pre");
+		PREFORMATTED_TAGS.add("textarea");
+	}
+
 	/** Disable default constructor synthesis. */
 	private HTML() {
 	}
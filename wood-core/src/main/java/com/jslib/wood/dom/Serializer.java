@@ -2,10 +2,14 @@ package com.jslib.wood.dom;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
-import java.util.Stack;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
-import com.jslib.wood.util.StringsUtil;
 import org.apache.html.dom.HTMLDocumentImpl;
 import org.w3c.dom.DocumentType;
 import org.w3c.dom.NamedNodeMap;
@@ -24,36 +28,104 @@ import org.w3c.dom.NodeList;
  * This class rationale: Javax Transformer solutions uses short notation for empty elements like &lt;script ... /&gt;.
  * It seems there are browsers that refused to display pages with empty scripts or fail to display properly empty
  * <code>textarea</code>, if HTML code uses short notation for that tags.
- * 
+ * <p>
+ * Serializer is on page building hot path and is implemented to avoid allocations: tags classification is looked up on
+ * precomputed tables, text and attribute values are trimmed and escaped in place and safe characters runs are written in
+ * bulk. If created for an output stream, serializer encodes UTF-8 directly into its own, not synchronized, bytes buffer.
+ * <p>
+ * Serializer has an optional minified mode, see {@link #setMinify(boolean)}, with no indentation and line separators. On
+ * minified mode white space runs from text nodes are collapsed to a single space and white space adjacent to block elements,
+ * see {@link HTML#BLOCK_TAGS}, is dropped. Not rendered elements, see {@link HTML#HIDDEN_TAGS}, are transparent and white
+ * space at inline element edges is tested against inline element neighbours. Text from raw and preformatted elements - see {@link HTML#RAW_TAGS} and
+ * {@link HTML#PREFORMATTED_TAGS}, is not changed. Minified mode can also omit attribute value quotes, where HTML syntax
+ * allows it.
+ *
  * @author Iulian Rotaru
  */
 final class Serializer
 {
+  /** Tag type flag for elements declared without content, see {@link HTML#EMPTY_TAGS}. */
+  private static final int EMPTY_TAG = 1;
+  /** Tag type flag for elements with text not escaped, see {@link HTML#RAW_TAGS}. */
+  private static final int RAW_TAG = 2;
+  /** Tag type flag for block elements, see {@link HTML#BLOCK_TAGS}. */
+  private static final int BLOCK_TAG = 4;
+  /** Tag type flag for elements with white space preserved, see {@link HTML#PREFORMATTED_TAGS}. */
+  private static final int PREFORMATTED_TAG = 8;
+  /** Tag type flag for not rendered elements, see {@link HTML#HIDDEN_TAGS}. */
+  private static final int HIDDEN_TAG = 16;
+
+  /** Precomputed tag types for lower and upper case tag names. Tag names not present here are classified on the fly. */
+  private static final Map<String, Integer> TAG_TYPES = new HashMap<>();
+  static {
+    for(Collection<String> tags : Arrays.asList(HTML.EMPTY_TAGS, HTML.RAW_TAGS, HTML.BLOCK_TAGS, HTML.HIDDEN_TAGS, HTML.PREFORMATTED_TAGS)) {
+      for(String tag : tags) {
+        int tagType = classify(tag);
+        TAG_TYPES.put(tag, tagType);
+        TAG_TYPES.put(tag.toUpperCase(Locale.ROOT), tagType);
+      }
+    }
+  }
+
+  private static final String LINE_SEPARATOR = System.lineSeparator();
+
   /** Serializer writer. */
-  private final BufferedWriter writer;
+  private final Writer writer;
 
   /**
    * Is XML escape disabled. There are HTML tags, like <code>script</code>, that need to serialize their text nodes with
    * no escape.
    */
   private boolean noescape;
-  
+
   private boolean xmlDeclaration = true;
 
   private int indentationLevel;
 
-  private final Stack<Short> nodeTypes = new Stack<>();
+  /** Minified mode, with no indentation and insignificant white space dropped. */
+  private boolean minify;
+
+  /** Omit attribute value quotes, where allowed. Used only on minified mode. */
+  private boolean omitOptionalQuotes;
+
+  /** The number of preformatted elements currently open, see {@link HTML#PREFORMATTED_TAGS}. */
+  private int preformattedLevel;
+
+  /** Tabs used for indentation, extended on demand. */
+  private char[] tabs = new char[16];
+
+  /** Node types stack, with {@link #nodeTypesSize} items. */
+  private short[] nodeTypes = new short[32];
+
+  private int nodeTypesSize;
+
+  /** Tag types for tag names not present on precomputed {@link #TAG_TYPES}, resolved on first use. */
+  private final Map<String, Integer> tagTypes = new HashMap<>();
 
   /**
    * Create serializer instance using given writer for IO operations. This constructor takes care to use
    * {@link BufferedWriter}; if <code>writer</code> parameter is not already buffered create a new buffered instance.
-   * 
+   *
    * @param writer writer to serialize to.
    */
   public Serializer(Writer writer)
   {
     this.writer = writer instanceof BufferedWriter ? (BufferedWriter)writer : new BufferedWriter(writer);
     this.noescape = false;
+    Arrays.fill(tabs, '\t');
+  }
+
+  /**
+   * Create serializer instance writing UTF-8 encoded bytes to given output stream. Serializer uses its own bytes buffer so
+   * there is no need for stream to be buffered.
+   *
+   * @param stream output stream to serialize to.
+   */
+  public Serializer(OutputStream stream)
+  {
+    this.writer = new UTF8Writer(stream);
+    this.noescape = false;
+    Arrays.fill(tabs, '\t');
   }
 
   public void setXmlDeclaration(boolean xmlDeclaration)
@@ -61,13 +133,33 @@ final class Serializer
     this.xmlDeclaration = xmlDeclaration;
   }
 
+  /**
+   * Enable minified mode. On minified mode serializer does not indent elements and drops insignificant white space.
+   *
+   * @param minify true to enable minified mode.
+   */
+  public void setMinify(boolean minify)
+  {
+    this.minify = minify;
+  }
+
+  /**
+   * Omit attribute value quotes if value syntax allows it. This option has effect only on minified mode.
+   *
+   * @param omitOptionalQuotes true to omit optional quotes.
+   */
+  public void setOmitOptionalQuotes(boolean omitOptionalQuotes)
+  {
+    this.omitOptionalQuotes = omitOptionalQuotes;
+  }
+
   /**
    * Serialize document to the writer initialized by constructor. This method accept both XML and HTML documents and
    * write prolog accordingly: HTML document type, respective XML declaration. After prolog write nodes tree
    * recursively, invoking {@link #write(Node)} with document root.
    * <p>
    * When document nodes tree is complete flush the writer but does not close it.
-   * 
+   *
    * @param doc document to serialize.
    * @throws IOException if write operation fails.
    */
@@ -114,7 +206,7 @@ final class Serializer
    * unless node is explicitly declared as empty into {@link HTML#EMPTY_TAGS}. While serializing opening tag takes care
    * to serialize attributes to; anyway, if an attribute happens to have default value - see {@link HTML#DEFAULT_ATTRS},
    * skip it.
-   * 
+   *
    * @param n node to serialize.
    * @throws IOException if write operation fails.
    */
@@ -122,17 +214,20 @@ final class Serializer
   {
     switch(n.getNodeType()) {
     case Node.TEXT_NODE:
-      nodeTypes.push(Node.TEXT_NODE);
-      if(noescape) {
-        writer.write(n.getTextContent().trim());
+      pushNodeType(Node.TEXT_NODE);
+      if(!minify || noescape) {
+        write(n.getNodeValue(), noescape);
+      }
+      else if(preformattedLevel > 0) {
+        writeText(n.getNodeValue(), 0, n.getNodeValue().length(), false);
       }
       else {
-        StringsUtil.escapeXML(n.getTextContent().trim(), writer);
+        writeMinified(n);
       }
       break;
 
     case Node.ELEMENT_NODE:
-      nodeTypes.push(Node.ELEMENT_NODE);
+      pushNodeType(Node.ELEMENT_NODE);
       if(indentationLevel > 0) {
         crlf();
       }
@@ -142,32 +237,46 @@ final class Serializer
       writer.write('<');
       writer.write(tag);
 
+      boolean unquoted = false;
       NamedNodeMap attrs = n.getAttributes();
       for(int i = 0; i < attrs.getLength(); i++) {
         Node attr = attrs.item(i);
-        String value = attr.getTextContent().trim();
-        if(!value.equals(HTML.DEFAULT_ATTRS.get(attr.getNodeName()))) {
+        String name = attr.getNodeName();
+        String value = attr.getNodeValue();
+        if(!isDefaultValue(name, value)) {
           writer.write(' ');
-          writer.write(attr.getNodeName());
+          writer.write(name);
           writer.write('=');
-          writer.write('"');
-          StringsUtil.escapeXML(value, writer);
-          writer.write('"');
+          unquoted = minify && omitOptionalQuotes && isUnquotedValue(value);
+          if(unquoted) {
+            write(value, false);
+          }
+          else {
+            writer.write('"');
+            write(value, false);
+            writer.write('"');
+          }
         }
       }
 
-      boolean emptyTag = HTML.EMPTY_TAGS.contains(tag.toLowerCase());
-      if(emptyTag) {
-        writer.write(' ');
+      int tagType = tagType(tag);
+      if((tagType & EMPTY_TAG) != 0) {
+        // unquoted attribute value would swallow the slash
+        if(!minify || unquoted) {
+          writer.write(' ');
+        }
         writer.write('/');
-      }
-      writer.write('>');
-      if(emptyTag) {
+        writer.write('>');
         --indentationLevel;
         return;
       }
+      writer.write('>');
 
-      noescape = HTML.RAW_TAGS.contains(tag.toLowerCase());
+      boolean preformatted = (tagType & PREFORMATTED_TAG) != 0;
+      if(preformatted) {
+        ++preformattedLevel;
+      }
+      noescape = (tagType & RAW_TAG) != 0;
       NodeList children = n.getChildNodes();
       int childElementCount = 0;
       for(int i = 0; i < children.getLength(); i++) {
@@ -177,8 +286,11 @@ final class Serializer
         write(children.item(i));
       }
       noescape = false;
+      if(preformatted) {
+        --preformattedLevel;
+      }
 
-      if(childElementCount > 0 && nodeType() == Node.ELEMENT_NODE) {
+      if(!minify && childElementCount > 0 && nodeType() == Node.ELEMENT_NODE) {
         crlf();
         indent();
       }
@@ -191,26 +303,443 @@ final class Serializer
       break;
     }
 
-    nodeTypes.pop();
+    popNodeType();
+  }
+
+  /**
+   * Write text trimmed of leading and trailing white spaces, with reserved XML characters escaped if requested. Text is not
+   * copied: trimming is performed on text bounds and characters between reserved ones are written in bulk.
+   *
+   * @param text text to write, null accepted,
+   * @param raw if true write text as it is, without escaping.
+   * @throws IOException if write operation fails.
+   */
+  private void write(String text, boolean raw) throws IOException
+  {
+    if(text == null) {
+      return;
+    }
+    int start = 0;
+    int end = text.length();
+    // trim logic is the same as String#trim()
+    while(start < end && text.charAt(start) <= ' ') {
+      ++start;
+    }
+    while(start < end && text.charAt(end - 1) <= ' ') {
+      --end;
+    }
+    writeText(text, start, end, raw);
+  }
+
+  /**
+   * Write text range as it is or with reserved XML characters escaped. Characters between reserved ones are written in bulk.
+   *
+   * @param text source text,
+   * @param start range start index, inclusive,
+   * @param end range end index, exclusive,
+   * @param raw if true write text as it is, without escaping.
+   * @throws IOException if write operation fails.
+   */
+  private void writeText(String text, int start, int end, boolean raw) throws IOException
+  {
+    if(raw) {
+      writer.write(text, start, end - start);
+      return;
+    }
+
+    int runStart = start;
+    for(int i = start; i < end; ++i) {
+      String entity;
+      switch(text.charAt(i)) {
+      case '"':
+        entity = "&quot;";
+        break;
+      case '\'':
+        entity = "&apos;";
+        break;
+      case '&':
+        entity = "&amp;";
+        break;
+      case '<':
+        entity = "&lt;";
+        break;
+      case '>':
+        entity = "&gt;";
+        break;
+      default:
+        continue;
+      }
+      if(i > runStart) {
+        writer.write(text, runStart, i - runStart);
+      }
+      writer.write(entity);
+      runStart = i + 1;
+    }
+    if(end > runStart) {
+      writer.write(text, runStart, end - runStart);
+    }
+  }
+
+  /**
+   * Write text node on minified mode. Text is escaped and its white space runs are collapsed to a single space. Leading and
+   * trailing white space is kept, as a single space, only if adjacent content is inline, see {@link #isInlineAdjacent(Node,
+   * boolean)}. White space only text nodes are dropped unless content on both sides is inline.
+   *
+   * @param n text node.
+   * @throws IOException if write operation fails.
+   */
+  private void writeMinified(Node n) throws IOException
+  {
+    String text = n.getNodeValue();
+    int start = 0;
+    int end = text.length();
+    while(start < end && text.charAt(start) <= ' ') {
+      ++start;
+    }
+    while(start < end && text.charAt(end - 1) <= ' ') {
+      --end;
+    }
+    if(start == end) {
+      if(end > 0 && isInlineAdjacent(n, true) && isInlineAdjacent(n, false)) {
+        writer.write(' ');
+      }
+      return;
+    }
+    boolean leadingSpace = start > 0 && isInlineAdjacent(n, true);
+    boolean trailingSpace = end < text.length() && isInlineAdjacent(n, false);
+
+    if(leadingSpace) {
+      writer.write(' ');
+    }
+    int runStart = start;
+    for(int i = start; i < end; ++i) {
+      if(text.charAt(i) > ' ') {
+        continue;
+      }
+      writeText(text, runStart, i, false);
+      writer.write(' ');
+      while(text.charAt(i + 1) <= ' ') {
+        ++i;
+      }
+      runStart = i + 1;
+    }
+    writeText(text, runStart, end, false);
+    if(trailingSpace) {
+      writer.write(' ');
+    }
+  }
+
+  /**
+   * Test if content adjacent to node, on requested side, is rendered inline. Comments and not rendered elements are skipped.
+   * If there is no sibling on requested side, node is at its parent edge; if parent is inline, parent's adjacent content is
+   * tested, recursively, otherwise there is no inline content adjacent.
+   *
+   * @param n node,
+   * @param previous true to test previous content, false to test next content.
+   * @return true if adjacent content is inline.
+   */
+  private boolean isInlineAdjacent(Node n, boolean previous)
+  {
+    for(;;) {
+      Node sibling = previous ? n.getPreviousSibling() : n.getNextSibling();
+      while(sibling != null && isHidden(sibling)) {
+        sibling = previous ? sibling.getPreviousSibling() : sibling.getNextSibling();
+      }
+      if(sibling != null) {
+        return isInline(sibling);
+      }
+      n = n.getParentNode();
+      if(n == null || !isInline(n)) {
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Test if node is rendered inline, that is, is a text node or an element not declared as block and rendered.
+   *
+   * @param n node.
+   * @return true if node is inline.
+   */
+  private boolean isInline(Node n)
+  {
+    switch(n.getNodeType()) {
+    case Node.TEXT_NODE:
+      return true;
+    case Node.ELEMENT_NODE:
+      return (tagType(n.getNodeName()) & (BLOCK_TAG | HIDDEN_TAG)) == 0;
+    default:
+      return false;
+    }
+  }
+
+  private boolean isHidden(Node n)
+  {
+    switch(n.getNodeType()) {
+    case Node.COMMENT_NODE:
+    case Node.PROCESSING_INSTRUCTION_NODE:
+      return true;
+    case Node.ELEMENT_NODE:
+      return (tagType(n.getNodeName()) & HIDDEN_TAG) != 0;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * Test if attribute value can be written without quotes. Unquoted value should not be empty and should not contain white
+   * space, quotes, equal sign, angle brackets or backtick.
+   *
+   * @param value attribute value.
+   * @return true if value can be written without quotes.
+   */
+  private static boolean isUnquotedValue(String value)
+  {
+    if(value.isEmpty()) {
+      return false;
+    }
+    for(int i = 0, l = value.length(); i < l; ++i) {
+      char c = value.charAt(i);
+      if(c <= ' ' || c == '"' || c == '\'' || c == '=' || c == '<' || c == '>' || c == '`') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Test if attribute value, trimmed, is the default value for attribute, see {@link HTML#DEFAULT_ATTRS}.
+   *
+   * @param name attribute name,
+   * @param value attribute value, not trimmed.
+   * @return true if attribute has default value.
+   */
+  private static boolean isDefaultValue(String name, String value)
+  {
+    String defaultValue = HTML.DEFAULT_ATTRS.get(name);
+    if(defaultValue == null) {
+      return false;
+    }
+    int start = 0;
+    int end = value.length();
+    while(start < end && value.charAt(start) <= ' ') {
+      ++start;
+    }
+    while(start < end && value.charAt(end - 1) <= ' ') {
+      --end;
+    }
+    return end - start == defaultValue.length() && value.regionMatches(start, defaultValue, 0, defaultValue.length());
+  }
+
+  /**
+   * Get tag type flags, a combination of {@link #EMPTY_TAG}, {@link #RAW_TAG}, {@link #BLOCK_TAG}, {@link #HIDDEN_TAG} and
+   * {@link #PREFORMATTED_TAG}, possible zero. Tag classification is case insensitive.
+   *
+   * @param tag tag name.
+   * @return tag type flags.
+   */
+  private int tagType(String tag)
+  {
+    Integer tagType = TAG_TYPES.get(tag);
+    if(tagType == null) {
+      tagType = tagTypes.get(tag);
+      if(tagType == null) {
+        tagType = classify(tag.toLowerCase());
+        tagTypes.put(tag, tagType);
+      }
+    }
+    return tagType;
+  }
+
+  private static int classify(String lowerCaseTag)
+  {
+    int tagType = 0;
+    if(HTML.EMPTY_TAGS.contains(lowerCaseTag)) {
+      tagType |= EMPTY_TAG;
+    }
+    if(HTML.RAW_TAGS.contains(lowerCaseTag)) {
+      tagType |= RAW_TAG;
+    }
+    if(HTML.BLOCK_TAGS.contains(lowerCaseTag)) {
+      tagType |= BLOCK_TAG;
+    }
+    if(HTML.PREFORMATTED_TAGS.contains(lowerCaseTag)) {
+      tagType |= PREFORMATTED_TAG;
+    }
+    if(HTML.HIDDEN_TAGS.contains(lowerCaseTag)) {
+      tagType |= HIDDEN_TAG;
+    }
+    return tagType;
+  }
+
+  private void pushNodeType(short nodeType)
+  {
+    if(nodeTypesSize == nodeTypes.length) {
+      nodeTypes = Arrays.copyOf(nodeTypes, 2 * nodeTypes.length);
+    }
+    nodeTypes[nodeTypesSize++] = nodeType;
+  }
+
+  private void popNodeType()
+  {
+    // empty tags do not pop their node type and not handled nodes pop anyway; keep stack logic as it is
+    if(nodeTypesSize > 0) {
+      --nodeTypesSize;
+    }
   }
 
   private short nodeType()
   {
-    if(nodeTypes.isEmpty()) {
+    if(nodeTypesSize == 0) {
       return 0;
     }
-    return nodeTypes.get(nodeTypes.size() - 1);
+    return nodeTypes[nodeTypesSize - 1];
   }
 
   private void indent() throws IOException
   {
-    for(int i = indentationLevel; i > 1; --i) {
-      writer.write('\t');
+    if(minify) {
+      return;
     }
+    int count = indentationLevel - 1;
+    if(count <= 0) {
+      return;
+    }
+    if(count > tabs.length) {
+      tabs = new char[2 * count];
+      Arrays.fill(tabs, '\t');
+    }
+    writer.write(tabs, 0, count);
   }
 
   private void crlf() throws IOException
   {
-    writer.write(System.lineSeparator());
+    if(minify) {
+      return;
+    }
+    writer.write(LINE_SEPARATOR);
+  }
+
+  /**
+   * Writer encoding characters to UTF-8 bytes directly into an internal buffer, flushed to output stream when full. This
+   * writer is not synchronized and is meant to be used by a single serializer. Malformed surrogate pairs are replaced with
+   * question mark, as standard output stream writer does.
+   *
+   * @author Iulian Rotaru
+   */
+  private static final class UTF8Writer extends Writer
+  {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final OutputStream stream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    /** Pending high surrogate waiting for its low pair, 0 if none. */
+    private char highSurrogate;
+
+    public UTF8Writer(OutputStream stream)
+    {
+      this.stream = stream;
+    }
+
+    @Override
+    public void write(int c) throws IOException
+    {
+      encode((char)c);
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException
+    {
+      for(int i = offset, end = offset + length; i < end; ++i) {
+        encode(chars[i]);
+      }
+    }
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException
+    {
+      for(int i = offset, end = offset + length; i < end; ++i) {
+        char c = string.charAt(i);
+        if(c < 0x80 && highSurrogate == 0 && position < BUFFER_SIZE) {
+          buffer[position++] = (byte)c;
+          continue;
+        }
+        encode(c);
+      }
+    }
+
+    @Override
+    public void write(String string) throws IOException
+    {
+      write(string, 0, string.length());
+    }
+
+    private void encode(char c) throws IOException
+    {
+      if(position > BUFFER_SIZE - 4) {
+        flushBuffer();
+      }
+      if(highSurrogate != 0) {
+        char high = highSurrogate;
+        highSurrogate = 0;
+        if(Character.isLowSurrogate(c)) {
+          int codePoint = Character.toCodePoint(high, c);
+          buffer[position++] = (byte)(0xF0 | (codePoint >> 18));
+          buffer[position++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+          buffer[position++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+          buffer[position++] = (byte)(0x80 | (codePoint & 0x3F));
+          return;
+        }
+        buffer[position++] = '?';
+        encode(c);
+        return;
+      }
+
+      if(c < 0x80) {
+        buffer[position++] = (byte)c;
+      }
+      else if(c < 0x800) {
+        buffer[position++] = (byte)(0xC0 | (c >> 6));
+        buffer[position++] = (byte)(0x80 | (c & 0x3F));
+      }
+      else if(Character.isHighSurrogate(c)) {
+        highSurrogate = c;
+      }
+      else if(Character.isLowSurrogate(c)) {
+        buffer[position++] = '?';
+      }
+      else {
+        buffer[position++] = (byte)(0xE0 | (c >> 12));
+        buffer[position++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+        buffer[position++] = (byte)(0x80 | (c & 0x3F));
+      }
+    }
+
+    private void flushBuffer() throws IOException
+    {
+      if(position > 0) {
+        stream.write(buffer, 0, position);
+        position = 0;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException
+    {
+      flushBuffer();
+      stream.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+      if(highSurrogate != 0) {
+        highSurrogate = 0;
+        encode('?');
+      }
+      flush();
+      stream.close();
+    }
   }
 }
@@ -8,8 +8,12 @@ import org.w3c.dom.NodeList;
 
 import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * Constant XPath expressions used internally by DOM package.
@@ -80,17 +84,13 @@ final class XPATH {
         }
 
         Node node;
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        if (namespaceContext != null) {
-            xpath.setNamespaceContext(namespaceContext);
-        }
-        Object result = xpath.evaluate(expression, contextNode, XPathConstants.NODE);
+        Object result = compile(namespaceContext, expression).evaluate(contextNode, XPathConstants.NODE);
         if (result == null) {
             return null;
         }
         node = (Node) result;
         if (node.getNodeType() != Node.ELEMENT_NODE) {
-            log.debug("XPath expression {} on {} yields a node that is not element; force to null", xpath, contextNode);
+            log.debug("XPath expression {} on {} yields a node that is not element; force to null", expression, contextNode);
             return null;
         }
         return node;
@@ -126,11 +126,7 @@ final class XPATH {
         }
 
         NodeList nodeList = null;
-        XPath xpath = XPathFactory.newInstance().newXPath();
-        if (namespaceContext != null) {
-            xpath.setNamespaceContext(namespaceContext);
-        }
-        Object result = xpath.evaluate(expression, contextNode, XPathConstants.NODESET);
+        Object result = compile(namespaceContext, expression).evaluate(contextNode, XPathConstants.NODESET);
         if (result != null) {
             nodeList = (NodeList) result;
         }
@@ -141,6 +137,95 @@ final class XPATH {
         return nodeList;
     }
 
+    /**
+     * Get compiled XPath expression from current thread cache, compiling and caching it if missing.
+     *
+     * @param namespaceContext optional namespace context, null if expression is not namespace aware,
+     * @param expression       XPath expression.
+     * @return compiled XPath expression.
+     * @throws XPathExpressionException if expression compilation fails.
+     */
+    private static XPathExpression compile(NamespaceContext namespaceContext, String expression) throws XPathExpressionException {
+        return EXPRESSIONS_CACHE.get().get(namespaceContext, expression);
+    }
+
+    /**
+     * Compiled XPath expressions cache, per thread. Compiled expressions and XPath instances are not thread safe, see
+     * {@link XPathExpression}, so every thread has its own cache.
+     */
+    private static final ThreadLocal<ExpressionsCache> EXPRESSIONS_CACHE = ThreadLocal.withInitial(ExpressionsCache::new);
+
+    /**
+     * Compiled XPath expressions keyed by expression and namespace context. Namespace contexts are compared with
+     * <code>equals</code>, that is, by instance if namespace context does not override it. Cache has limited capacity and
+     * evicts least recently used expression. XPath factory and XPath instance for expressions without namespace are created
+     * once, for cache instance.
+     *
+     * @author Iulian Rotaru
+     * @since 1.0
+     */
+    private static class ExpressionsCache extends LinkedHashMap<ExpressionsCache.Key, XPathExpression> {
+        private static final long serialVersionUID = -2740138530546853306L;
+
+        private static final int CAPACITY = 512;
+
+        private final XPathFactory factory;
+        private final XPath xpath;
+
+        public ExpressionsCache() {
+            super(64, 0.75F, true);
+            this.factory = XPathFactory.newInstance();
+            this.xpath = factory.newXPath();
+        }
+
+        public XPathExpression get(NamespaceContext namespaceContext, String expression) throws XPathExpressionException {
+            Key key = new Key(namespaceContext, expression);
+            XPathExpression compiledExpression = get(key);
+            if (compiledExpression == null) {
+                XPath xpath = this.xpath;
+                if (namespaceContext != null) {
+                    xpath = factory.newXPath();
+                    xpath.setNamespaceContext(namespaceContext);
+                }
+                compiledExpression = xpath.compile(expression);
+                put(key, compiledExpression);
+            }
+            return compiledExpression;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, XPathExpression> eldest) {
+            return size() > CAPACITY;
+        }
+
+        private static class Key {
+            private final NamespaceContext namespaceContext;
+            private final String expression;
+            private final int hashCode;
+
+            public Key(NamespaceContext namespaceContext, String expression) {
+                this.namespaceContext = namespaceContext;
+                this.expression = expression;
+                this.hashCode = Objects.hash(namespaceContext, expression);
+            }
+
+            @Override
+            public int hashCode() {
+                return hashCode;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (this == obj)
+                    return true;
+                if (obj == null || getClass() != obj.getClass())
+                    return false;
+                Key other = (Key) obj;
+                return expression.equals(other.expression) && Objects.equals(namespaceContext, other.namespaceContext);
+            }
+        }
+    }
+
     /**
      * Empty nodes list constant.
      */
@@ -68,6 +68,17 @@ public class AttrOperatorsHandler implements IOperatorsHandler {
 		element.removeAttr(operator.value());
 	}
 
+	@Override
+	public boolean hasOperator(Element element, Operator operator) {
+		assert element != null: "Layout element argument is null";
+		return element.hasAttr(operator.value());
+	}
+
+	@Override
+	public OperatorsIndex indexOperators(Document document) {
+		return new OperatorsIndex(this, document);
+	}
+
 	private String buildXPath(Operator operator, String... operand) {
 		// descendant-or-self::node()[@compo='res/compo/dialog']
 
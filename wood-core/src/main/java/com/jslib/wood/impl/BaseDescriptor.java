@@ -9,6 +9,7 @@ import org.xml.sax.SAXException;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -32,10 +33,19 @@ public abstract class BaseDescriptor {
     protected final FilePath descriptorFile;
 
     /**
-     * Descriptor DOM document.
+     * Descriptor DOM document. DOM implementation is not thread safe, even for read-only access, and empty document is shared
+     * by all descriptors without file; this is why document access is synchronized on document instance.
      */
     protected final Document doc;
 
+    /**
+     * Meta, link and script descriptors lists are computed on first request and reused; descriptor document is not changed
+     * after loading.
+     */
+    private List<IMetaDescriptor> metaDescriptors;
+    private List<ILinkDescriptor> linkDescriptors;
+    private List<IScriptDescriptor> scriptDescriptors;
+
     protected BaseDescriptor(FilePath descriptorFile, Reader documentReader) {
         Document doc = EMPTY_DOC;
         if (documentReader != null) {
@@ -66,6 +76,58 @@ public abstract class BaseDescriptor {
      * @return meta elements list, possible empty.
      */
     public List<IMetaDescriptor> getMetaDescriptors() {
+        synchronized (doc) {
+            if (metaDescriptors == null) {
+                metaDescriptors = Collections.unmodifiableList(createMetaDescriptors());
+            }
+            return metaDescriptors;
+        }
+    }
+
+    /**
+     * Get link elements list declared into <code>link</code> section. Returned list is not modifiable.
+     *
+     * @return link elements list, possible empty.
+     */
+    public List<ILinkDescriptor> getLinkDescriptors() {
+        synchronized (doc) {
+            if (linkDescriptors == null) {
+                linkDescriptors = Collections.unmodifiableList(createLinkDescriptors());
+            }
+            return linkDescriptors;
+        }
+    }
+
+    @SuppressWarnings("all")
+    /**
+     * Get scripts defined by this component descriptor, both third party and local scripts. Returns a list of absolute URLs
+     * and/or relative paths in the order and in format defined into descriptor. There is no attempt to check path validity; it
+     * is developer responsibility to ensure URLs and paths are correct and inclusion order is proper.
+     * <p>
+     * Here is expected scripts descriptor format.
+     *
+     * <pre>
+     * &lt;scripts&gt;
+     *    &lt;script append-to-head="true"&gt;https://ajax.googleapis.com/ajax/libs/jquery/1.11.1/jquery.min.js&lt;/script&gt;
+     *    &lt;script&gt;http://maxcdn.bootstrapcdn.com/bootstrap/3.3.5/js/bootstrap.min.js&lt;/script&gt;
+     *    &lt;script&gt;lib/js-lib/js-lib.js&lt;/script&gt;
+     *    &lt;script&gt;gen/com/kidscademy/AdminService.js&lt;/script&gt;
+     *    &lt;script&gt;script/com/kidscademy/admin/FormPage.js&lt;/script&gt;
+     * &lt;/scripts&gt;
+     * </pre>
+     *
+     * @return scripts declared by this component descriptor.
+     */
+    public List<IScriptDescriptor> getScriptDescriptors() {
+        synchronized (doc) {
+            if (scriptDescriptors == null) {
+                scriptDescriptors = Collections.unmodifiableList(createScriptDescriptors());
+            }
+            return scriptDescriptors;
+        }
+    }
+
+    private List<IMetaDescriptor> createMetaDescriptors() {
         List<IMetaDescriptor> descriptors = new ArrayList<>();
         for (Element element : doc.findByTag("meta")) {
             if (!(element.hasAttr("name") || element.hasAttr("http-equiv") || element.hasAttr("property"))) {
@@ -80,7 +142,7 @@ public abstract class BaseDescriptor {
         return descriptors;
     }
 
-    public List<ILinkDescriptor> getLinkDescriptors() {
+    private List<ILinkDescriptor> createLinkDescriptors() {
         List<ILinkDescriptor> descriptors = new ArrayList<>();
         for (Element element : doc.findByTag("link")) {
             String href = element.getAttr("href");
@@ -102,27 +164,7 @@ public abstract class BaseDescriptor {
         return descriptors;
     }
 
-    @SuppressWarnings("all")
-    /**
-     * Get scripts defined by this component descriptor, both third party and local scripts. Returns a list of absolute URLs
-     * and/or relative paths in the order and in format defined into descriptor. There is no attempt to check path validity; it
-     * is developer responsibility to ensure URLs and paths are correct and inclusion order is proper.
-     * <p>
-     * Here is expected scripts descriptor format.
-     *
-     * <pre>
-     * &lt;scripts&gt;
-     *    &lt;script append-to-head="true"&gt;https://ajax.googleapis.com/ajax/libs/jquery/1.11.1/jquery.min.js&lt;/script&gt;
-     *    &lt;script&gt;http://maxcdn.bootstrapcdn.com/bootstrap/3.3.5/js/bootstrap.min.js&lt;/script&gt;
-     *    &lt;script&gt;lib/js-lib/js-lib.js&lt;/script&gt;
-     *    &lt;script&gt;gen/com/kidscademy/AdminService.js&lt;/script&gt;
-     *    &lt;script&gt;script/com/kidscademy/admin/FormPage.js&lt;/script&gt;
-     * &lt;/scripts&gt;
-     * </pre>
-     *
-     * @return scripts declared by this component descriptor.
-     */
-    public List<IScriptDescriptor> getScriptDescriptors() {
+    private List<IScriptDescriptor> createScriptDescriptors() {
         List<IScriptDescriptor> descriptors = new ArrayList<>();
         for (Element element : doc.findByTag("script")) {
             String src = element.getAttr("src");
@@ -152,20 +194,24 @@ public abstract class BaseDescriptor {
      * @return element text or default value.
      */
     protected String text(String tagName, String defaultValue) {
-        Element el = doc.getByTag(tagName);
-        if (el == null) {
-            return defaultValue;
+        synchronized (doc) {
+            Element el = doc.getByTag(tagName);
+            if (el == null) {
+                return defaultValue;
+            }
+            String value = el.getText();
+            return value.isEmpty() ? defaultValue : value;
         }
-        String value = el.getText();
-        return value.isEmpty() ? defaultValue : value;
     }
 
     protected String text(String tagName) {
-        Element el = doc.getByTag(tagName);
-        if (el == null) {
-            return null;
+        synchronized (doc) {
+            Element el = doc.getByTag(tagName);
+            if (el == null) {
+                return null;
+            }
+            String value = el.getTextContent();
+            return value.isEmpty() ? null : value;
         }
-        String value = el.getTextContent();
-        return value.isEmpty() ? null : value;
     }
 }
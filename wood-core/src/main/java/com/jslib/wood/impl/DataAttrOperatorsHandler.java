@@ -5,6 +5,8 @@ import com.jslib.wood.dom.EList;
 import com.jslib.wood.dom.Element;
 
 import javax.xml.xpath.XPathExpressionException;
+import java.util.EnumMap;
+import java.util.Map;
 
 
 /**
@@ -66,28 +68,55 @@ public class DataAttrOperatorsHandler implements IOperatorsHandler {
     @Override
     public String getOperand(Element element, Operator operator) {
         assert element != null : "Layout element argument is null";
-        String attrName = DATA_PREFIX + operator.value();
-        return element.getAttr(attrName);
+        return element.getAttr(ATTR_NAMES.get(operator));
     }
 
     @Override
     public void removeOperator(Element element, Operator operator) {
         assert element != null : "Layout element argument is null";
-        element.removeAttr(DATA_PREFIX + operator.value());
+        element.removeAttr(ATTR_NAMES.get(operator));
+    }
+
+    @Override
+    public boolean hasOperator(Element element, Operator operator) {
+        assert element != null : "Layout element argument is null";
+        return element.hasAttr(ATTR_NAMES.get(operator));
+    }
+
+    @Override
+    public OperatorsIndex indexOperators(Document document) {
+        return new OperatorsIndex(this, document);
+    }
+
+    /**
+     * Operators attribute names, with custom HTML attribute prefix.
+     */
+    private static final Map<Operator, String> ATTR_NAMES = new EnumMap<>(Operator.class);
+
+    /**
+     * XPath expressions for operators without operand, created once. Compiled expressions are cached by DOM package.
+     */
+    private static final Map<Operator, String> XPATHS = new EnumMap<>(Operator.class);
+    static {
+        for (Operator operator : Operator.values()) {
+            ATTR_NAMES.put(operator, DATA_PREFIX + operator.value());
+            XPATHS.put(operator, "descendant-or-self::node()[@" + DATA_PREFIX + operator.value() + "]");
+        }
     }
 
     private String buildXPath(Operator operator, String... operand) {
         // descendant-or-self::node()[@data-compo='res/compo/dialog']
+        if (operand.length == 0) {
+            return XPATHS.get(operator);
+        }
 
         StringBuilder sb = new StringBuilder();
         sb.append("descendant-or-self::node()[@");
         sb.append(DATA_PREFIX);
         sb.append(operator.value());
-        if (operand.length == 1) {
-            sb.append("='");
-            sb.append(operand[0]);
-            sb.append("'");
-        }
+        sb.append("='");
+        sb.append(operand[0]);
+        sb.append("'");
         sb.append("]");
 
         return sb.toString();
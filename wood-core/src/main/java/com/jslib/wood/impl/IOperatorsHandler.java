@@ -73,4 +73,24 @@ public interface IOperatorsHandler
    */
   void removeOperator(Element element, Operator operator);
 
+  /**
+   * Test if layout element possesses requested operator.
+   * 
+   * @param element layout element,
+   * @param operator operator to test.
+   * @return true if element has operator.
+   * @throws IllegalArgumentException if <code>element</code> parameter is null.
+   */
+  boolean hasOperator(Element element, Operator operator);
+
+  /**
+   * Walk document tree once and collect elements possessing operators, grouped by operator. Returned index is a snapshot and
+   * is not updated on document changes.
+   * 
+   * @param document layout document.
+   * @return operators index.
+   * @throws IllegalArgumentException if <code>document</code> parameter is null.
+   */
+  OperatorsIndex indexOperators(Document document);
+
 }
@@ -51,7 +51,21 @@ import com.jslib.wood.util.StringsUtil;
  */
 public class LayoutParameters {
 	/** Parameters storage. */
-	private final Map<String, String> parameters = new HashMap<>();
+	private final Map<String, String> parameters;
+
+	/** Create empty layout parameters. */
+	public LayoutParameters() {
+		this.parameters = new HashMap<>();
+	}
+
+	/**
+	 * Create a snapshot of given layout parameters, used as key for layout documents cache.
+	 * 
+	 * @param other layout parameters to copy.
+	 */
+	public LayoutParameters(LayoutParameters other) {
+		this.parameters = new HashMap<>(other.parameters);
+	}
 
 	/**
 	 * Reload layout parameters from parameters definition, possible null. If <code>parameters</code> argument is null this
@@ -85,4 +99,18 @@ public class LayoutParameters {
 		}
 		return value;
 	}
+
+	@Override
+	public int hashCode() {
+		return parameters.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		return parameters.equals(((LayoutParameters) obj).parameters);
+	}
 }
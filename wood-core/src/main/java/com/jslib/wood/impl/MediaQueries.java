@@ -13,6 +13,13 @@ public class MediaQueries {
     private final Project project;
     private final List<MediaQueryDefinition> queries = new ArrayList<>();
 
+    /**
+     * Media and expression are computed on first request and reset when a new query is added. Media queries are created
+     * when file variants are parsed and used every time a style variant is read.
+     */
+    private String media;
+    private String expression;
+
     public MediaQueries(Project project) {
         this.project = project;
     }
@@ -34,6 +41,8 @@ public class MediaQueries {
             throw new WoodException("Media query definition override for alias %s", alias);
         }
         queries.add(query);
+        media = null;
+        expression = null;
         return true;
     }
 
@@ -42,8 +51,11 @@ public class MediaQueries {
     }
 
     public String getMedia() {
-        Set<String> medias = queries.stream().map(MediaQueryDefinition::getMedia).collect(Collectors.toSet());
-        return medias.size() == 1 ? medias.iterator().next() : "all";
+        if (media == null) {
+            Set<String> medias = queries.stream().map(MediaQueryDefinition::getMedia).collect(Collectors.toSet());
+            media = medias.size() == 1 ? medias.iterator().next() : "all";
+        }
+        return media;
     }
 
     /**
@@ -52,8 +64,11 @@ public class MediaQueries {
      * @return the concatenated expression string; returns an empty string if no expressions are found (never {@code null})
      */
     public String getExpression() {
-        List<String> expressions = queries.stream().filter(query -> query.getExpression() != null).map(query -> StringsUtil.concat("( ", query.getExpression(), " )")).collect(Collectors.toList());
-        return StringsUtil.join(expressions, " and ");
+        if (expression == null) {
+            List<String> expressions = queries.stream().filter(query -> query.getExpression() != null).map(query -> StringsUtil.concat("( ", query.getExpression(), " )")).collect(Collectors.toList());
+            expression = StringsUtil.join(expressions, " and ");
+        }
+        return expression;
     }
 
     public List<MediaQueryDefinition> getQueries() {
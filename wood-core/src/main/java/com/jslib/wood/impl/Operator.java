@@ -19,7 +19,14 @@ public enum Operator {
 	/** Used in conjunction with {@link #COMPO} and {@link #TEMPLATE} to define layout parameters list. */
 	PARAM;
 
+	/** Operator name, lower case, used as attribute name by operators handlers. */
+	private final String value;
+
+	Operator() {
+		this.value = name().toLowerCase(Locale.getDefault());
+	}
+
 	public String value() {
-		return name().toLowerCase(Locale.getDefault());
+		return value;
 	}
 }
@@ -0,0 +1,124 @@
+package com.jslib.wood.impl;
+
+import com.jslib.wood.dom.Document;
+import com.jslib.wood.dom.Element;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Layout document elements possessing WOOD operators, grouped by operator. Index is created by a single depth-first walk of
+ * layout document tree, see {@link IOperatorsHandler#indexOperators(Document)}, and replaces the XPath search performed by
+ * {@link IOperatorsHandler#findByOperator(Document, Operator)} for every operator. Operators presence is tested by operators
+ * handler so that index works for all operators naming strategies.
+ * <p>
+ * Elements are stored in document order, the same order as returned by XPath search. Index is a snapshot of the document tree
+ * at creation time; it is not updated when document is changed. Caller should create a new index after document changes that
+ * affect operators.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+public class OperatorsIndex {
+    private static final Operator[] OPERATORS = Operator.values();
+
+    private final IOperatorsHandler operators;
+    private final Document document;
+    private final Map<Operator, List<Element>> elements = new EnumMap<>(Operator.class);
+
+    /**
+     * Walk given document tree and collect elements possessing operators.
+     *
+     * @param operators operators handler,
+     * @param document  layout document.
+     */
+    public OperatorsIndex(IOperatorsHandler operators, Document document) {
+        assert operators != null : "Operators handler argument is null";
+        assert document != null : "Layout document argument is null";
+        this.operators = operators;
+        this.document = document;
+        for (Operator operator : OPERATORS) {
+            elements.put(operator, new ArrayList<>());
+        }
+
+        // iterative pre-order walk; element instances are reused by DOM package, so root identity test is safe
+        Element root = document.getRoot();
+        Element element = root;
+        while (element != null) {
+            for (Operator operator : OPERATORS) {
+                if (operators.hasOperator(element, operator)) {
+                    elements.get(operator).add(element);
+                }
+            }
+
+            Element next = element.getFirstChild();
+            while (next == null && element != root) {
+                next = element.getNextSibling();
+                if (next == null) {
+                    element = element.getParent();
+                }
+            }
+            element = next;
+        }
+    }
+
+    /**
+     * Get indexed layout document.
+     *
+     * @return layout document.
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Get all document elements possessing requested operator, in document order. Returned list is not modifiable.
+     *
+     * @param operator operator to search for.
+     * @return elements list, possible empty.
+     */
+    public List<Element> find(Operator operator) {
+        return Collections.unmodifiableList(elements.get(operator));
+    }
+
+    /**
+     * Get given element and its descendants possessing requested operator, in document order.
+     *
+     * @param element  layout element,
+     * @param operator operator to search for.
+     * @return elements list, possible empty.
+     */
+    public List<Element> find(Element element, Operator operator) {
+        assert element != null : "Layout element argument is null";
+        List<Element> result = new ArrayList<>();
+        for (Element candidate : elements.get(operator)) {
+            for (Element ancestor = candidate; ancestor != null; ancestor = ancestor.getParent()) {
+                if (ancestor == element) {
+                    result.add(candidate);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get first document element that has operator with requested operand value.
+     *
+     * @param operator operator to search for,
+     * @param operand  requested operand value, possible null.
+     * @return first element possessing the operator with requested operand value or null.
+     */
+    public Element get(Operator operator, String operand) {
+        for (Element element : elements.get(operator)) {
+            if (Objects.equals(operand, operators.getOperand(element, operator))) {
+                return element;
+            }
+        }
+        return null;
+    }
+}
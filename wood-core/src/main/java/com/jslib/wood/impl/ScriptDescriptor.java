@@ -3,6 +3,9 @@ package com.jslib.wood.impl;
 import com.jslib.wood.FilePath;
 import com.jslib.wood.IScriptDescriptor;
 import com.jslib.wood.dom.Element;
+import org.xml.sax.Attributes;
+
+import java.util.function.Function;
 
 /**
  * Descriptor for page script element. This class is loaded from <code>script</code> element of project or page descriptor. All
@@ -169,20 +172,40 @@ public class ScriptDescriptor implements IScriptDescriptor {
 	}
 
 	public static ScriptDescriptor create(Element scriptElement) {
-		final String src = scriptElement.getAttr("src");
+		return create(scriptElement::getAttr);
+	}
+
+	/**
+	 * Create script descriptor from attributes of a script element reported by SAX parser. Attributes are looked up by
+	 * qualified name, that is, parser is not namespace aware. SAX reports empty attribute value as empty string; it is mapped
+	 * to null, the same as {@link Element#getAttr(String)} does, so that both element and attributes sources get the same
+	 * defaults.
+	 * 
+	 * @param attributes script element attributes.
+	 * @return script descriptor.
+	 */
+	public static ScriptDescriptor create(Attributes attributes) {
+		return create(name -> {
+			String value = attributes.getValue(name);
+			return value != null && !value.isEmpty() ? value : null;
+		});
+	}
+
+	private static ScriptDescriptor create(Function<String, String> attributes) {
+		final String src = attributes.apply("src");
 		assert src != null;
 		ScriptDescriptor script = new ScriptDescriptor(src);
 
-		script.setType(value(scriptElement.getAttr("type"), DEF_SCRIPT_TYPE));
-		script.setAsync(scriptElement.getAttr("async"));
-		script.setDefer(value(scriptElement.getAttr("defer"), DEF_SCRIPT_DEFER));
-		script.setNoModule(scriptElement.getAttr("nomodule"));
-		script.setNonce(scriptElement.getAttr("nonce"));
-		script.setReferrerPolicy(scriptElement.getAttr("referrerpolicy"));
-		script.setIntegrity(scriptElement.getAttr("integrity"));
-		script.setCrossOrigin(scriptElement.getAttr("crossorigin"));
-		script.setEmbedded(Boolean.parseBoolean(value(scriptElement.getAttr("embedded"), "false")));
-		script.setDynamic(Boolean.parseBoolean(value(scriptElement.getAttr("dynamic"), "false")));
+		script.setType(value(attributes.apply("type"), DEF_SCRIPT_TYPE));
+		script.setAsync(attributes.apply("async"));
+		script.setDefer(value(attributes.apply("defer"), DEF_SCRIPT_DEFER));
+		script.setNoModule(attributes.apply("nomodule"));
+		script.setNonce(attributes.apply("nonce"));
+		script.setReferrerPolicy(attributes.apply("referrerpolicy"));
+		script.setIntegrity(attributes.apply("integrity"));
+		script.setCrossOrigin(attributes.apply("crossorigin"));
+		script.setEmbedded(Boolean.parseBoolean(value(attributes.apply("embedded"), "false")));
+		script.setDynamic(Boolean.parseBoolean(value(attributes.apply("dynamic"), "false")));
 
 		return script;
 	}
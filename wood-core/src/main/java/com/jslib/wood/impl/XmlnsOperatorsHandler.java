@@ -7,6 +7,8 @@ import com.jslib.wood.dom.Element;
 import com.jslib.wood.dom.NamespaceContext;
 
 import javax.xml.xpath.XPathExpressionException;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * Document handler for operator naming with XML name space. This document handler is the default naming strategy or enacted
@@ -82,17 +84,39 @@ public class XmlnsOperatorsHandler implements IOperatorsHandler {
         element.removeAttrNS(WOOD.NS, operator.value());
     }
 
+    @Override
+    public boolean hasOperator(Element element, Operator operator) {
+        assert element != null : "Layout element argument is null";
+        return element.hasAttrNS(WOOD.NS, operator.value());
+    }
+
+    @Override
+    public OperatorsIndex indexOperators(Document document) {
+        return new OperatorsIndex(this, document);
+    }
+
+    /**
+     * XPath expressions for operators without operand, created once. Compiled expressions are cached by DOM package.
+     */
+    private static final Map<Operator, String> XPATHS = new EnumMap<>(Operator.class);
+    static {
+        for (Operator operator : Operator.values()) {
+            XPATHS.put(operator, "descendant-or-self::node()[@wood:" + operator.value() + "]");
+        }
+    }
+
     private String buildXPath(Operator operator, String... operand) {
         // descendant-or-self::node()[@wood:compo='res/compo/dialog']
+        if (operand.length == 0) {
+            return XPATHS.get(operator);
+        }
 
         StringBuilder sb = new StringBuilder();
         sb.append("descendant-or-self::node()[@wood:");
         sb.append(operator.value());
-        if (operand.length == 1) {
-            sb.append("='");
-            sb.append(operand[0]);
-            sb.append("'");
-        }
+        sb.append("='");
+        sb.append(operand[0]);
+        sb.append("'");
         sb.append("]");
 
         return sb.toString();
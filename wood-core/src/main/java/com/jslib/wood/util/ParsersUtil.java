@@ -0,0 +1,200 @@
+package com.jslib.wood.util;
+
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Pooled XML parsers, shared by DOM document builder and SAX based loaders. Parser factories are looked up and configured once
+ * per class loading; parsers are created on demand and reused.
+ * <p>
+ * JAXP parsers are not thread safe, so pools are per thread. Parser is borrowed from current thread pool for the duration of
+ * a single parsing and reset before returning it to pool. A thread pool grows only if parsing is nested, e.g. a SAX handler
+ * triggering another parsing; nested parsing is not supported by a single parser instance.
+ * <p>
+ * Per thread pools are meant for threads owned by the application, e.g. build main and worker threads. Threads owned by a
+ * servlet container outlive web application and their pools would keep web application class loader reachable after
+ * undeploy; a web application should {@link #disablePooling() disable pooling} on initialization, in which case parsers are
+ * created for every parsing.
+ *
+ * @author Iulian Rotaru
+ * @since 1.0
+ */
+public class ParsersUtil {
+    /**
+     * XML parser feature for schema validation.
+     */
+    private static final String FEAT_SCHEMA_VALIDATION = "http://apache.org/xml/features/validation/schema";
+
+    private static final SAXParserFactory SAX_FACTORY = SAXParserFactory.newInstance();
+    private static final DocumentBuilderFactory DOM_FACTORY = domFactory(false);
+    private static final DocumentBuilderFactory DOM_FACTORY_NS = domFactory(true);
+
+    private static final ThreadLocal<Deque<SAXParser>> SAX_PARSERS = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<Deque<DocumentBuilder>> DOM_BUILDERS = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<Deque<DocumentBuilder>> DOM_BUILDERS_NS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Parsers pooling enabled flag, default to true.
+     */
+    private static volatile boolean pooling = true;
+
+    protected ParsersUtil() {
+    }
+
+    /**
+     * Disable parsers pooling and discard current thread pools. After this method call every parsing creates its own parser
+     * and no thread local state is stored on calling threads. Intended for web applications running on container threads.
+     */
+    public static void disablePooling() {
+        pooling = false;
+        SAX_PARSERS.remove();
+        DOM_BUILDERS.remove();
+        DOM_BUILDERS_NS.remove();
+    }
+
+    /**
+     * Parse XML input source with SAX parser from current thread pool. Parsing can be aborted by handler throwing a SAX
+     * exception; parser is reset and returned to pool anyway.
+     *
+     * @param source  input source,
+     * @param handler SAX events handler.
+     * @throws IOException  if input source reading fails.
+     * @throws SAXException if input source is not valid XML or handler aborts parsing.
+     */
+    public static void parse(InputSource source, DefaultHandler handler) throws IOException, SAXException {
+        SAXParser parser = poll(SAX_PARSERS);
+        if (parser == null) {
+            parser = newSAXParser();
+        }
+        try {
+            parser.parse(source, handler);
+        } finally {
+            parser.reset();
+            push(SAX_PARSERS, parser);
+        }
+    }
+
+    /**
+     * Parse XML input source into W3C DOM document, using document builder from current thread pool. Document builder
+     * ignores comments and element content whitespace, converts CDATA to text and has schema validation disabled.
+     *
+     * @param source         input source,
+     * @param useNamespace   flag to control name space awareness,
+     * @param entityResolver entity resolver used by this parsing,
+     * @param errorHandler   error handler used by this parsing.
+     * @return newly created W3C DOM document.
+     * @throws IOException  if input source reading fails.
+     * @throws SAXException if input source is not valid XML.
+     */
+    public static org.w3c.dom.Document parseDocument(InputSource source, boolean useNamespace, EntityResolver entityResolver, ErrorHandler errorHandler) throws IOException, SAXException {
+        ThreadLocal<Deque<DocumentBuilder>> pools = useNamespace ? DOM_BUILDERS_NS : DOM_BUILDERS;
+        DocumentBuilder builder = poll(pools);
+        if (builder == null) {
+            builder = newDocumentBuilder(useNamespace);
+        }
+        try {
+            // entity resolver and error handler are cleared by document builder reset
+            builder.setEntityResolver(entityResolver);
+            builder.setErrorHandler(errorHandler);
+            return builder.parse(source);
+        } finally {
+            builder.reset();
+            push(pools, builder);
+        }
+    }
+
+    /**
+     * Create empty W3C DOM document, not name space aware.
+     *
+     * @return newly created W3C DOM document.
+     */
+    public static org.w3c.dom.Document newDocument() {
+        DocumentBuilder builder = poll(DOM_BUILDERS);
+        if (builder == null) {
+            builder = newDocumentBuilder(false);
+        }
+        try {
+            return builder.newDocument();
+        } finally {
+            push(DOM_BUILDERS, builder);
+        }
+    }
+
+    /**
+     * Borrow parser from current thread pool. Returns null if pool is empty or pooling is disabled.
+     *
+     * @param pools per thread pools,
+     * @param <T>   parser type.
+     * @return pooled parser, possible null.
+     */
+    private static <T> T poll(ThreadLocal<Deque<T>> pools) {
+        return pooling ? pools.get().poll() : null;
+    }
+
+    /**
+     * Return parser to current thread pool. Parser is discarded if pooling is disabled.
+     *
+     * @param pools  per thread pools,
+     * @param parser parser instance, already reset.
+     * @param <T>    parser type.
+     */
+    private static <T> void push(ThreadLocal<Deque<T>> pools, T parser) {
+        if (pooling) {
+            pools.get().push(parser);
+        }
+    }
+
+    private static SAXParser newSAXParser() {
+        // factories are not guaranteed to be thread safe
+        synchronized (SAX_FACTORY) {
+            try {
+                return SAX_FACTORY.newSAXParser();
+            } catch (ParserConfigurationException | SAXException e) {
+                // SAX parser implementation does not support default configuration
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static DocumentBuilder newDocumentBuilder(boolean useNamespace) {
+        DocumentBuilderFactory factory = useNamespace ? DOM_FACTORY_NS : DOM_FACTORY;
+        synchronized (factory) {
+            try {
+                return factory.newDocumentBuilder();
+            } catch (ParserConfigurationException e) {
+                // document builder implementation does not support features used by this class
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static DocumentBuilderFactory domFactory(boolean useNamespace) {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setIgnoringComments(true);
+        factory.setIgnoringElementContentWhitespace(true);
+        factory.setCoalescing(true);
+
+        try {
+            // disable parser XML schema support; it is enabled by default
+            factory.setFeature(FEAT_SCHEMA_VALIDATION, false);
+        } catch (ParserConfigurationException e) {
+            // document builder implementation does not support features used by this class
+            throw new IllegalStateException(e);
+        }
+        factory.setValidating(false);
+        factory.setNamespaceAware(useNamespace);
+        return factory;
+    }
+}
@@ -9,6 +9,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -135,6 +136,54 @@ public class ComponentIntegrationTest {
 
     // --------------------------------------------------------------------------------------------
 
+    @Test
+    public void GivenLayoutsCache_WhenCreateComponentTwice_ThenSameLayoutAndReferences() {
+        // GIVEN
+        List<Reference> references = new ArrayList<>();
+        IReferenceHandler countingHandler = (reference, sourcePath) -> {
+            references.add(reference);
+            return referenceHandler.onResourceReference(reference, sourcePath);
+        };
+        Component expected = new Component(new CompoPath(project, "res/compo"), countingHandler, true);
+        int expectedReferencesCount = references.size();
+        LayoutsCache layoutsCache = new LayoutsCache(project);
+
+        // WHEN
+        references.clear();
+        Component first = new Component(new CompoPath(project, "res/compo"), countingHandler, layoutsCache, null);
+        first.scan();
+        Component second = new Component(new CompoPath(project, "res/compo"), countingHandler, layoutsCache, null);
+        second.scan();
+
+        // THEN
+        assertThat(first.getLayout().getDocument().stringify(), equalTo(expected.getLayout().getDocument().stringify()));
+        assertThat(second.getLayout().getDocument().stringify(), equalTo(expected.getLayout().getDocument().stringify()));
+        assertThat(second.getLayout().getDocument(), not(sameInstance(first.getLayout().getDocument())));
+        assertThat(second.getStyleFiles(), equalTo(expected.getStyleFiles()));
+        // cached layouts replay resource references on every component scanning
+        assertThat(references.size(), equalTo(2 * expectedReferencesCount));
+    }
+
+    @Test
+    public void GivenDescriptorsCache_WhenCreateComponentTwice_ThenSameDescriptors() {
+        // GIVEN
+        Component expected = new Component(new CompoPath(project, "res/compo"), referenceHandler, true);
+        DescriptorsCache descriptorsCache = new DescriptorsCache();
+
+        // WHEN
+        Component first = new Component(new CompoPath(project, "res/compo"), referenceHandler, null, descriptorsCache);
+        first.scan();
+        Component second = new Component(new CompoPath(project, "res/compo"), referenceHandler, new LayoutsCache(project), descriptorsCache);
+        second.scan();
+
+        // THEN
+        assertThat(first.getScriptDescriptors(), equalTo(expected.getScriptDescriptors()));
+        assertThat(second.getScriptDescriptors(), equalTo(expected.getScriptDescriptors()));
+        assertThat(second.getMetaDescriptors(), equalTo(expected.getMetaDescriptors()));
+        assertThat(second.getLinkDescriptors(), equalTo(expected.getLinkDescriptors()));
+        assertThat(second, scriptDescriptors());
+    }
+
     private static Matcher<Component> properties() {
         return new TypeSafeMatcher<Component>() {
             @Override
@@ -16,6 +16,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -96,6 +97,9 @@ public class FilePathTest {
     }
 
     private void assertFilePath(String value, String parent, String basename, String fileName, FileType fileType, String language) {
+        if (parent != null) {
+            doAnswer(invocation -> new FilePath(project, parent)).when(project).createFilePath(parent);
+        }
         FilePath p = new FilePath(project, value);
         assertThat(p.value(), equalTo(value));
         if (parent != null) {
@@ -157,6 +161,7 @@ public class FilePathTest {
     public void GivenLayoutFileWithVariants_WhenCloneToStyle_ThenPreserveState() {
         // GIVEN
         when(project.getMediaQueryDefinition("w800")).thenReturn(new MediaQueryDefinition("w800", "screen", "x"));
+        doAnswer(invocation -> new FilePath(project, "res/compo/")).when(project).createFilePath("res/compo/");
         FilePath layoutFile = new FilePath(project, "res/compo/compo_w800.htm");
 
         // WHEN
@@ -175,6 +180,7 @@ public class FilePathTest {
     public void GivenFilePath_WhenGetParentDir_ThenExpectedValue() {
         // GIVEN
         FilePath path = new FilePath(project, "res/asset/background.jpg");
+        doAnswer(invocation -> new FilePath(project, "res/asset/")).when(project).createFilePath("res/asset/");
 
         // WHEN
         FilePath parentDir = path.getParentDir();
@@ -187,6 +193,7 @@ public class FilePathTest {
     public void GivenDirectoryPath_WhenGetParentDir_ThenExpectedValue() {
         // GIVEN
         FilePath path = new FilePath(project, "res/asset/icons");
+        doAnswer(invocation -> new FilePath(project, "res/asset/")).when(project).createFilePath("res/asset/");
 
         // WHEN
         FilePath parentDir = path.getParentDir();
@@ -0,0 +1,120 @@
+package com.jslib.wood;
+
+import com.jslib.wood.util.FilesUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FilesIndexTest {
+    private File projectRoot;
+    private File compoDir;
+
+    @Before
+    public void beforeTest() throws IOException {
+        projectRoot = new File("target/files-index");
+        compoDir = new File(projectRoot, "res/compo");
+        if (!compoDir.mkdirs()) {
+            throw new IOException("Fail to create directory " + compoDir);
+        }
+        write(new File(compoDir, "compo.htm"), "<body></body>");
+        write(new File(compoDir, "compo.css"), "body {}");
+    }
+
+    @After
+    public void afterTest() throws IOException {
+        FilesUtil.removeFilesHierarchy(projectRoot);
+    }
+
+    @Test
+    public void GivenCreatedProject_WhenIterateDir_ThenIndexedFiles() throws IOException {
+        // GIVEN
+        Project project = Project.create(projectRoot);
+        FilePath dir = project.createFilePath("res/compo/");
+
+        // WHEN
+        List<String> files = names(dir);
+
+        // THEN
+        assertThat(project.getFilesIndex().getFiles(dir), notNullValue());
+        assertThat(files, hasSize(2));
+        assertThat(files, hasItems("compo.htm", "compo.css"));
+    }
+
+    @Test
+    public void GivenNewFile_WhenUpdateFilesIndex_ThenFileIndexed() throws IOException {
+        // GIVEN
+        Project project = Project.create(projectRoot);
+        FilePath dir = project.createFilePath("res/compo/");
+        File scriptFile = new File(compoDir, "compo.js");
+        write(scriptFile, "");
+        assertThat(names(dir), not(hasItem("compo.js")));
+
+        // WHEN
+        project.updateFilesIndex(scriptFile);
+
+        // THEN
+        assertThat(names(dir), hasItem("compo.js"));
+    }
+
+    @Test
+    public void GivenDeletedDirectory_WhenUpdateFilesIndex_ThenDirectoryRemoved() throws IOException {
+        // GIVEN
+        Project project = Project.create(projectRoot);
+        FilePath dir = project.createFilePath("res/compo/");
+        FilesUtil.removeFilesHierarchy(compoDir);
+        if (!compoDir.delete()) {
+            throw new IOException("Fail to delete directory " + compoDir);
+        }
+
+        // WHEN
+        project.updateFilesIndex(compoDir);
+
+        // THEN
+        assertThat(project.getFilesIndex().getFiles(dir), nullValue());
+        assertThat(names(dir), empty());
+    }
+
+    @Test
+    public void GivenNestedAndHiddenDirectories_WhenCreateProject_ThenScanOnlyVisibleDirectories() throws IOException {
+        // GIVEN
+        File nestedDir = new File(compoDir, "nested/deep");
+        File hiddenDir = new File(projectRoot, ".git");
+        if (!nestedDir.mkdirs() || !hiddenDir.mkdirs()) {
+            throw new IOException("Fail to create test directories");
+        }
+        write(new File(nestedDir, "deep.htm"), "<body></body>");
+        write(new File(hiddenDir, "config"), "");
+
+        // WHEN
+        Project project = Project.create(projectRoot);
+
+        // THEN
+        assertThat(names(project.createFilePath("res/compo/nested/deep/")), contains("deep.htm"));
+        assertThat(project.getFilesIndex().getFiles(project.createFilePath("res/compo/nested/")), empty());
+        assertThat(project.getFilesIndex().getFiles(project.createFilePath(".git/")), nullValue());
+    }
+
+    private static List<String> names(FilePath dir) {
+        List<String> names = new ArrayList<>();
+        for (FilePath file : dir) {
+            names.add(file.getName());
+        }
+        return names;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+    }
+}
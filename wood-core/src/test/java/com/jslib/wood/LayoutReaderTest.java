@@ -0,0 +1,46 @@
+package com.jslib.wood;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LayoutReaderTest {
+    @Mock
+    private FilePath layoutFile;
+
+    @Test
+    public void GivenLayout_WhenReadWithOffset_ThenContentUnchanged() throws IOException {
+        // GIVEN
+        String layout = "<body><h1 class=\"title\">Title</h1><p>Text</p></body>";
+        Reader reader = new LayoutReader(new StringReader(layout), layoutFile);
+
+        // WHEN
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[8];
+        int count;
+        while ((count = reader.read(buffer, 3, 5)) != -1) {
+            builder.append(buffer, 3, count);
+        }
+
+        // THEN
+        assertThat(builder.toString(), equalTo(layout));
+    }
+
+    @Test(expected = WoodException.class)
+    public void GivenMissingRoot_WhenRead_ThenException() throws IOException {
+        // GIVEN
+        Reader reader = new LayoutReader(new StringReader("text"), layoutFile);
+
+        // WHEN
+        reader.read(new char[16], 0, 16);
+    }
+}
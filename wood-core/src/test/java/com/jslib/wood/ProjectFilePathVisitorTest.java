@@ -17,6 +17,7 @@ import java.util.Map;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +39,7 @@ public class ProjectFilePathVisitorTest {
     @Before
     public void beforeTest() {
         when(file.isComponentDescriptor()).thenReturn(true);
+        lenient().when(file.value()).thenReturn("res/compo/compo.xml");
         scriptDependencies = new HashMap<>();
         visitor = new Project.FilePathVisitor(scriptDependencies);
     }
@@ -54,6 +56,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(1));
@@ -78,6 +81,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(1));
@@ -102,6 +106,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(1));
@@ -126,6 +131,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(1));
@@ -151,6 +157,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(1));
@@ -183,6 +190,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(1));
@@ -217,6 +225,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(1));
@@ -229,6 +238,108 @@ public class ProjectFilePathVisitorTest {
         assertThat(dependencies.get(0).getSource(), equalTo("lib/js-lib/js-lib.js"));
     }
 
+    @Test
+    public void GivenSameDependencyOnTwoDescriptors_ThenCollectDependencyOnce() throws Exception {
+        // GIVEN
+        String document = "<compo>" + //
+                "	<script src='lib/geo-map'>" + //
+                "		<dependency src='lib/js-lib/js-lib.js'></dependency>" + //
+                "	</script>" + //
+                "</compo>";
+        when(file.getReader()).thenReturn(new StringReader(document), new StringReader(document));
+
+        // WHEN
+        visitor.visitFile(project, file);
+        visitor.visitFile(project, file);
+        visitor.endScan(project);
+
+        // THEN
+        List<IScriptDescriptor> dependencies = scriptDependencies.get("lib/geo-map");
+        assertThat(dependencies, hasSize(1));
+        assertThat(dependencies.get(0).getSource(), equalTo("lib/js-lib/js-lib.js"));
+    }
+
+    @Test
+    public void GivenDescriptorsVisitedInAnyOrder_ThenDependenciesInDescriptorsPathOrder() throws Exception {
+        // GIVEN
+        FilePath otherFile = mock(FilePath.class);
+        when(otherFile.isComponentDescriptor()).thenReturn(true);
+        when(otherFile.value()).thenReturn("res/another/another.xml");
+        when(otherFile.getReader()).thenReturn(new StringReader("<compo>" + //
+                "	<script src='lib/geo-map'>" + //
+                "		<dependency src='lib/b.js'></dependency>" + //
+                "		<dependency src='lib/a.js'></dependency>" + //
+                "	</script>" + //
+                "</compo>"));
+        when(file.getReader()).thenReturn(new StringReader("<compo>" + //
+                "	<script src='lib/geo-map'>" + //
+                "		<dependency src='lib/a.js'></dependency>" + //
+                "		<dependency src='lib/c.js'></dependency>" + //
+                "	</script>" + //
+                "</compo>"));
+
+        // WHEN
+        visitor.visitFile(project, file);
+        visitor.visitFile(project, otherFile);
+        visitor.endScan(project);
+
+        // THEN
+        List<IScriptDescriptor> dependencies = scriptDependencies.get("lib/geo-map");
+        assertThat(dependencies, hasSize(3));
+        assertThat(dependencies.get(0).getSource(), equalTo("lib/b.js"));
+        assertThat(dependencies.get(1).getSource(), equalTo("lib/a.js"));
+        assertThat(dependencies.get(2).getSource(), equalTo("lib/c.js"));
+    }
+
+    @Test
+    public void GivenScriptsSection_ThenCollectDependenciesAndIgnoreContentAfterSection() throws Exception {
+        // GIVEN
+        String document = "<compo>" + //
+                "	<scripts>" + //
+                "		<script src='lib/geo-map' defer='false'>" + //
+                "			<dependency src='lib/js-lib/js-lib.js' type='module'></dependency>" + //
+                "		</script>" + //
+                "	</scripts>" + //
+                "	<not-well-formed>" + //
+                "</compo>";
+        when(file.getReader()).thenReturn(new StringReader(document));
+
+        // WHEN
+        visitor.visitFile(project, file);
+        visitor.endScan(project);
+
+        // THEN
+        List<IScriptDescriptor> dependencies = scriptDependencies.get("lib/geo-map");
+        assertThat(dependencies, hasSize(1));
+        assertThat(dependencies.get(0).getSource(), equalTo("lib/js-lib/js-lib.js"));
+        assertThat(dependencies.get(0).getType(), equalTo("module"));
+        assertThat(dependencies.get(0).getDefer(), equalTo("true"));
+    }
+
+    @Test
+    public void GivenEmptyAttributes_ThenProcessedAsMissing() throws Exception {
+        // GIVEN
+        String document = "<compo>" + //
+                "	<script src='lib/geo-map'>" + //
+                "		<dependency src='lib/js-lib/js-lib.js' type='' async='' nonce=''></dependency>" + //
+                "		<dependency src=''></dependency>" + //
+                "	</script>" + //
+                "</compo>";
+        when(file.getReader()).thenReturn(new StringReader(document));
+
+        // WHEN
+        visitor.visitFile(project, file);
+        visitor.endScan(project);
+
+        // THEN
+        List<IScriptDescriptor> dependencies = scriptDependencies.get("lib/geo-map");
+        assertThat(dependencies, hasSize(1));
+        assertThat(dependencies.get(0).getSource(), equalTo("lib/js-lib/js-lib.js"));
+        assertThat(dependencies.get(0).getType(), equalTo("text/javascript"));
+        assertThat(dependencies.get(0).getAsync(), nullValue());
+        assertThat(dependencies.get(0).getNonce(), nullValue());
+    }
+
     @Test
     public void GivenCompoDescriptorWithScriptWithoutDependency_ThenNoDependenciesCollected() throws Exception {
         // GIVEN
@@ -239,6 +350,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(0));
@@ -251,6 +363,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(0));
@@ -263,6 +376,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, file);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(0));
@@ -275,6 +389,7 @@ public class ProjectFilePathVisitorTest {
 
         // WHEN
         visitor.visitFile(project, dir);
+        visitor.endScan(project);
 
         // THEN
         assertThat(scriptDependencies.keySet(), hasSize(0));
@@ -70,6 +70,23 @@ public class ProjectIntegrationTest implements IReferenceHandler {
         assertFalse(project.hasNamespace());
     }
 
+    @Test
+    public void GivenSamePath_WhenCreateFilePath_ThenSharedInstance() {
+        // GIVEN
+        project = Project.create(new File("src/test/resources/project"));
+
+        // WHEN
+        FilePath dir = project.createFilePath("res/compo");
+        FilePath file = project.createFilePath("res/compo/compo.htm");
+
+        // THEN
+        assertThat(project.createFilePath("res/compo/"), sameInstance(dir));
+        assertThat(project.createFilePath("res/compo"), sameInstance(dir));
+        assertThat(project.createFilePath(new File(project.getProjectRoot(), "res/compo/compo.htm")), sameInstance(file));
+        assertThat(file.getParentDir(), sameInstance(dir));
+        assertThat(file.getParentDir(), sameInstance(file.getParentDir()));
+    }
+
     private void assertDescriptor() {
         ProjectDescriptor descriptor = project.getDescriptor();
         assertThat(descriptor, notNullValue());
@@ -201,4 +201,42 @@ public class SourceReaderTest {
         // THEN
         assertTrue(writer.toString().contains("Iulian Rotaru&lt;mr.iulianrotaru@gmail.com&gt;"));
     }
+
+    @Test
+    public void GivenImageReferenceInsideMediaQuery_WhenSourceRead_ThenImageResolve() throws IOException {
+        // GIVEN
+        String source = "@media screen {" + //
+                "	body { background-image: url(@image/background); }" + //
+                "}";
+        when(sourceFile.getReader()).thenReturn(new StringReader(source));
+        when(handler.onResourceReference(new Reference(Reference.Type.IMAGE, "background"), sourceFile)).thenReturn("media/background.jpg");
+
+        // WHEN
+        SourceReader reader = new SourceReader(sourceFile, handler);
+        StringWriter writer = new StringWriter();
+        FilesUtil.copy(reader, writer);
+
+        // THEN
+        assertThat(writer.toString(), equalTo("@media screen {	body { background-image: url(media/background.jpg); }}"));
+    }
+
+    @Test
+    public void GivenSmallReadBuffer_WhenSourceRead_ThenReferenceResolve() throws IOException {
+        // GIVEN
+        String source = "<h1>@string/title</h1><p>@@string/title</p>";
+        when(sourceFile.getReader()).thenReturn(new StringReader(source));
+        when(handler.onResourceReference(new Reference(Reference.Type.STRING, "title"), sourceFile)).thenReturn("Component Title");
+
+        // WHEN
+        SourceReader reader = new SourceReader(sourceFile, handler);
+        StringBuilder builder = new StringBuilder();
+        char[] buffer = new char[3];
+        int length;
+        while ((length = reader.read(buffer, 0, buffer.length)) != -1) {
+            builder.append(buffer, 0, length);
+        }
+
+        // THEN
+        assertThat(builder.toString(), equalTo("<h1>Component Title</h1><p>@string/title</p>"));
+    }
 }
@@ -0,0 +1,107 @@
+package com.jslib.wood;
+
+import com.jslib.wood.util.FilesUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class VariablesSnapshotTest {
+    private File projectRoot;
+    private File stringsFile;
+
+    @Before
+    public void beforeTest() throws IOException {
+        projectRoot = new File("target/variables-snapshot");
+        File compoDir = new File(projectRoot, "res/compo");
+        if (!compoDir.mkdirs()) {
+            throw new IOException("Fail to create directory " + compoDir);
+        }
+        stringsFile = new File(compoDir, "strings.xml");
+        write(stringsFile, "<string><title>Title</title><app>App @string/title</app></string>");
+    }
+
+    @After
+    public void afterTest() throws IOException {
+        FilesUtil.removeFilesHierarchy(projectRoot);
+    }
+
+    @Test
+    public void GivenLoadedVariables_WhenLoadSnapshot_ThenSameValues() {
+        // GIVEN
+        Project project = Project.create(projectRoot);
+        FilePath file = project.createFilePath(stringsFile);
+        Variables variables = new Variables(project.createFilePath("res/compo/"));
+
+        // WHEN
+        Map<Reference, String> values = VariablesSnapshot.load(file);
+
+        // THEN
+        assertThat(VariablesSnapshot.snapshotFile(file).isFile(), equalTo(true));
+        assertThat(values, notNullValue());
+        assertThat(values, equalTo(variables.getLanguageValues().get(null)));
+        assertThat(values.get(new Reference(Reference.Type.STRING, "app")), equalTo("App @string/title"));
+    }
+
+    @Test
+    public void GivenChangedSourceFile_WhenLoadSnapshot_ThenNull() throws IOException {
+        // GIVEN
+        Project project = Project.create(projectRoot);
+        FilePath file = project.createFilePath(stringsFile);
+        new Variables(project.createFilePath("res/compo/"));
+        write(stringsFile, "<string><title>Changed</title></string>");
+
+        // WHEN
+        Map<Reference, String> values = VariablesSnapshot.load(file);
+
+        // THEN
+        assertThat(values, nullValue());
+    }
+
+    @Test
+    public void GivenSameLengthChangeWithSameModifiedTime_WhenLoadSnapshot_ThenNull() throws IOException {
+        // GIVEN
+        Project project = Project.create(projectRoot);
+        FilePath file = project.createFilePath(stringsFile);
+        new Variables(project.createFilePath("res/compo/"));
+        long modified = stringsFile.lastModified();
+        // change is not visible on modification time but source was modified too close to snapshot writing
+        write(stringsFile, "<string><title>Tiles</title><app>App @string/title</app></string>");
+        assertThat(stringsFile.setLastModified(modified), equalTo(true));
+
+        // WHEN
+        Map<Reference, String> values = VariablesSnapshot.load(file);
+
+        // THEN
+        assertThat(values, nullValue());
+    }
+
+    @Test
+    public void GivenSnapshot_WhenLoadVariables_ThenValuesFromSnapshot() {
+        // GIVEN
+        Project project = Project.create(projectRoot);
+        new Variables(project.createFilePath("res/compo/"));
+
+        // WHEN
+        Variables variables = new Variables(project.createFilePath("res/compo/"));
+
+        // THEN
+        Map<Reference, String> values = variables.getLanguageValues().get(null);
+        assertThat(values, aMapWithSize(2));
+        assertThat(values.get(new Reference(Reference.Type.STRING, "title")), equalTo("Title"));
+    }
+
+    private static void write(File file, String content) throws IOException {
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+    }
+}
@@ -242,6 +242,73 @@ public class VariablesTest {
         assertThat(value, equalTo("Title"));
     }
 
+    @Test
+    public void GivenNestedReference_WhenGetVariable_ThenResolvedValue() {
+        // GIVEN
+        String xml = "<?xml version='1.0' encoding='UTF-8'?>" + //
+                "<string>" + //
+                "	<app>@string/name app @@ @media</app>" + //
+                "	<name>@string/version</name>" + //
+                "	<version>Wood</version>" + //
+                "</string>";
+
+        when(file.getReader()).thenReturn(new StringReader(xml));
+
+        Variables variables = new Variables();
+        variables.load(file);
+
+        IReferenceHandler handler = new IReferenceHandler() {
+            @Override
+            public String onResourceReference(Reference reference, FilePath sourceFile) throws WoodException {
+                assertThat(sourceFile, equalTo(varFile));
+                return variables.get(reference, sourceFile, this);
+            }
+        };
+
+        // WHEN
+        String value = variables.get(new Reference(Reference.Type.STRING, "app"), file, handler);
+
+        // THEN
+        assertThat(value, equalTo("Wood app @ @media"));
+    }
+
+    @Test
+    public void GivenLocalizedAndDefaultFiles_WhenGetVariable_ThenLanguageValueWithDefaultFallback() {
+        // GIVEN
+        FilePath[] files = new FilePath[]{file(), file()};
+
+        String xml1 = "<?xml version='1.0' encoding='UTF-8'?>" + //
+                "<string>" + //
+                "	<title>Title</title>" + //
+                "	<footer>Footer</footer>" + //
+                "</string>";
+        when(files[0].getReader()).thenReturn(new StringReader(xml1));
+
+        Variants localizedVariants = mock(Variants.class);
+        when(localizedVariants.getLanguage()).thenReturn("ro");
+        when(files[1].getVariants()).thenReturn(localizedVariants);
+        String xml2 = "<?xml version='1.0' encoding='UTF-8'?>" + //
+                "<string>" + //
+                "	<title>Titlu</title>" + //
+                "</string>";
+        when(files[1].getReader()).thenReturn(new StringReader(xml2));
+
+        Variables variables = new Variables();
+        variables.load(files[0]);
+        variables.load(files[1]);
+        IReferenceHandler handler = mock(IReferenceHandler.class);
+
+        // WHEN
+        String title = variables.get("ro", new Reference(Reference.Type.STRING, "title"), file, handler);
+        String footer = variables.get("ro", new Reference(Reference.Type.STRING, "footer"), file, handler);
+        String defaultTitle = variables.get("en", new Reference(Reference.Type.STRING, "title"), file, handler);
+
+        // THEN
+        assertThat(title, equalTo("Titlu"));
+        assertThat(footer, equalTo("Footer"));
+        assertThat(defaultTitle, equalTo("Title"));
+    }
+
     @Test(expected = WoodException.class)
     public void GivenTwoVariablesFilesWithCircularDependency_WhenGetVariable_ThenException() {
         // GIVEN
@@ -0,0 +1,157 @@
+package com.jslib.wood.api;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import com.jslib.wood.dom.Document;
+import com.jslib.wood.dom.DocumentBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.AdditionalAnswers;
+import org.xml.sax.SAXException;
+
+public class SerializerTest {
+    private DocumentBuilder builder;
+
+    @Before
+    public void beforeTest() {
+        builder = DocumentBuilder.getInstance();
+    }
+
+    @Test
+    public void GivenDocument_WhenSerialize_ThenEscapedAndTrimmedContent() throws SAXException, IOException {
+        // GIVEN
+        String xml = "<body>" + //
+                "<p title=' a &lt; b '>  Tom &amp; Jerry &quot;quoted&quot;  </p>" + //
+                "<br/>" + //
+                "<td colspan=' 1 ' rowspan='2'></td>" + //
+                "<script>  if (a &lt; b) {}  </script>" + //
+                "</body>";
+        Document doc = builder.parseXML(xml);
+        StringWriter writer = new StringWriter();
+
+        // WHEN
+        doc.serialize(writer, false, false);
+
+        // THEN
+        String html = writer.toString();
+        assertThat(html, containsString("<p title=\"a &lt; b\">Tom &amp; Jerry &quot;quoted&quot;</p>"));
+        assertThat(html, containsString("<br />"));
+        assertThat(html, containsString("<td rowspan=\"2\"></td>"));
+        assertThat(html, not(containsString("colspan")));
+        assertThat(html, containsString("<script>if (a < b) {}</script>"));
+    }
+
+    @Test
+    public void GivenNonAsciiDocument_WhenSerializeToStream_ThenSameAsWriterInUTF8() throws SAXException, IOException {
+        // GIVEN
+        String xml = "<body><h1 class='tîtè'>Știri € 😀 &lt;ok&gt;</h1><IMG src='a.png'/></body>";
+        Document doc = builder.parseXML(xml);
+        StringWriter writer = new StringWriter();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        // WHEN
+        doc.serialize(writer);
+        doc.serialize(stream);
+
+        // THEN
+        assertThat(new String(stream.toByteArray(), StandardCharsets.UTF_8), equalTo(writer.toString()));
+        assertThat(writer.toString(), containsString("Știri € 😀 &lt;ok&gt;"));
+        assertThat(writer.toString(), containsString("<IMG src=\"a.png\" />"));
+    }
+
+    @Test
+    public void GivenDocumentWithoutNativeStreamSupport_WhenSerializeToStreamAndClone_ThenDefaultMethodsUsed() throws SAXException, IOException {
+        // GIVEN
+        Document source = builder.parseXML("<body><h1 class='tîtè'>Știri € 😀</h1></body>");
+        // delegate abstract methods to source document but run interface default methods
+        Document doc = mock(Document.class, withSettings().defaultAnswer(AdditionalAnswers.delegatesTo(source)));
+        doCallRealMethod().when(doc).serialize(any(OutputStream.class));
+        doCallRealMethod().when(doc).cloneDocument();
+        StringWriter writer = new StringWriter();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+        // WHEN
+        source.serialize(writer);
+        doc.serialize(stream);
+        Document clone = doc.cloneDocument();
+
+        // THEN
+        assertThat(new String(stream.toByteArray(), StandardCharsets.UTF_8), equalTo(writer.toString()));
+        assertThat(clone, not(sameInstance(source)));
+        assertThat(clone.getRoot(), not(sameInstance(source.getRoot())));
+        assertThat(clone.getByTag("h1").getText(), equalTo("Știri € 😀"));
+        clone.getByTag("h1").setText("changed");
+        assertThat(source.getByTag("h1").getText(), equalTo("Știri € 😀"));
+    }
+
+    @Test
+    public void GivenDocument_WhenSerializeMinified_ThenInsignificantWhiteSpaceDropped() throws SAXException, IOException {
+        // GIVEN
+        String xml = "<html>\r\n" + //
+                "  <head>\r\n    <title> Page   title </title>\r\n  </head>\r\n" + //
+                "  <body>\r\n" + //
+                "    <p>Tom   &amp;\r\n Jerry <b>bold</b> <i>italic</i></p>\r\n" + //
+                "    <pre>  keep\r\n   this  </pre>\r\n" + //
+                "    <script>  var a = 1;  </script>\r\n" + //
+                "  </body>\r\n" + //
+                "</html>";
+        Document doc = builder.parseXML(xml);
+        StringWriter writer = new StringWriter();
+
+        // WHEN
+        doc.serialize(writer, false, false, true);
+
+        // THEN
+        assertThat(writer.toString(), equalTo("<html><head><title>Page title</title></head><body>" + //
+                "<p>Tom &amp; Jerry <b>bold</b> <i>italic</i></p>" + //
+                "<pre>  keep\n   this  </pre>" + //
+                "<script>var a = 1;</script>" + //
+                "</body></html>"));
+    }
+
+    @Test
+    public void GivenDocument_WhenSerializeMinifiedWithoutQuotes_ThenOptionalQuotesOmitted() throws SAXException, IOException {
+        // GIVEN
+        String xml = "<body><img src='logo.png' alt='site logo'/><a href='index.htm' class=''>home</a></body>";
+        Document doc = builder.parseXML(xml);
+        StringWriter writer = new StringWriter();
+
+        // WHEN
+        doc.serialize(writer, false, false, true, true);
+
+        // THEN
+        assertThat(writer.toString(), equalTo("<body><img alt=\"site logo\" src=logo.png /><a class=\"\" href=index.htm>home</a></body>"));
+    }
+
+    @Test
+    public void GivenSpacesAtInlineElementEdges_WhenSerializeMinified_ThenSpacesKept() throws SAXException, IOException {
+        // GIVEN
+        String xml = "<body><p>Hello<b> world</b> and <i>more </i>text</p>" + //
+                "<p>before <script>var a = 1;</script> after</p>\r\n" + //
+                "<div> <span>block edge</span> </div></body>";
+        Document doc = builder.parseXML(xml);
+        StringWriter writer = new StringWriter();
+
+        // WHEN
+        doc.serialize(writer, false, false, true);
+
+        // THEN
+        assertThat(writer.toString(), equalTo("<body><p>Hello<b> world</b> and <i>more </i>text</p>" + //
+                "<p>before <script>var a = 1;</script> after</p>" + //
+                "<div><span>block edge</span></div></body>"));
+    }
+}
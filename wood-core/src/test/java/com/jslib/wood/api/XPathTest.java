@@ -155,6 +155,22 @@ public class XPathTest {
         assertThat(elist.item(0).getAttr("w:editable"), equalTo("section-2"));
     }
 
+    @Test
+    public void GivenSameExpressionOnDifferentDocuments_WhenFindByXPath_ThenEachDocumentElementsFound() throws SAXException, XPathExpressionException {
+        Document doc1 = builder.parseXML("<body><p class='a'></p></body>");
+        Document doc2 = builder.parseXML("<body><p class='b'></p><p class='c'></p></body>");
+
+        EList elist1 = doc1.findByXPath("//p");
+        EList elist2 = doc2.findByXPath("//p");
+        EList elist3 = doc1.findByXPath("//p[@class='%s']", "a");
+
+        assertThat(elist1.size(), equalTo(1));
+        assertThat(elist1.item(0).getAttr("class"), equalTo("a"));
+        assertThat(elist2.size(), equalTo(2));
+        assertThat(elist2.item(1).getAttr("class"), equalTo("c"));
+        assertThat(elist3.size(), equalTo(1));
+    }
+
     private static final NamespaceContext namespaceContext = new NamespaceContext() {
         @Override
         public String getNamespaceURI(String prefix) {
@@ -1,7 +1,10 @@
 package com.jslib.wood.impl;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertFalse;
@@ -212,4 +215,32 @@ public class XmlnsOperatorsHandlerTest {
 		// THEN
 		assertFalse(div.hasAttrNS(WOOD.NS, "compo"));
 	}
+
+	@Test
+	public void GivenTemplateDocument_WhenIndexOperators_ThenElementsGroupedInDocumentOrder() throws SAXException {
+		// GIVEN
+		String xml = "<?xml version='1.0' encoding='UTF-8'?>" + //
+				"<body xmlns:w='js-lib.com/wood' w:template='res/template#main'>" + //
+				"	<section w:editable='section-1'></section>" + //
+				"	<div>" + //
+				"		<section w:editable='section-2'></section>" + //
+				"		<div w:compo='res/dialog' w:param='title:Dialog'></div>" + //
+				"	</div>" + //
+				"</body>";
+		Document doc = builder.parseXMLNS(xml);
+
+		// WHEN
+		OperatorsIndex index = operators.indexOperators(doc);
+
+		// THEN
+		assertThat(index.find(Operator.TEMPLATE), contains(doc.getRoot()));
+		assertThat(index.find(Operator.EDITABLE), hasSize(2));
+		assertThat(index.find(Operator.EDITABLE).get(0).getAttr("w:editable"), equalTo("section-1"));
+		assertThat(index.find(Operator.EDITABLE).get(1).getAttr("w:editable"), equalTo("section-2"));
+		assertThat(index.find(Operator.COMPO), contains(doc.getByTag("div").getFirstChild().getNextSibling()));
+		assertThat(index.find(Operator.PARAM), equalTo(index.find(Operator.COMPO)));
+		assertThat(index.find(Operator.CONTENT), empty());
+		assertThat(index.get(Operator.EDITABLE, "section-2"), equalTo(index.find(Operator.EDITABLE).get(1)));
+		assertThat(index.find(doc.getByTag("div"), Operator.EDITABLE), contains(index.find(Operator.EDITABLE).get(1)));
+	}
 }
@@ -1,5 +1,6 @@
 package com.jslib.wood.preview;
 
+import com.jslib.wood.Project;
 import com.jslib.wood.WoodException;
 import com.jslib.wood.util.StringsUtil;
 import jakarta.servlet.ServletContext;
@@ -61,6 +62,12 @@ public class FileSystemWatcher implements ServletContextListener, Runnable {
 
     private final List<Path> excludes;
 
+    /**
+     * Servlet context used to retrieve project instance whose files index is updated on file system changes. Project is
+     * created by {@link PreviewServlet} and stored on servlet context.
+     */
+    private volatile ServletContext servletContext;
+
     /**
      * Construct file system watcher.
      */
@@ -81,6 +88,7 @@ public class FileSystemWatcher implements ServletContextListener, Runnable {
     public void contextInitialized(ServletContextEvent contextEvent) {
         log.trace("contextInitialized(ServletContextEvent contextEvent)");
         ServletContext servletContext = contextEvent.getServletContext();
+        this.servletContext = servletContext;
 
         String projectDirParam = servletContext.getInitParameter(PreviewServlet.PROJECT_DIR_PARAM);
         if(projectDirParam == null) {
@@ -174,6 +182,7 @@ public class FileSystemWatcher implements ServletContextListener, Runnable {
                             register(path);
                         }
                     }
+                    updateFilesIndex(path);
 
                     long currentTimestamp = System.currentTimeMillis();
                     if (currentTimestamp - lastEventTimestamp > TIMESTAMP_THRESHOLD) {
@@ -189,6 +198,21 @@ public class FileSystemWatcher implements ServletContextListener, Runnable {
         log.debug("Exit watcher thread");
     }
 
+    /**
+     * Update project files index for changed file, if project instance is already created.
+     *
+     * @param path created, modified or deleted file or directory.
+     */
+    void updateFilesIndex(Path path) {
+        if (servletContext == null) {
+            return;
+        }
+        Project project = (Project) servletContext.getAttribute(Project.class.getName());
+        if (project != null) {
+            project.updateFilesIndex(path.toFile());
+        }
+    }
+
     /**
      * Register directory to watcher service, for all supported events. Also takes care to cache watch key to {@link #keyPaths}.
      *
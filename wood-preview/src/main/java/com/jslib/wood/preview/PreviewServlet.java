@@ -2,6 +2,7 @@ package com.jslib.wood.preview;
 
 import com.jslib.wood.*;
 import com.jslib.wood.util.FilesUtil;
+import com.jslib.wood.util.ParsersUtil;
 import com.jslib.wood.util.StringsUtil;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletContext;
@@ -128,6 +129,8 @@ public final class PreviewServlet extends HttpServlet implements IReferenceHandl
         log.trace("init(ServletConfig config)");
         servletContext = config.getServletContext();
         log.debug("Initialize servlet {}#{}", servletContext.getServletContextName(), config.getServletName());
+        // parsers pooled on container threads would keep this web application class loader after undeploy
+        ParsersUtil.disablePooling();
         contextPath = servletContext.getContextPath();
 
         project = (Project) servletContext.getAttribute(Project.class.getName());